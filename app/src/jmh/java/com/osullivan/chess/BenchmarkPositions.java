@@ -0,0 +1,32 @@
+package com.osullivan.chess;
+
+/**
+ * fixed corpus of positions shared by the benchmarks,
+ * taken from the perft reference positions so their move counts are known
+ */
+public final class BenchmarkPositions {
+  public static final String OPENING = "OPENING";
+  public static final String MIDDLEGAME = "MIDDLEGAME";
+  public static final String ENDGAME = "ENDGAME";
+
+  private BenchmarkPositions(){
+  }
+
+  /**
+   * set up a corpus position on a new board
+   * @param phase OPENING, MIDDLEGAME or ENDGAME
+   * @return board
+   */
+  public static Board toBoard(String phase){
+    switch(phase){
+      case OPENING:
+        return PerftPosition.STARTING.toBoard();
+      case MIDDLEGAME:
+        return PerftPosition.KIWIPETE.toBoard();
+      case ENDGAME:
+        return PerftPosition.POSITION_3.toBoard();
+      default:
+        throw new IllegalArgumentException("unknown benchmark position " + phase);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.osullivan.chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * square lookups, team queries and text rendering of a corpus position
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+  @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+  public String position;
+
+  private Board board;
+  private BoardTextView view;
+  private Square[] squares;
+
+  @Setup
+  public void setUp(){
+    this.board = BenchmarkPositions.toBoard(this.position);
+    this.view = new BoardTextView(this.board);
+    this.squares = new Square[64];
+    for(int i = 0; i < 64; i++){
+      this.squares[i] = Square.of(i);
+    }
+  }
+
+  /**
+   * look up all 64 squares
+   */
+  @Benchmark
+  public void whatIsAtSquare(Blackhole bh){
+    for(Square s: this.squares){
+      bh.consume(this.board.whatIsAtSquare(s));
+    }
+  }
+
+  @Benchmark
+  public void getTeamPieces(Blackhole bh){
+    bh.consume(this.board.getTeamPieces(true));
+    bh.consume(this.board.getTeamPieces(false));
+  }
+
+  @Benchmark
+  public String displayBoard(){
+    return this.view.displayBoard();
+  }
+}
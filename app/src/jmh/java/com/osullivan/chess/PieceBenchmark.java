@@ -0,0 +1,68 @@
+package com.osullivan.chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * canMoveTo and canCover of every piece of one type in a corpus position
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceBenchmark {
+  @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+  public String position;
+
+  @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+  public String pieceType;
+
+  private Board board;
+  private Piece[] pieces;
+
+  @Setup
+  public void setUp(){
+    this.board = BenchmarkPositions.toBoard(this.position);
+    int type = Arrays.asList("PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING").indexOf(this.pieceType);
+    List<Piece> selected = new ArrayList<>();
+    for(boolean isWhite: new boolean[]{true, false}){
+      for(Piece p: this.board.getTeamPieceList(isWhite)){
+        if(p.getType() == type){
+          selected.add(p);
+        }
+      }
+    }
+    this.pieces = selected.toArray(new Piece[0]);
+  }
+
+  @Benchmark
+  public void canMoveTo(Blackhole bh){
+    for(Piece p: this.pieces){
+      bh.consume(p.canMoveTo(this.board));
+    }
+  }
+
+  @Benchmark
+  public void canCover(Blackhole bh){
+    for(Piece p: this.pieces){
+      bh.consume(p.canCover(this.board));
+    }
+  }
+}
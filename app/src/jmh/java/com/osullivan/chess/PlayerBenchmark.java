@@ -0,0 +1,57 @@
+package com.osullivan.chess;
+
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * game state queries of the side to move in a corpus position
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+  @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+  public String position;
+
+  private Player player;
+
+  @Setup
+  public void setUp(){
+    Board board = BenchmarkPositions.toBoard(this.position);
+    PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+    this.player = new TextPlayer(board.isWhiteToMove(), board, new BufferedReader(new StringReader("")), out);
+  }
+
+  @Benchmark
+  public boolean isUnderCheck(){
+    return this.player.isUnderCheck();
+  }
+
+  @Benchmark
+  public boolean isCheckMate(){
+    return this.player.isCheckMate();
+  }
+
+  @Benchmark
+  public boolean isStaleMate(){
+    return this.player.isStaleMate();
+  }
+}
@@ -0,0 +1,901 @@
+package com.osullivan.chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * board logic shared by every Board implementation,
+ * subclasses only decide how pieces are stored and looked up by square
+ */
+public abstract class AbstractBoard implements Board {
+  private static final int WHITE = 0;
+  private static final int BLACK = 1;
+
+  // starting squares of White's castling pieces, Black's are on the top rank of the board
+  private static final Square WHITE_KING_SQUARE = Square.of("e1");
+  private static final Square WHITE_KING_SIDE_ROOK_SQUARE = Square.of("h1");
+  private static final Square WHITE_QUEEN_SIDE_ROOK_SQUARE = Square.of("a1");
+  private static final int INITIAL_UNDO_CAPACITY = 256;
+  // positions a copy remembers from before its position was copied, enough for the fifty-move rule
+  private static final int MAX_COPIED_KEYS = 100;
+
+  protected final int width;
+  protected final int height;
+  private List<Move> moveLog;
+
+  // pieces of each team in the order they were added, indexed by color
+  private final List<List<Piece>> teamPieces;
+  private final List<List<Piece>> teamPieceViews;
+  private final Piece[] kings;
+
+  // occupancy bitboards, indexed by color * 6 + piece type and by color
+  private final long[] pieceBitboards;
+  private final long[] teamBitboards;
+  private long occupancy;
+  private final long boardMask;
+  private final Square blackKingSquare;
+  private final Square blackKingSideRookSquare;
+  private final Square blackQueenSideRookSquare;
+  // squares of every castling piece, castling rights change when one of them changes
+  private final long castlingSquares;
+
+  /**
+   * attack maps, kept up to date as pieces are put on and lifted off squares
+   * a slider's attacks are recomputed whenever a square on one of its rays changes
+   */
+  // attacks of the piece on each square, 0 if empty
+  private final long[] squareAttacks;
+  // number of pieces of a team attacking each square, indexed by color and square
+  private final int[][] attackCounts;
+  // squares attacked by at least one piece of a team, indexed by color
+  private final long[] attackMaps;
+
+  private boolean whiteToMove;
+  private int castlingRights;
+  private Square enPassantSquare;
+  private long zobristKey;
+  // running totals for Evaluation, updated with every piece put and lifted
+  private int middlegameScore;
+  private int endgameScore;
+  private int gamePhase;
+  private int halfmoveClock;
+  private int fullmoveNumber;
+
+  /**
+   * undo stack for makeMove, one slot per move made
+   * the arrays are preallocated, so making and unmaking moves does not allocate
+   */
+  private int undoSize;
+  private Piece[] undoMovedPieces;
+  private Square[] undoSquaresFrom;
+  private Piece[] undoCapturedPieces;
+  private int[] undoCapturedIndices;
+  private Piece[] undoPromotedPieces;
+  private int[] undoPromotedIndices;
+  private Piece[] undoCastlingRooks;
+  private Square[] undoRookSquaresFrom;
+  private boolean[] undoWhiteToMove;
+  private int[] undoCastlingRights;
+  private Square[] undoEnPassantSquares;
+  private long[] undoZobristKeys;
+  private int[] undoHalfmoveClocks;
+  private int[] undoFullmoveNumbers;
+  // keys of the positions before the copied position, oldest first, see getPreviousKeys
+  private final long[] copiedKeys;
+  private int copiedKeyCount;
+
+  public AbstractBoard(int width, int height){
+    this.width = width;
+    this.height = height;
+    this.moveLog = new ArrayList<>();
+    this.teamPieces = new ArrayList<>();
+    this.teamPieceViews = new ArrayList<>();
+    for(int color = WHITE; color <= BLACK; color++){
+      List<Piece> pieces = new ArrayList<>();
+      this.teamPieces.add(pieces);
+      this.teamPieceViews.add(Collections.unmodifiableList(pieces));
+    }
+    this.kings = new Piece[2];
+    this.pieceBitboards = new long[12];
+    this.teamBitboards = new long[2];
+    this.occupancy = 0L;
+    this.boardMask = computeBoardMask(width, height);
+    this.blackKingSquare = Square.of(height, WHITE_KING_SQUARE.getColumn());
+    this.blackKingSideRookSquare = Square.of(height, WHITE_KING_SIDE_ROOK_SQUARE.getColumn());
+    this.blackQueenSideRookSquare = Square.of(height, WHITE_QUEEN_SIDE_ROOK_SQUARE.getColumn());
+    this.castlingSquares = squareBit(WHITE_KING_SQUARE) | squareBit(WHITE_KING_SIDE_ROOK_SQUARE)
+      | squareBit(WHITE_QUEEN_SIDE_ROOK_SQUARE) | squareBit(this.blackKingSquare)
+      | squareBit(this.blackKingSideRookSquare) | squareBit(this.blackQueenSideRookSquare);
+    this.squareAttacks = new long[64];
+    this.attackCounts = new int[2][64];
+    this.attackMaps = new long[2];
+    this.whiteToMove = true;
+    this.castlingRights = 0;
+    this.enPassantSquare = null;
+    this.zobristKey = 0L;
+    this.middlegameScore = 0;
+    this.endgameScore = 0;
+    this.gamePhase = 0;
+    this.halfmoveClock = 0;
+    this.fullmoveNumber = 1;
+    this.undoSize = 0;
+    this.allocateUndoStack(INITIAL_UNDO_CAPACITY);
+    this.copiedKeys = new long[MAX_COPIED_KEYS];
+    this.copiedKeyCount = 0;
+  }
+
+  private void allocateUndoStack(int capacity){
+    this.undoMovedPieces = new Piece[capacity];
+    this.undoSquaresFrom = new Square[capacity];
+    this.undoCapturedPieces = new Piece[capacity];
+    this.undoCapturedIndices = new int[capacity];
+    this.undoPromotedPieces = new Piece[capacity];
+    this.undoPromotedIndices = new int[capacity];
+    this.undoCastlingRooks = new Piece[capacity];
+    this.undoRookSquaresFrom = new Square[capacity];
+    this.undoWhiteToMove = new boolean[capacity];
+    this.undoCastlingRights = new int[capacity];
+    this.undoEnPassantSquares = new Square[capacity];
+    this.undoZobristKeys = new long[capacity];
+    this.undoHalfmoveClocks = new int[capacity];
+    this.undoFullmoveNumbers = new int[capacity];
+  }
+
+  /**
+   * only happens when a game outgrows the stack, never inside a search
+   */
+  private void growUndoStack(){
+    int capacity = this.undoMovedPieces.length * 2;
+    this.undoMovedPieces = Arrays.copyOf(this.undoMovedPieces, capacity);
+    this.undoSquaresFrom = Arrays.copyOf(this.undoSquaresFrom, capacity);
+    this.undoCapturedPieces = Arrays.copyOf(this.undoCapturedPieces, capacity);
+    this.undoCapturedIndices = Arrays.copyOf(this.undoCapturedIndices, capacity);
+    this.undoPromotedPieces = Arrays.copyOf(this.undoPromotedPieces, capacity);
+    this.undoPromotedIndices = Arrays.copyOf(this.undoPromotedIndices, capacity);
+    this.undoCastlingRooks = Arrays.copyOf(this.undoCastlingRooks, capacity);
+    this.undoRookSquaresFrom = Arrays.copyOf(this.undoRookSquaresFrom, capacity);
+    this.undoWhiteToMove = Arrays.copyOf(this.undoWhiteToMove, capacity);
+    this.undoCastlingRights = Arrays.copyOf(this.undoCastlingRights, capacity);
+    this.undoEnPassantSquares = Arrays.copyOf(this.undoEnPassantSquares, capacity);
+    this.undoZobristKeys = Arrays.copyOf(this.undoZobristKeys, capacity);
+    this.undoHalfmoveClocks = Arrays.copyOf(this.undoHalfmoveClocks, capacity);
+    this.undoFullmoveNumbers = Arrays.copyOf(this.undoFullmoveNumbers, capacity);
+  }
+
+  private static int colorOf(boolean isWhite){
+    return isWhite ? WHITE : BLACK;
+  }
+
+  /**
+   * @param s square on or off the board
+   * @return bit of the square, 0 if it does not fit in the 8 x 8 square indexing
+   */
+  private static long squareBit(Square s){
+    if(s.getRow() < 1 || s.getRow() > 8 || s.getColumn() < 1 || s.getColumn() > 8){
+      return 0L;
+    }
+    return 1L << s.getIndex();
+  }
+
+  private static long computeBoardMask(int width, int height){
+    long mask = 0L;
+    for(int row = 0; row < Math.min(height, 8); row++){
+      for(int col = 0; col < Math.min(width, 8); col++){
+        mask |= 1L << (row * 8 + col);
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * store piece at its square, the square is on board and empty
+   * @param p
+   */
+  protected abstract void placePiece(Piece p);
+
+  /**
+   * clear the square of a piece stored on this board
+   * @param p
+   */
+  protected abstract void clearPiece(Piece p);
+
+  @Override
+  public boolean isSquareOnBoard(Square s){
+    if(s.getRow() < 1 || s.getRow() > this.height || s.getColumn() < 1 || s.getColumn() > this.width){
+      return false;
+    }
+    return true;
+  }
+
+  private void setUpPawns(boolean isWhite){
+    for(int i = 1; i <= this.width; i++){
+      Square square = Square.of(isWhite ? 2 : this.height -2 + 1, i);
+      this.tryAddPiece(new Pawn("P", isWhite, square));
+    }
+  }
+
+  private void setUpFirstRankPieces(boolean isWhite){
+    int row = isWhite ? 1 : this.height;
+
+    // pair of Rooks
+    this.tryAddPiece(new Rook("R", isWhite, Square.of(row, 1), true));
+    this.tryAddPiece(new Rook("R", isWhite, Square.of(row, 8), false));
+    // pair of Knights
+    this.tryAddPiece(new Knight("N", isWhite, Square.of(row, 2)));
+    this.tryAddPiece(new Knight("N", isWhite, Square.of(row, 7)));
+    // pair of Bishops
+    this.tryAddPiece(new Bishop("B", isWhite, Square.of(row, 3)));
+    this.tryAddPiece(new Bishop("B", isWhite, Square.of(row, 6)));
+    // Queen
+    this.tryAddPiece(new Queen("Q", isWhite, Square.of(row, 4)));
+    this.tryAddPiece(new King("K", isWhite, Square.of(row, 5)));
+  }
+
+  /**
+   * reject boards that do not fit in the 8 x 8 square indexing
+   */
+  protected void validateSize(){
+    if(this.width < 1 || this.width > 8 || this.height < 1 || this.height > 8){
+      throw new IllegalArgumentException(
+        "board of size " + Integer.toString(this.height) + " x " +
+        Integer.toString(this.width) + " is not supported"
+      );
+    }
+  }
+
+  /**
+   * set up pieces at their starting squares
+   * to be called by subclass constructors once their storage is ready
+   */
+  protected void setUpPieces(){
+    this.setUpPawns(true);
+    this.setUpFirstRankPieces(true);
+    this.setUpPawns(false);
+    this.setUpFirstRankPieces(false);
+  }
+
+  /**
+   * set up an arbitrary set of pieces
+   * to be called by subclass constructors once their storage is ready
+   * @param pieces
+   */
+  protected void setUpPieces(HashSet<Piece> pieces){
+    for(Piece p: pieces){
+      if(!this.isSquareOnBoard(p.getSquare())){
+        throw new IllegalArgumentException(
+          "cannot set piece at \'" + p.getSquare().toString() + "\' for board of size " +
+          Integer.toString(this.height) + " x " +  Integer.toString(this.width)
+        );
+      }
+    }
+    for(Piece p: pieces){
+      if(!this.tryAddPiece(p)){
+        throw new IllegalArgumentException("cannot set piece at occupied square \'" + p.getSquare().toString() + "\'");
+      }
+    }
+  }
+
+  /**
+   * pieces are copied in team list order, the undo stack is not copied
+   * @param other board of the same size
+   */
+  @Override
+  public void copyPositionFrom(Board other){
+    if(!(other instanceof AbstractBoard) || other.getWidth() != this.width || other.getHeight() != this.height){
+      throw new IllegalArgumentException("cannot copy position from a board of another size");
+    }
+    AbstractBoard source = (AbstractBoard)other;
+    this.clear();
+    for(int color = WHITE; color <= BLACK; color++){
+      List<Piece> pieces = source.teamPieces.get(color);
+      for(int i = 0; i < pieces.size(); i++){
+        this.addToBoard(pieces.get(i).copy(), -1);
+      }
+    }
+    this.copiedKeyCount = source.getPreviousKeys(this.copiedKeys);
+    this.moveLog.addAll(source.moveLog);
+    this.halfmoveClock = source.halfmoveClock;
+    this.fullmoveNumber = source.fullmoveNumber;
+    this.endTurn(!source.whiteToMove, source.enPassantSquare);
+  }
+
+  /**
+   * check if the piece sits on this board
+   * @param p
+   * @return true if on board
+   */
+  protected boolean holds(Piece p){
+    Square s = p.getSquare();
+    if(s == null || !this.isSquareOnBoard(s)){
+      return false;
+    }
+    return this.whatIsAtSquare(s) == p;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  @Override
+  public HashSet<Piece> getTeamPieces(boolean isWhite){
+    return new HashSet<>(this.teamPieces.get(colorOf(isWhite)));
+  }
+
+  @Override
+  public List<Piece> getTeamPieceList(boolean isWhite){
+    return this.teamPieceViews.get(colorOf(isWhite));
+  }
+
+  @Override
+  public Piece getKing(boolean isWhite){
+    return this.kings[colorOf(isWhite)];
+  }
+
+  private boolean isUnmovedAt(Square s, boolean isWhite, int type){
+    Piece p = this.whatIsAtSquare(s);
+    return p != null && p.isWhitePiece() == isWhite && p.getType() == type && p.getMoveCounter() == 0;
+  }
+
+  private int computeCastlingRights(){
+    int rights = 0;
+    if(this.isUnmovedAt(WHITE_KING_SQUARE, true, Piece.KING)){
+      if(this.isUnmovedAt(WHITE_KING_SIDE_ROOK_SQUARE, true, Piece.ROOK)){
+        rights |= WHITE_KING_SIDE;
+      }
+      if(this.isUnmovedAt(WHITE_QUEEN_SIDE_ROOK_SQUARE, true, Piece.ROOK)){
+        rights |= WHITE_QUEEN_SIDE;
+      }
+    }
+    if(this.isUnmovedAt(this.blackKingSquare, false, Piece.KING)){
+      if(this.isUnmovedAt(this.blackKingSideRookSquare, false, Piece.ROOK)){
+        rights |= BLACK_KING_SIDE;
+      }
+      if(this.isUnmovedAt(this.blackQueenSideRookSquare, false, Piece.ROOK)){
+        rights |= BLACK_QUEEN_SIDE;
+      }
+    }
+    return rights;
+  }
+
+  private void updateCastlingRights(){
+    int rights = this.computeCastlingRights();
+    if(rights != this.castlingRights){
+      this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.castlingKey(rights);
+      this.castlingRights = rights;
+    }
+  }
+
+  /**
+   * castling rights only change when a piece comes to or leaves a castling square
+   * @param s square whose occupant changed
+   */
+  private void squareChanged(Square s){
+    if((this.castlingSquares & (1L << s.getIndex())) != 0){
+      this.updateCastlingRights();
+    }
+  }
+
+  /**
+   * store piece at its square and set its bits and key
+   * @param p piece whose square is on board and empty
+   */
+  private void put(Piece p){
+    this.placePiece(p);
+    int index = p.getSquare().getIndex();
+    long bit = 1L << index;
+    int color = colorOf(p.isWhitePiece());
+    this.pieceBitboards[color * 6 + p.getType()] |= bit;
+    this.teamBitboards[color] |= bit;
+    this.occupancy |= bit;
+    this.zobristKey ^= Zobrist.pieceKey(p);
+    this.middlegameScore += Evaluation.middlegameScore(p.isWhitePiece(), p.getType(), index);
+    this.endgameScore += Evaluation.endgameScore(p.isWhitePiece(), p.getType(), index);
+    this.gamePhase += Evaluation.phaseWeight(p.getType());
+
+    this.updateSlidersThrough(index);
+    this.squareAttacks[index] = this.computeAttacks(p);
+    this.addAttacks(color, this.squareAttacks[index]);
+  }
+
+  /**
+   * clear the square of a piece and its bits and key
+   * @param p piece held by this board
+   */
+  private void lift(Piece p){
+    this.clearPiece(p);
+    int index = p.getSquare().getIndex();
+    long bit = 1L << index;
+    int color = colorOf(p.isWhitePiece());
+    this.removeAttacks(color, this.squareAttacks[index]);
+    this.squareAttacks[index] = 0L;
+
+    this.pieceBitboards[color * 6 + p.getType()] &= ~bit;
+    this.teamBitboards[color] &= ~bit;
+    this.occupancy &= ~bit;
+    this.zobristKey ^= Zobrist.pieceKey(p);
+    this.middlegameScore -= Evaluation.middlegameScore(p.isWhitePiece(), p.getType(), index);
+    this.endgameScore -= Evaluation.endgameScore(p.isWhitePiece(), p.getType(), index);
+    this.gamePhase -= Evaluation.phaseWeight(p.getType());
+
+    this.updateSlidersThrough(index);
+  }
+
+  private long computeAttacks(Piece p){
+    return Attacks.attacks(p.getType(), p.isWhitePiece(), p.getSquare().getIndex(), this.occupancy) & this.boardMask;
+  }
+
+  private void addAttacks(int color, long attacks){
+    int[] counts = this.attackCounts[color];
+    while(attacks != 0){
+      int sq = Long.numberOfTrailingZeros(attacks);
+      if(counts[sq]++ == 0){
+        this.attackMaps[color] |= 1L << sq;
+      }
+      attacks &= attacks - 1;
+    }
+  }
+
+  private void removeAttacks(int color, long attacks){
+    int[] counts = this.attackCounts[color];
+    while(attacks != 0){
+      int sq = Long.numberOfTrailingZeros(attacks);
+      if(--counts[sq] == 0){
+        this.attackMaps[color] &= ~(1L << sq);
+      }
+      attacks &= attacks - 1;
+    }
+  }
+
+  /**
+   * recompute the attacks of every slider with a ray through a square
+   * whose occupancy just changed, sliders attacking a square are exactly
+   * the sliders a slider standing on that square would attack
+   * @param index square index
+   */
+  private void updateSlidersThrough(int index){
+    long rooks = this.pieceBitboards[WHITE * 6 + Piece.ROOK] | this.pieceBitboards[BLACK * 6 + Piece.ROOK];
+    long bishops = this.pieceBitboards[WHITE * 6 + Piece.BISHOP] | this.pieceBitboards[BLACK * 6 + Piece.BISHOP];
+    long queens = this.pieceBitboards[WHITE * 6 + Piece.QUEEN] | this.pieceBitboards[BLACK * 6 + Piece.QUEEN];
+    long sliders = (Attacks.rookAttacks(index, this.occupancy) & (rooks | queens))
+      | (Attacks.bishopAttacks(index, this.occupancy) & (bishops | queens));
+    while(sliders != 0){
+      int sq = Long.numberOfTrailingZeros(sliders);
+      Piece slider = this.whatIsAtSquare(Square.of(sq));
+      int color = colorOf(slider.isWhitePiece());
+      this.removeAttacks(color, this.squareAttacks[sq]);
+      this.squareAttacks[sq] = this.computeAttacks(slider);
+      this.addAttacks(color, this.squareAttacks[sq]);
+      sliders &= sliders - 1;
+    }
+  }
+
+  @Override
+  public long getAttackMap(boolean isWhite){
+    return this.attackMaps[colorOf(isWhite)];
+  }
+
+  @Override
+  public int getAttackerCount(Square square, boolean isWhite){
+    return this.attackCounts[colorOf(isWhite)][square.getIndex()];
+  }
+
+  @Override
+  public long getOccupancy(){
+    return this.occupancy;
+  }
+
+  @Override
+  public long getTeamOccupancy(boolean isWhite){
+    return this.teamBitboards[colorOf(isWhite)];
+  }
+
+  @Override
+  public long getPieceBitboard(boolean isWhite, int type){
+    return this.pieceBitboards[colorOf(isWhite) * 6 + type];
+  }
+
+  @Override
+  public long getBoardMask(){
+    return this.boardMask;
+  }
+
+  /**
+   * put piece on board and in its team list
+   * @param p piece whose square is on board and empty
+   * @param listIndex position in the team list, -1 to append
+   */
+  private void addToBoard(Piece p, int listIndex){
+    this.put(p);
+    this.squareChanged(p.getSquare());
+
+    int color = colorOf(p.isWhitePiece());
+    List<Piece> pieces = this.teamPieces.get(color);
+    if(listIndex < 0){
+      pieces.add(p);
+    }
+    else{
+      pieces.add(listIndex, p);
+    }
+    if(p.getType() == Piece.KING && this.kings[color] == null){
+      this.kings[color] = p;
+    }
+  }
+
+  /**
+   * take piece off board and out of its team list
+   * @param p piece held by this board
+   * @return position the piece had in the team list
+   */
+  private int removeFromBoard(Piece p){
+    this.lift(p);
+    this.squareChanged(p.getSquare());
+
+    int color = colorOf(p.isWhitePiece());
+    List<Piece> pieces = this.teamPieces.get(color);
+    int listIndex = pieces.indexOf(p);
+    pieces.remove(listIndex);
+    if(this.kings[color] == p){
+      // fall back to any other King left on board
+      this.kings[color] = null;
+      for(int i = 0; i < pieces.size(); i++){
+        if(pieces.get(i).getType() == Piece.KING){
+          this.kings[color] = pieces.get(i);
+          break;
+        }
+      }
+    }
+    return listIndex;
+  }
+
+  @Override
+  public boolean tryAddPiece(Piece p) {
+    // check if piece is off board
+    if(p.getSquare() == null || !this.isSquareOnBoard(p.getSquare())){
+      return false;
+    }
+
+    // check if piece collide with other pieces
+    if(this.whatIsAtSquare(p.getSquare()) != null){
+      return false;
+    }
+    this.addToBoard(p, -1);
+    return true;
+  }
+
+  @Override
+  public boolean tryRemovePiece(Piece p){
+    if(!this.holds(p)){
+      return false;
+    }
+    this.removeFromBoard(p);
+    return true;
+  }
+
+  @Override
+  public boolean tryMovePiece(Piece p, Square newSquare){
+    if(!this.holds(p) || !this.isSquareOnBoard(newSquare)){
+      return false;
+    }
+    if(this.whatIsAtSquare(newSquare) != null){
+      return false;
+    }
+    Square oldSquare = p.getSquare();
+    this.lift(p);
+    p.setSquare(newSquare);
+    this.put(p);
+    this.squareChanged(oldSquare);
+    this.squareChanged(newSquare);
+    return true;
+  }
+
+  private void relocate(Piece p, Square newSquare){
+    if(!this.tryMovePiece(p, newSquare)){
+      throw new IllegalArgumentException("cannot move piece to \'" + newSquare.toString() + "\'");
+    }
+  }
+
+  /**
+   * create the piece a Pawn turns into
+   * @param type piece type, e.g. Piece.QUEEN
+   * @param isWhite true if white
+   * @return new piece off board
+   */
+  private static Piece createPromotedPiece(int type, boolean isWhite){
+    switch(type){
+      case Piece.KNIGHT:
+        return new Knight("N", isWhite, null);
+      case Piece.BISHOP:
+        return new Bishop("B", isWhite, null);
+      case Piece.ROOK:
+        return new Rook("R", isWhite, null, true);
+      case Piece.QUEEN:
+        return new Queen("Q", isWhite, null);
+      default:
+        throw new IllegalArgumentException("cannot promote to piece type " + type);
+    }
+  }
+
+  @Override
+  public void makeMove(Move move, Piece promotedPiece){
+    this.makeMove(move.getSquareFrom(), move.getSquareTo(), promotedPiece);
+  }
+
+  @Override
+  public void makeMove(int move){
+    Square from = Square.of(PackedMove.getFrom(move));
+    Square to = Square.of(PackedMove.getTo(move));
+    Piece promotedPiece = null;
+    int promotion = PackedMove.getPromotion(move);
+    if(promotion != 0){
+      // only promotions allocate, every other move is played without creating objects
+      Piece p = this.whatIsAtSquare(from);
+      if(p == null){
+        throw new IllegalArgumentException("no piece at \'" + from.toString() + "\'");
+      }
+      promotedPiece = createPromotedPiece(promotion, p.isWhitePiece());
+    }
+    this.makeMove(from, to, promotedPiece);
+  }
+
+  private void makeMove(Square from, Square to, Piece promotedPiece){
+    Piece p = this.whatIsAtSquare(from);
+    if(p == null){
+      throw new IllegalArgumentException("no piece at \'" + from.toString() + "\'");
+    }
+
+    // captured piece, which sits next to the destination for en passant
+    Piece captured = this.whatIsAtSquare(to);
+    if(captured == null && p.getType() == Piece.PAWN && from.getColumn() != to.getColumn()){
+      captured = this.whatIsAtSquare(Square.of(from.getRow(), to.getColumn()));
+    }
+    if(captured != null && captured.isWhitePiece() == p.isWhitePiece()){
+      throw new IllegalArgumentException("cannot capture own piece at \'" + captured.getSquare().toString() + "\'");
+    }
+
+    if(this.undoSize == this.undoMovedPieces.length){
+      this.growUndoStack();
+    }
+    int top = this.undoSize++;
+    this.undoMovedPieces[top] = p;
+    this.undoSquaresFrom[top] = from;
+    this.undoCapturedPieces[top] = captured;
+    this.undoPromotedPieces[top] = null;
+    this.undoCastlingRooks[top] = null;
+    this.undoWhiteToMove[top] = this.whiteToMove;
+    this.undoCastlingRights[top] = this.castlingRights;
+    this.undoEnPassantSquares[top] = this.enPassantSquare;
+    this.undoZobristKeys[top] = this.zobristKey;
+    this.undoHalfmoveClocks[top] = this.halfmoveClock;
+    this.undoFullmoveNumbers[top] = this.fullmoveNumber;
+
+    if(captured != null){
+      this.undoCapturedIndices[top] = this.removeFromBoard(captured);
+    }
+
+    // castling is a King moving two columns, the Rook jumps over it
+    if(p.getType() == Piece.KING && Math.abs(to.getColumn() - from.getColumn()) == 2){
+      Square rookFrom = Square.of(from.getRow(), to.getColumn() > from.getColumn() ? this.width : 1);
+      Piece rook = this.whatIsAtSquare(rookFrom);
+      if(rook == null){
+        throw new IllegalArgumentException("no Rook to castle with at \'" + rookFrom.toString() + "\'");
+      }
+      this.relocate(rook, Square.of(from.getRow(), (from.getColumn() + to.getColumn()) / 2));
+      rook.incrementMoveCounter();
+      this.undoCastlingRooks[top] = rook;
+      this.undoRookSquaresFrom[top] = rookFrom;
+    }
+
+    this.relocate(p, to);
+    p.incrementMoveCounter();
+
+    int lastRank = p.isWhitePiece() ? this.height : 1;
+    if(promotedPiece != null && p.getType() == Piece.PAWN && to.getRow() == lastRank){
+      int listIndex = this.removeFromBoard(p);
+      promotedPiece.setSquare(to);
+      this.addToBoard(promotedPiece, listIndex);
+      this.undoPromotedPieces[top] = promotedPiece;
+      this.undoPromotedIndices[top] = listIndex;
+    }
+
+    Square enPassantSquare = null;
+    if(p.getType() == Piece.PAWN && Math.abs(to.getRow() - from.getRow()) == 2){
+      enPassantSquare = Square.of((from.getRow() + to.getRow()) / 2, from.getColumn());
+    }
+    this.halfmoveClock = (captured != null || p.getType() == Piece.PAWN) ? 0 : this.halfmoveClock + 1;
+    if(!p.isWhitePiece()){
+      this.fullmoveNumber++;
+    }
+    this.endTurn(p.isWhitePiece(), enPassantSquare);
+  }
+
+  @Override
+  public void makeNullMove(){
+    if(this.undoSize == this.undoMovedPieces.length){
+      this.growUndoStack();
+    }
+    int top = this.undoSize++;
+    // no moved piece marks a null move on the stack
+    this.undoMovedPieces[top] = null;
+    this.undoCapturedPieces[top] = null;
+    this.undoPromotedPieces[top] = null;
+    this.undoCastlingRooks[top] = null;
+    this.undoWhiteToMove[top] = this.whiteToMove;
+    this.undoCastlingRights[top] = this.castlingRights;
+    this.undoEnPassantSquares[top] = this.enPassantSquare;
+    this.undoZobristKeys[top] = this.zobristKey;
+    this.undoHalfmoveClocks[top] = this.halfmoveClock;
+    this.undoFullmoveNumbers[top] = this.fullmoveNumber;
+
+    this.halfmoveClock++;
+    if(!this.whiteToMove){
+      this.fullmoveNumber++;
+    }
+    this.endTurn(this.whiteToMove, null);
+  }
+
+  @Override
+  public void unmakeMove(){
+    if(this.undoSize == 0){
+      throw new IllegalStateException("no move to unmake");
+    }
+    int top = --this.undoSize;
+    Piece p = this.undoMovedPieces[top];
+    Piece promotedPiece = this.undoPromotedPieces[top];
+    Piece captured = this.undoCapturedPieces[top];
+    Piece rook = this.undoCastlingRooks[top];
+
+    if(promotedPiece != null){
+      this.removeFromBoard(promotedPiece);
+      this.addToBoard(p, this.undoPromotedIndices[top]);
+    }
+    if(p != null){
+      this.relocate(p, this.undoSquaresFrom[top]);
+      p.decrementMoveCounter();
+    }
+    if(rook != null){
+      this.relocate(rook, this.undoRookSquaresFrom[top]);
+      rook.decrementMoveCounter();
+    }
+    if(captured != null){
+      this.addToBoard(captured, this.undoCapturedIndices[top]);
+    }
+
+    // restore the saved state instead of recomputing it
+    this.whiteToMove = this.undoWhiteToMove[top];
+    this.castlingRights = this.undoCastlingRights[top];
+    this.enPassantSquare = this.undoEnPassantSquares[top];
+    this.zobristKey = this.undoZobristKeys[top];
+    this.halfmoveClock = this.undoHalfmoveClocks[top];
+    this.fullmoveNumber = this.undoFullmoveNumbers[top];
+
+    // drop references so the stack does not keep captured pieces alive
+    this.undoMovedPieces[top] = null;
+    this.undoCapturedPieces[top] = null;
+    this.undoPromotedPieces[top] = null;
+    this.undoCastlingRooks[top] = null;
+  }
+
+  @Override
+  public int getHalfmoveClock(){
+    return this.halfmoveClock;
+  }
+
+  @Override
+  public int getPreviousKeys(long[] keys){
+    int count = Math.min(Math.min(this.halfmoveClock, keys.length), this.undoSize + this.copiedKeyCount);
+    for(int i = 0; i < count; i++){
+      // plies back from the current position, 1 for the position before the last move
+      int back = count - i;
+      keys[i] = back <= this.undoSize
+        ? this.undoZobristKeys[this.undoSize - back]
+        : this.copiedKeys[this.copiedKeyCount - (back - this.undoSize)];
+    }
+    return count;
+  }
+
+  @Override
+  public int getFullmoveNumber(){
+    return this.fullmoveNumber;
+  }
+
+  @Override
+  public void setMoveClocks(int halfmoveClock, int fullmoveNumber){
+    if(halfmoveClock < 0 || fullmoveNumber < 1){
+      throw new IllegalArgumentException(
+        "invalid move clocks " + Integer.toString(halfmoveClock) + " and " + Integer.toString(fullmoveNumber)
+      );
+    }
+    this.halfmoveClock = halfmoveClock;
+    this.fullmoveNumber = fullmoveNumber;
+  }
+
+  @Override
+  public void clear(){
+    for(int color = WHITE; color <= BLACK; color++){
+      List<Piece> pieces = this.teamPieces.get(color);
+      for(int i = 0; i < pieces.size(); i++){
+        this.lift(pieces.get(i));
+      }
+      pieces.clear();
+      this.kings[color] = null;
+    }
+    for(int i = 0; i < this.undoSize; i++){
+      this.undoMovedPieces[i] = null;
+      this.undoCapturedPieces[i] = null;
+      this.undoPromotedPieces[i] = null;
+      this.undoCastlingRooks[i] = null;
+    }
+    this.undoSize = 0;
+    this.copiedKeyCount = 0;
+    this.moveLog.clear();
+    this.halfmoveClock = 0;
+    this.fullmoveNumber = 1;
+    this.endTurn(false, null);
+  }
+
+  @Override
+  public void endTurn(boolean isWhite, Square enPassantSquare){
+    if(this.whiteToMove == isWhite){
+      this.zobristKey ^= Zobrist.blackToMoveKey();
+      this.whiteToMove = !isWhite;
+    }
+    this.zobristKey ^= Zobrist.enPassantKey(this.enPassantSquare) ^ Zobrist.enPassantKey(enPassantSquare);
+    this.enPassantSquare = enPassantSquare;
+    // move counters of castling pieces may have changed after they were moved
+    this.updateCastlingRights();
+  }
+
+  @Override
+  public boolean isWhiteToMove(){
+    return this.whiteToMove;
+  }
+
+  @Override
+  public int getCastlingRights(){
+    return this.castlingRights;
+  }
+
+  @Override
+  public Square getEnPassantSquare(){
+    return this.enPassantSquare;
+  }
+
+  @Override
+  public long getZobristKey(){
+    return this.zobristKey;
+  }
+
+  @Override
+  public int getMiddlegameScore(){
+    return this.middlegameScore;
+  }
+
+  @Override
+  public int getEndgameScore(){
+    return this.endgameScore;
+  }
+
+  @Override
+  public int getGamePhase(){
+    return this.gamePhase;
+  }
+
+  @Override
+  public void appendMoveLog(Move move) {
+    this.moveLog.add(move);
+  }
+
+  @Override
+  public List<Move> getMoveLog() {
+    return this.moveLog;
+  }
+}
@@ -0,0 +1,251 @@
+package com.osullivan.chess;
+
+import java.util.Random;
+
+/**
+ * precomputed attack bitboards, square a1 is bit 0, b1 is bit 1, ..., h8 is bit 63
+ * sliding attacks come from magic bitboards: the occupancy of a slider's rays
+ * is multiplied by a per-square magic number and shifted down to index a table
+ * holding the full attack set for that occupancy
+ * attacks include squares taken by either team, callers mask out their own pieces
+ */
+public final class Attacks {
+  // fixed seed so the magic search is repeatable
+  private static final long SEED = 0x6A09E667F3BCC908L;
+
+  private static final long[] KNIGHT_ATTACKS = new long[64];
+  private static final long[] KING_ATTACKS = new long[64];
+  // indexed by color, white is 0
+  private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+  private static final long[] ROOK_MASKS = new long[64];
+  private static final long[] ROOK_MAGICS = new long[64];
+  private static final int[] ROOK_SHIFTS = new int[64];
+  private static final long[][] ROOK_TABLES = new long[64][];
+
+  private static final long[] BISHOP_MASKS = new long[64];
+  private static final long[] BISHOP_MAGICS = new long[64];
+  private static final int[] BISHOP_SHIFTS = new int[64];
+  private static final long[][] BISHOP_TABLES = new long[64][];
+
+  // squares strictly between two squares on a shared rank, file or diagonal, 0 if not aligned
+  private static final long[][] BETWEEN = new long[64][64];
+
+  private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+  private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+  private static final int[][] KNIGHT_JUMPS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+
+  static {
+    for(int sq = 0; sq < 64; sq++){
+      int row = sq / 8;
+      int col = sq % 8;
+      for(int[] jump: KNIGHT_JUMPS){
+        KNIGHT_ATTACKS[sq] |= bitAt(row + jump[0], col + jump[1]);
+      }
+      for(int i = -1; i <= 1; i++){
+        for(int j = -1; j <= 1; j++){
+          if(i != 0 || j != 0){
+            KING_ATTACKS[sq] |= bitAt(row + i, col + j);
+          }
+        }
+      }
+      PAWN_ATTACKS[0][sq] = bitAt(row + 1, col - 1) | bitAt(row + 1, col + 1);
+      PAWN_ATTACKS[1][sq] = bitAt(row - 1, col - 1) | bitAt(row - 1, col + 1);
+    }
+
+    Random random = new Random(SEED);
+    for(int sq = 0; sq < 64; sq++){
+      ROOK_MASKS[sq] = relevantOccupancyMask(sq, ROOK_DIRECTIONS);
+      ROOK_SHIFTS[sq] = 64 - Long.bitCount(ROOK_MASKS[sq]);
+      ROOK_TABLES[sq] = new long[1 << Long.bitCount(ROOK_MASKS[sq])];
+      ROOK_MAGICS[sq] = findMagic(sq, ROOK_MASKS[sq], ROOK_SHIFTS[sq], ROOK_DIRECTIONS, ROOK_TABLES[sq], random);
+
+      BISHOP_MASKS[sq] = relevantOccupancyMask(sq, BISHOP_DIRECTIONS);
+      BISHOP_SHIFTS[sq] = 64 - Long.bitCount(BISHOP_MASKS[sq]);
+      BISHOP_TABLES[sq] = new long[1 << Long.bitCount(BISHOP_MASKS[sq])];
+      BISHOP_MAGICS[sq] = findMagic(sq, BISHOP_MASKS[sq], BISHOP_SHIFTS[sq], BISHOP_DIRECTIONS, BISHOP_TABLES[sq], random);
+    }
+
+    for(int a = 0; a < 64; a++){
+      for(int b = 0; b < 64; b++){
+        long bitA = 1L << a;
+        long bitB = 1L << b;
+        if((rookAttacks(a, 0L) & bitB) != 0){
+          BETWEEN[a][b] = rookAttacks(a, bitB) & rookAttacks(b, bitA);
+        }
+        else if((bishopAttacks(a, 0L) & bitB) != 0){
+          BETWEEN[a][b] = bishopAttacks(a, bitB) & bishopAttacks(b, bitA);
+        }
+      }
+    }
+  }
+
+  private Attacks(){
+  }
+
+  /**
+   * @param row 0-based row
+   * @param col 0-based column
+   * @return bit of the square, 0 if off an 8 x 8 board
+   */
+  private static long bitAt(int row, int col){
+    if(row < 0 || row > 7 || col < 0 || col > 7){
+      return 0L;
+    }
+    return 1L << (row * 8 + col);
+  }
+
+  /**
+   * walk the rays from a square, stopping at and including the first occupied square
+   * @param sq square index
+   * @param occupancy
+   * @param directions row and column steps of each ray
+   * @return attacked squares
+   */
+  private static long slidingAttacks(int sq, long occupancy, int[][] directions){
+    long attacks = 0L;
+    for(int[] dir: directions){
+      int row = sq / 8 + dir[0];
+      int col = sq % 8 + dir[1];
+      while(row >= 0 && row <= 7 && col >= 0 && col <= 7){
+        long bit = 1L << (row * 8 + col);
+        attacks |= bit;
+        if((occupancy & bit) != 0){
+          break;
+        }
+        row += dir[0];
+        col += dir[1];
+      }
+    }
+    return attacks;
+  }
+
+  /**
+   * squares whose occupancy changes the attacks from a square,
+   * the last square of each ray is left out since it is attacked either way
+   */
+  private static long relevantOccupancyMask(int sq, int[][] directions){
+    long mask = 0L;
+    for(int[] dir: directions){
+      int row = sq / 8 + dir[0];
+      int col = sq % 8 + dir[1];
+      while(row + dir[0] >= 0 && row + dir[0] <= 7 && col + dir[1] >= 0 && col + dir[1] <= 7){
+        mask |= 1L << (row * 8 + col);
+        row += dir[0];
+        col += dir[1];
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * search for a magic number that maps every occupancy subset of the mask
+   * to a table slot without destructive collisions, and fill the table
+   */
+  private static long findMagic(int sq, long mask, int shift, int[][] directions, long[] table, Random random){
+    int subsetCount = 1 << Long.bitCount(mask);
+    long[] occupancies = new long[subsetCount];
+    long[] attacks = new long[subsetCount];
+    // enumerate every subset of the mask with the carry-rippler trick
+    long subset = 0L;
+    for(int i = 0; i < subsetCount; i++){
+      occupancies[i] = subset;
+      attacks[i] = slidingAttacks(sq, subset, directions);
+      subset = (subset - mask) & mask;
+    }
+
+    int[] usedBy = new int[subsetCount];
+    int attempt = 0;
+    while(true){
+      // sparse candidates are far more likely to be magic
+      long magic = random.nextLong() & random.nextLong() & random.nextLong();
+      if(Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6){
+        continue;
+      }
+      attempt++;
+      boolean failed = false;
+      for(int i = 0; i < subsetCount && !failed; i++){
+        int index = (int)((occupancies[i] * magic) >>> shift);
+        if(usedBy[index] != attempt){
+          usedBy[index] = attempt;
+          table[index] = attacks[i];
+        }
+        else if(table[index] != attacks[i]){
+          failed = true;
+        }
+      }
+      if(!failed){
+        return magic;
+      }
+    }
+  }
+
+  public static long rookAttacks(int sq, long occupancy){
+    int index = (int)(((occupancy & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq]);
+    return ROOK_TABLES[sq][index];
+  }
+
+  public static long bishopAttacks(int sq, long occupancy){
+    int index = (int)(((occupancy & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq]);
+    return BISHOP_TABLES[sq][index];
+  }
+
+  public static long queenAttacks(int sq, long occupancy){
+    return rookAttacks(sq, occupancy) | bishopAttacks(sq, occupancy);
+  }
+
+  /**
+   * squares strictly between two squares on a shared rank, file or diagonal
+   * @param a square index
+   * @param b square index
+   * @return squares in between, 0 if the squares are not aligned or adjacent
+   */
+  public static long between(int a, int b){
+    return BETWEEN[a][b];
+  }
+
+  public static long knightAttacks(int sq){
+    return KNIGHT_ATTACKS[sq];
+  }
+
+  public static long kingAttacks(int sq){
+    return KING_ATTACKS[sq];
+  }
+
+  /**
+   * squares a Pawn captures on, not the squares it pushes to
+   * @param isWhite true if white Pawn
+   * @param sq square index
+   * @return attacked squares
+   */
+  public static long pawnAttacks(boolean isWhite, int sq){
+    return PAWN_ATTACKS[isWhite ? 0 : 1][sq];
+  }
+
+  /**
+   * attacks of a piece type from a square
+   * @param type piece type, e.g. Piece.ROOK
+   * @param isWhite true if white, only matters for Pawns
+   * @param sq square index
+   * @param occupancy squares taken by either team
+   * @return attacked squares
+   */
+  public static long attacks(int type, boolean isWhite, int sq, long occupancy){
+    switch(type){
+      case Piece.PAWN:
+        return pawnAttacks(isWhite, sq);
+      case Piece.KNIGHT:
+        return knightAttacks(sq);
+      case Piece.BISHOP:
+        return bishopAttacks(sq, occupancy);
+      case Piece.ROOK:
+        return rookAttacks(sq, occupancy);
+      case Piece.QUEEN:
+        return queenAttacks(sq, occupancy);
+      case Piece.KING:
+        return kingAttacks(sq);
+      default:
+        throw new IllegalArgumentException("unknown piece type " + type);
+    }
+  }
+}
@@ -8,14 +8,19 @@ public class Bishop extends Piece{
     super(name, isWhite, square);
   }
 
+  @Override
+  protected Piece newInstance() {
+    return new Bishop(this.name, this.isWhite, this.square);
+  }
+
+  @Override
+  public int getType() {
+    return BISHOP;
+  }
+
   @Override
   public HashSet<Square> canMoveTo(Board board) {
-    HashSet<Square> nextMoves = new HashSet<>();
-    nextMoves.addAll(this.canMoveDownLeftDiagonalTo(board));
-    nextMoves.addAll(this.canMoveDownRightDiagonalTo(board));
-    nextMoves.addAll(this.canMoveUpLeftDiagonalTo(board));
-    nextMoves.addAll(this.canMoveUpRightDiagonalTo(board));
-    return nextMoves;
+    return toSquares(this.getAttacksExcludingOwnTeam(board));
   }
 
   @Override
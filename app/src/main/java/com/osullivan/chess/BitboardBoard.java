@@ -0,0 +1,63 @@
+package com.osullivan.chess;
+
+import java.util.HashSet;
+
+/**
+ * Board that stores pieces in a 64-square array next to the occupancy bitboards
+ * every board keeps, and answers square lookups from the occupancy word first
+ * square a1 is bit 0, b1 is bit 1, ..., h8 is bit 63
+ */
+public class BitboardBoard extends AbstractBoard {
+  // piece objects behind the set bits, indexed by square
+  private final Piece[] squares;
+
+  public BitboardBoard(int width, int height){
+    super(width, height);
+    this.validateSize();
+    this.squares = new Piece[64];
+    this.setUpPieces();
+  }
+
+  /**
+   * testing constructor to set arbitrary pieces
+   * DO NOT invoke by other classes
+   * @param width
+   * @param height
+   * @param pieces
+   */
+  public BitboardBoard(int width, int height, HashSet<Piece> pieces){
+    super(width, height);
+    this.validateSize();
+    this.squares = new Piece[64];
+    this.setUpPieces(pieces);
+  }
+
+  @Override
+  protected void placePiece(Piece p){
+    this.squares[p.getSquare().getIndex()] = p;
+  }
+
+  @Override
+  protected void clearPiece(Piece p){
+    this.squares[p.getSquare().getIndex()] = null;
+  }
+
+  @Override
+  public Piece whatIsAtSquare(Square square){
+    if(!this.isSquareOnBoard(square)){
+      return null;
+    }
+    int index = square.getIndex();
+    if((this.getOccupancy() & (1L << index)) == 0){
+      return null;
+    }
+    return this.squares[index];
+  }
+
+  @Override
+  public Board copy(){
+    BitboardBoard copy = new BitboardBoard(this.width, this.height, new HashSet<>());
+    copy.copyPositionFrom(this);
+    return copy;
+  }
+}
@@ -4,6 +4,12 @@ import java.util.HashSet;
 import java.util.List;
 
 public interface Board {
+  // castling rights bits
+  public static final int WHITE_KING_SIDE = 1;
+  public static final int WHITE_QUEEN_SIDE = 2;
+  public static final int BLACK_KING_SIDE = 4;
+  public static final int BLACK_QUEEN_SIDE = 8;
+
   public int getWidth();
   public int getHeight();
 
@@ -14,6 +20,22 @@ public interface Board {
    */
   public HashSet<Piece> getTeamPieces(boolean isWhite);
 
+  /**
+   * get all pieces of a player without copying them
+   * read-only view that follows later changes to the board,
+   * ordered by when the pieces were added so iteration is deterministic
+   * @param isWhite true if is white
+   * @return list of pieces
+   */
+  public List<Piece> getTeamPieceList(boolean isWhite);
+
+  /**
+   * get the King of a player
+   * @param isWhite true if is white
+   * @return King, null if not on board
+   */
+  public Piece getKing(boolean isWhite);
+
   /**
    * check if the given square is on board
    * @param square
@@ -42,6 +64,188 @@ public interface Board {
    */
   public boolean tryRemovePiece(Piece p);
 
+  /**
+   * move piece on board to an empty square
+   * pieces on board must be moved through here instead of Piece.setSquare,
+   * so that the board can keep track of where they are
+   * @param p piece to be moved
+   * @param newSquare destination square
+   * @return true if successful
+   */
+  public boolean tryMovePiece(Piece p, Square newSquare);
+
+  /**
+   * get squares occupied by any piece
+   * square a1 is bit 0, b1 is bit 1, ..., h8 is bit 63
+   * @return occupancy bitboard
+   */
+  public long getOccupancy();
+
+  /**
+   * get squares occupied by a team
+   * @param isWhite true if white
+   * @return occupancy bitboard of the team
+   */
+  public long getTeamOccupancy(boolean isWhite);
+
+  /**
+   * get squares occupied by one piece type of a team
+   * @param isWhite true if white
+   * @param type piece type, e.g. Piece.KNIGHT
+   * @return occupancy bitboard of the piece type
+   */
+  public long getPieceBitboard(boolean isWhite, int type);
+
+  /**
+   * get squares that are on board, used to clip attacks on boards smaller than 8 x 8
+   * @return bitboard of squares on board
+   */
+  public long getBoardMask();
+
+  /**
+   * get squares attacked by a team, whether empty or taken by either team
+   * kept up to date incrementally, so reading it is free
+   * @param isWhite true if white
+   * @return attack bitboard of the team
+   */
+  public long getAttackMap(boolean isWhite);
+
+  /**
+   * count pieces of a team attacking a square
+   * @param square square on board
+   * @param isWhite true if white
+   * @return number of attackers
+   */
+  public int getAttackerCount(Square square, boolean isWhite);
+
+  /**
+   * play a move and push what is needed to take it back onto the undo stack
+   * the move must be pseudo-legal for the piece on its source square
+   * a King moving two columns castles with the Rook in that corner,
+   * a Pawn moving diagonally to an empty square captures en passant
+   * @param move
+   * @param promotedPiece piece replacing a Pawn that reaches the last rank,
+   * null to leave the Pawn in place, which is enough to check legality
+   */
+  public void makeMove(Move move, Piece promotedPiece);
+
+  /**
+   * play a packed move, see PackedMove
+   * a promoted piece of the packed promotion type is created for the Pawn
+   * @param move packed move
+   */
+  public void makeMove(int move);
+
+  /**
+   * pass the turn without moving anything, as a search does to test a position
+   * clears the en passant square, and is taken back with unmakeMove like any move
+   * the side to move must not be in check
+   */
+  public void makeNullMove();
+
+  /**
+   * take back the last move played with makeMove or makeNullMove
+   * restores captured pieces, castling rights, en passant square and move counters
+   */
+  public void unmakeMove();
+
+  /**
+   * @return number of moves since the last capture or Pawn move
+   */
+  public int getHalfmoveClock();
+
+  /**
+   * Zobrist keys of the positions before the current one, back to the last capture or Pawn move,
+   * as far as moves made on this board, or on the board it copied its position from, go back
+   * @param keys filled with the keys oldest first, the position before the last move last
+   * @return number of keys filled in, at most the length of keys
+   */
+  public int getPreviousKeys(long[] keys);
+
+  /**
+   * @return number of the current full move, starting at 1 and incremented after black moves
+   */
+  public int getFullmoveNumber();
+
+  /**
+   * set both move clocks, e.g. when a position is loaded
+   * @param halfmoveClock moves since the last capture or Pawn move, at least 0
+   * @param fullmoveNumber number of the current full move, at least 1
+   */
+  public void setMoveClocks(int halfmoveClock, int fullmoveNumber);
+
+  /**
+   * hand the turn to the other player once a move is complete
+   * @param isWhite true if white just moved
+   * @param enPassantSquare square skipped by a Pawn moving two squares, null otherwise
+   */
+  public void endTurn(boolean isWhite, Square enPassantSquare);
+
+  /**
+   * @return true if white is to move
+   */
+  public boolean isWhiteToMove();
+
+  /**
+   * castling rights of both players
+   * a right is held while King and Rook are unmoved on their starting squares,
+   * it does not mean castling is possible right now
+   * @return bits of WHITE_KING_SIDE, WHITE_QUEEN_SIDE, BLACK_KING_SIDE and BLACK_QUEEN_SIDE
+   */
+  public int getCastlingRights();
+
+  /**
+   * @return square skipped by a Pawn moving two squares on the last move, null if none
+   */
+  public Square getEnPassantSquare();
+
+  /**
+   * 64-bit Zobrist key of the position, kept up to date as pieces change
+   * covers piece placement, side to move, castling rights and en passant file
+   * @return key
+   */
+  public long getZobristKey();
+
+  /**
+   * material and piece-square total for the middlegame, see Evaluation,
+   * kept up to date as pieces change
+   * @return score, positive if White is ahead
+   */
+  public int getMiddlegameScore();
+
+  /**
+   * material and piece-square total for the endgame, see Evaluation
+   * @return score, positive if White is ahead
+   */
+  public int getEndgameScore();
+
+  /**
+   * @return game phase, the sum of Evaluation.phaseWeight of every piece on the board
+   */
+  public int getGamePhase();
+
+  /**
+   * copy the position onto a new board of the same kind with copies of every piece,
+   * so the copy can be searched on another thread
+   * moves made before the copy cannot be unmade on it
+   * @return new board
+   */
+  public Board copy();
+
+  /**
+   * replace the position on this board with a copy of another board's position,
+   * so a board searched on another thread can be set up again without allocating a new one
+   * moves made before the copy cannot be unmade on this board
+   * @param other board of the same size
+   */
+  public void copyPositionFrom(Board other);
+
+  /**
+   * take every piece off and reset to white to move with no move played,
+   * so one board can be set up again and again without allocating a new one
+   */
+  public void clear();
+
   public void appendMoveLog(Move move);
 
   public List<Move> getMoveLog();
@@ -42,7 +42,7 @@ public class BoardTextView {
     for(int i = this.board.getHeight(); i >= 1; i--){
       view.append(Integer.toString(i) + " |");
       for(int j = 1; j < this.board.getWidth() + 1; j++){
-        Square square = new Square(i, j);
+        Square square = Square.of(i, j);
         Piece p = this.board.whatIsAtSquare(square);
         String pieceDisplay = " ";
         if(p != null){
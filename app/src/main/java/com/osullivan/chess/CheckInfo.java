@@ -0,0 +1,168 @@
+package com.osullivan.chess;
+
+/**
+ * checks and pins against one team's King, computed once per position
+ * so legal moves can be told apart from pseudo-legal ones with bitmask tests
+ * instead of playing each candidate out
+ * square a1 is bit 0, b1 is bit 1, ..., h8 is bit 63
+ */
+public class CheckInfo {
+  private static final long ALL_SQUARES = -1L;
+
+  private boolean isWhite;
+  private int kingIndex;
+  private long checkers;
+  private long checkMask;
+  private long pinned;
+  private long kingDanger;
+  // squares a pinned piece may still move to, indexed by the pinned piece's square
+  private final long[] pinRays;
+
+  public CheckInfo(){
+    this.pinRays = new long[64];
+    this.kingIndex = -1;
+    this.checkMask = ALL_SQUARES;
+  }
+
+  /**
+   * recompute checks and pins, the object is reused between positions
+   * @param board
+   * @param isWhite true to compute them against the white King
+   */
+  public void update(Board board, boolean isWhite){
+    this.isWhite = isWhite;
+    this.checkers = 0L;
+    this.checkMask = ALL_SQUARES;
+    this.pinned = 0L;
+    this.kingDanger = 0L;
+
+    Piece king = board.getKing(isWhite);
+    if(king == null){
+      this.kingIndex = -1;
+      return;
+    }
+    int k = king.getSquare().getIndex();
+    this.kingIndex = k;
+
+    boolean isEnemyWhite = !isWhite;
+    long occupancy = board.getOccupancy();
+    long own = board.getTeamOccupancy(isWhite);
+    long enemyQueens = board.getPieceBitboard(isEnemyWhite, Piece.QUEEN);
+    long enemyRooks = board.getPieceBitboard(isEnemyWhite, Piece.ROOK) | enemyQueens;
+    long enemyBishops = board.getPieceBitboard(isEnemyWhite, Piece.BISHOP) | enemyQueens;
+
+    this.checkers = (Attacks.knightAttacks(k) & board.getPieceBitboard(isEnemyWhite, Piece.KNIGHT))
+      | (Attacks.pawnAttacks(isWhite, k) & board.getPieceBitboard(isEnemyWhite, Piece.PAWN));
+
+    // enemy sliders that would see the King if only enemy pieces were on board
+    // either check it directly or pin the one own piece in between
+    long enemy = board.getTeamOccupancy(isEnemyWhite);
+    long snipers = (Attacks.rookAttacks(k, enemy) & enemyRooks) | (Attacks.bishopAttacks(k, enemy) & enemyBishops);
+    long sliderCheckers = 0L;
+    while(snipers != 0){
+      int s = Long.numberOfTrailingZeros(snipers);
+      long between = Attacks.between(k, s);
+      long blockers = between & occupancy;
+      if(blockers == 0){
+        sliderCheckers |= 1L << s;
+      }
+      else if((blockers & (blockers - 1)) == 0 && (blockers & own) != 0){
+        this.pinned |= blockers;
+        this.pinRays[Long.numberOfTrailingZeros(blockers)] = between | (1L << s);
+      }
+      snipers &= snipers - 1;
+    }
+    this.checkers |= sliderCheckers;
+
+    // the King cannot step onto an attacked square, nor back along a slider's line
+    // of check, which the attack map misses since the King itself blocks it
+    this.kingDanger = board.getAttackMap(isEnemyWhite);
+    long occupancyWithoutKing = occupancy & ~(1L << k);
+    while(sliderCheckers != 0){
+      int s = Long.numberOfTrailingZeros(sliderCheckers);
+      Piece checker = board.whatIsAtSquare(Square.of(s));
+      this.kingDanger |= Attacks.attacks(checker.getType(), isEnemyWhite, s, occupancyWithoutKing);
+      sliderCheckers &= sliderCheckers - 1;
+    }
+
+    int checkerCount = Long.bitCount(this.checkers);
+    if(checkerCount == 1){
+      int c = Long.numberOfTrailingZeros(this.checkers);
+      this.checkMask = this.checkers | Attacks.between(k, c);
+    }
+    else if(checkerCount > 1){
+      // only the King can answer a double check
+      this.checkMask = 0L;
+    }
+  }
+
+  public boolean isWhite(){
+    return this.isWhite;
+  }
+
+  public boolean isInCheck(){
+    return this.checkers != 0;
+  }
+
+  /**
+   * @return squares of enemy pieces giving check
+   */
+  public long getCheckers(){
+    return this.checkers;
+  }
+
+  /**
+   * @return squares a piece other than the King must move to, capturing or blocking a check,
+   * every square if not in check
+   */
+  public long getCheckMask(){
+    return this.checkMask;
+  }
+
+  /**
+   * @return squares of own pieces pinned to the King
+   */
+  public long getPinned(){
+    return this.pinned;
+  }
+
+  /**
+   * @param index square index of a pinned piece
+   * @return squares the pinned piece may move to, between the King and the pinner inclusive
+   */
+  public long getPinRay(int index){
+    if((this.pinned & (1L << index)) == 0){
+      return ALL_SQUARES;
+    }
+    return this.pinRays[index];
+  }
+
+  /**
+   * @return squares the King must not move to
+   */
+  public long getKingDanger(){
+    return this.kingDanger;
+  }
+
+  /**
+   * @return square index of the King, -1 if the team has no King
+   */
+  public int getKingIndex(){
+    return this.kingIndex;
+  }
+
+  /**
+   * check a pseudo-legal move of this team against the checks and pins
+   * en passant is not covered, since removing the captured Pawn can open a line to the King
+   * @param from source square index
+   * @param to destination square index
+   * @return true if the move does not leave the King in check
+   */
+  public boolean isLegal(int from, int to){
+    long toBit = 1L << to;
+    if(from == this.kingIndex){
+      return (this.kingDanger & toBit) == 0;
+    }
+    return (this.checkMask & toBit) != 0 && (this.getPinRay(from) & toBit) != 0;
+  }
+}
@@ -1,60 +1,37 @@
 package com.osullivan.chess;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 
-public class ChessBoard implements Board {
-  private final int width;
-  private final int height;
-  private HashSet<Piece> pieces;
-  private List<Move> moveLog;
-
-  @Override
-  public boolean isSquareOnBoard(Square s){
-    if(s.getRow() < 1 || s.getRow() > this.height || s.getColumn() < 1 || s.getColumn() > this.width){
-        return false;
-      }
-      return true;
-  }
-
-  private void setUpPawns(boolean isWhite){
-    for(int i = 1; i <= this.width; i++){
-      Square square = new Square(isWhite ? 2 : this.height -2 + 1, i);
-      this.pieces.add(new Pawn("P", isWhite, square));
-    }    
-  }
-
-  private void setUpFirstRankPieces(boolean isWhite){
-    int row = isWhite ? 1 : this.height;
-
-    // pair of Rooks
-    this.pieces.add(new Rook("R", isWhite, new Square(row, 1), true));
-    this.pieces.add(new Rook("R", isWhite, new Square(row, 8), false));
-    // pair of Knights
-    this.pieces.add(new Knight("N", isWhite, new Square(row, 2)));
-    this.pieces.add(new Knight("N", isWhite, new Square(row, 7)));
-    // pair of Bishops
-    this.pieces.add(new Bishop("B", isWhite, new Square(row, 3)));
-    this.pieces.add(new Bishop("B", isWhite, new Square(row, 6)));
-    // Queen
-    this.pieces.add(new Queen("Q", isWhite, new Square(row, 4)));
-    this.pieces.add(new King("K", isWhite, new Square(row, 5)));
-  }
-
-  private void setUpPieces(){
-    this.setUpPawns(true);
-    this.setUpFirstRankPieces(true);
-    this.setUpPawns(false);
-    this.setUpFirstRankPieces(false);
+public class ChessBoard extends AbstractBoard {
+  /**
+   * 10 x 12 mailbox layout
+   * the board sits in the middle with two sentinel rows above and below
+   * and one sentinel column on each side, so single steps and knight jumps
+   * from any square on board always land inside the array
+   */
+  private static final int MAILBOX_WIDTH = 10;
+  private static final int MAILBOX_SIZE = 120;
+
+  // piece at each mailbox cell, null if empty or off board
+  private final Piece[] mailbox;
+  // sentinel cells, true if off board
+  private final boolean[] offBoard;
+
+  private void setUpMailbox(){
+    for(int i = 0; i < MAILBOX_SIZE; i++){
+      int row = i / MAILBOX_WIDTH - 1;
+      int col = i % MAILBOX_WIDTH;
+      this.offBoard[i] = row < 1 || row > this.height || col < 1 || col > this.width;
+    }
   }
 
   public ChessBoard(int width, int height){
-    this.width = width;
-    this.height = height;
-    this.pieces = new HashSet<>();
+    super(width, height);
+    this.validateSize();
+    this.mailbox = new Piece[MAILBOX_SIZE];
+    this.offBoard = new boolean[MAILBOX_SIZE];
+    this.setUpMailbox();
     this.setUpPieces();
-    this.moveLog = new ArrayList<>();
   }
 
   /**
@@ -65,85 +42,53 @@ public class ChessBoard implements Board {
    * @param pieces
    */
   public ChessBoard(int width, int height, HashSet<Piece> pieces){
-    this.width = width;
-    this.height = height;
-
-    for(Piece p: pieces){
-      if(!this.isSquareOnBoard(p.getSquare())){
-        throw new IllegalArgumentException(
-          "cannot set piece at \'" + p.getSquare().toString() + "\' for board of size " + 
-          Integer.toString(this.height) + " x " +  Integer.toString(this.width)
-        );
-      }
-    }
-    this.pieces = pieces;
-    this.moveLog = new ArrayList<>();
+    super(width, height);
+    this.validateSize();
+    this.mailbox = new Piece[MAILBOX_SIZE];
+    this.offBoard = new boolean[MAILBOX_SIZE];
+    this.setUpMailbox();
+    this.setUpPieces(pieces);
   }
 
-  @Override
-  public int getWidth() {
-    return this.width;
-  }
-
-  @Override
-  public int getHeight() {
-    return this.height;
-  }
-
-  @Override
-  public HashSet<Piece> getTeamPieces(boolean isWhite){
-    HashSet<Piece> teamPieces = new HashSet<>();
-    for(Piece p: this.pieces){
-      if(p.isWhite == isWhite){
-        teamPieces.add(p);
-      }
+  /**
+   * map square to its mailbox cell
+   * squares too far away to have their own cell share the sentinel cell 0
+   * @param s
+   * @return mailbox index
+   */
+  private static int toMailboxIndex(Square s){
+    int row = s.getRow();
+    int col = s.getColumn();
+    if(row < -1 || row > 10 || col < 0 || col > 9){
+      return 0;
     }
-    return teamPieces;
+    return (row + 1) * MAILBOX_WIDTH + col;
   }
 
   @Override
-  public Piece whatIsAtSquare(Square square){
-    for(Piece p: this.pieces){
-      if(p.getSquare().equals(square)){
-        return p;
-      }
-    } 
-    return null; 
+  protected void placePiece(Piece p){
+    this.mailbox[toMailboxIndex(p.getSquare())] = p;
   }
 
   @Override
-  public boolean tryAddPiece(Piece p) {
-    // check if piece is off board
-    if(!this.isSquareOnBoard(p.getSquare())){
-      return false;
-    }
-
-    // check if piece collide with other pieces
-    for(Piece exitingPiece: this.pieces){
-      if(p.getSquare().equals(exitingPiece.getSquare())){
-        return false;
-      }
-    }
-    this.pieces.add(p);
-    return true;
+  protected void clearPiece(Piece p){
+    this.mailbox[toMailboxIndex(p.getSquare())] = null;
   }
 
   @Override
-  public boolean tryRemovePiece(Piece p){
-    if(this.pieces.contains(p)){
-      this.pieces.remove(p);
-      return true;
-    }
-    return false;
+  public boolean isSquareOnBoard(Square s){
+    return !this.offBoard[toMailboxIndex(s)];
   }
 
   @Override
-  public void appendMoveLog(Move move) {
-    this.moveLog.add(move);
+  public Piece whatIsAtSquare(Square square){
+    return this.mailbox[toMailboxIndex(square)];
   }
 
   @Override
-  public List<Move> getMoveLog() {
-    return this.moveLog;
+  public Board copy(){
+    ChessBoard copy = new ChessBoard(this.width, this.height, new HashSet<>());
+    copy.copyPositionFrom(this);
+    return copy;
   }
 }
@@ -0,0 +1,184 @@
+package com.osullivan.chess;
+
+import java.io.IOException;
+
+/**
+ * player that picks its moves with an alpha-beta search, see Search
+ * every search stops at the depth, node or time limit of the player,
+ * and searches on more than one thread with Lazy SMP if asked to
+ * with a TimeManager the time limit of each move comes from the player's clock instead
+ * the player holds its transposition table until it is closed
+ */
+public class ComputerPlayer extends Player implements AutoCloseable {
+  // table size of a player not given a table, small as a game may have two computer players
+  public static final int DEFAULT_MEGABYTES = 1;
+
+  // null once the player is closed
+  private TranspositionTable table;
+  // kept from move to move with its threads, replaced when the number of threads changes
+  private LazySmp smp;
+  private SearchLimits limits;
+  private int threads;
+  // piece type the searched move promotes to, read back by getPromotedPiece
+  private int promotionType;
+  private SearchResult lastResult;
+  // null to search with the time limit of the limits
+  private TimeManager timeManager;
+
+  /**
+   * @param isWhite
+   * @param board
+   * @param limits when each search stops
+   */
+  public ComputerPlayer(boolean isWhite, Board board, SearchLimits limits){
+    this(isWhite, board, limits, 1);
+  }
+
+  /**
+   * @param isWhite
+   * @param board
+   * @param limits when each search stops
+   * @param threads number of search threads
+   */
+  public ComputerPlayer(boolean isWhite, Board board, SearchLimits limits, int threads){
+    this(isWhite, board, limits, threads, new TranspositionTable(DEFAULT_MEGABYTES));
+  }
+
+  /**
+   * @param isWhite
+   * @param board
+   * @param limits when each search stops
+   * @param threads number of search threads
+   * @param table transposition table to search with, may be shared with the other player
+   */
+  public ComputerPlayer(boolean isWhite, Board board, SearchLimits limits, int threads, TranspositionTable table){
+    super(isWhite, board);
+    if(table == null){
+      throw new IllegalArgumentException("search needs a transposition table");
+    }
+    this.table = table;
+    this.smp = null;
+    this.limits = limits;
+    this.setThreads(threads);
+    this.promotionType = Piece.QUEEN;
+    this.lastResult = null;
+    this.timeManager = null;
+  }
+
+  /**
+   * @return transposition table of the player, null once it is closed
+   */
+  public TranspositionTable getTable(){
+    return this.table;
+  }
+
+  public SearchLimits getLimits(){
+    return this.limits;
+  }
+
+  public void setLimits(SearchLimits limits){
+    this.limits = limits;
+  }
+
+  public int getThreads(){
+    return this.threads;
+  }
+
+  /**
+   * @param threads number of search threads, from 1 to LazySmp.MAX_THREADS
+   */
+  public void setThreads(int threads){
+    if(threads < 1 || threads > LazySmp.MAX_THREADS){
+      throw new IllegalArgumentException("search needs 1 to " + LazySmp.MAX_THREADS + " threads");
+    }
+    this.threads = threads;
+    if(this.smp != null && this.smp.getThreads() != threads){
+      this.smp.close();
+      this.smp = null;
+    }
+  }
+
+  public TimeManager getTimeManager(){
+    return this.timeManager;
+  }
+
+  /**
+   * @param timeManager clock to share out over the moves, null to use the time limit of the limits
+   */
+  public void setTimeManager(TimeManager timeManager){
+    this.timeManager = timeManager;
+  }
+
+  /**
+   * @return result of the last search, null before the first move
+   */
+  public SearchResult getLastResult(){
+    return this.lastResult;
+  }
+
+  /**
+   * search the current position
+   * @return result, its best move is PackedMove.NONE if there is no legal move
+   */
+  public SearchResult think(){
+    if(this.table == null){
+      throw new IllegalStateException("player is closed");
+    }
+    if(this.board.isWhiteToMove() != this.isWhite){
+      throw new IllegalStateException("not this player's turn");
+    }
+    long start = System.nanoTime();
+    SearchLimits limits = this.timeManager == null ? this.limits : this.timeManager.allocate(this.limits);
+    if(this.smp == null){
+      this.smp = new LazySmp(this.threads, this.table);
+    }
+    this.lastResult = this.smp.search(this.board, limits);
+    if(this.timeManager != null){
+      this.timeManager.moveMade((System.nanoTime() - start) / 1_000_000);
+    }
+    return this.lastResult;
+  }
+
+  /**
+   * stop the search threads and let go of the transposition table,
+   * so its memory can be freed once no other player shares it
+   * the player cannot search after this
+   */
+  @Override
+  public void close(){
+    if(this.smp != null){
+      this.smp.close();
+      this.smp = null;
+    }
+    this.table = null;
+  }
+
+  @Override
+  public void makeOneMove() throws IOException{
+    int move = this.think().getBestMove();
+    if(move == PackedMove.NONE){
+      throw new IllegalStateException("no legal move to make");
+    }
+    this.promotionType = PackedMove.getPromotion(move);
+    Move chosen = PackedMove.toMove(move);
+    String errMsg = this.tryMakeMove(chosen);
+    if(errMsg != null){
+      throw new IllegalStateException("search chose an invalid move: " + errMsg);
+    }
+    this.board.appendMoveLog(chosen);
+  }
+
+  @Override
+  protected Piece getPromotedPiece(){
+    switch(this.promotionType){
+      case Piece.ROOK:
+        return new Rook("R", this.isWhite, null, true);
+      case Piece.KNIGHT:
+        return new Knight("N", this.isWhite, null);
+      case Piece.BISHOP:
+        return new Bishop("B", this.isWhite, null);
+      default:
+        return new Queen("Q", this.isWhite, null);
+    }
+  }
+}
@@ -0,0 +1,291 @@
+package com.osullivan.chess;
+
+import java.util.HashSet;
+
+/**
+ * reads and writes positions in Forsyth-Edwards Notation, e.g.
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+ * the text is scanned once, character by character, and loading onto an existing
+ * board only allocates the pieces themselves
+ * castling rights are mapped onto move counters: a Rook whose right is missing is marked as moved
+ */
+public final class Fen {
+  public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  // piece letters indexed by piece type
+  private static final char[] PIECE_LETTERS = {'P', 'N', 'B', 'R', 'Q', 'K'};
+
+  private Fen(){
+  }
+
+  /**
+   * set a position up on a new 8 x 8 board
+   * @param fen
+   * @return new board
+   */
+  public static Board toBoard(CharSequence fen){
+    Board board = new ChessBoard(8, 8, new HashSet<>());
+    load(fen, board);
+    return board;
+  }
+
+  /**
+   * clear a board and set a position up on it
+   * the board is left partly set up if the position is invalid
+   * @param fen placement, side to move, castling rights and en passant square,
+   * followed by the halfmove clock and fullmove number, which are optional
+   * @param board board as high as the position has ranks and as wide as it has files
+   */
+  public static void load(CharSequence fen, Board board){
+    board.clear();
+    int length = fen.length();
+    int width = board.getWidth();
+    int height = board.getHeight();
+
+    // piece placement, from the last rank down
+    int i = 0;
+    int row = height;
+    int col = 1;
+    for(; i < length && fen.charAt(i) != ' '; i++){
+      char c = fen.charAt(i);
+      if(c == '/'){
+        if(col != width + 1 || row == 1){
+          throw invalid(fen, "rank " + Integer.toString(row) + " does not fit the board");
+        }
+        row--;
+        col = 1;
+      }
+      else if(c >= '1' && c <= '9'){
+        col += c - '0';
+        if(col > width + 1){
+          throw invalid(fen, "rank " + Integer.toString(row) + " does not fit the board");
+        }
+      }
+      else{
+        if(col > width){
+          throw invalid(fen, "rank " + Integer.toString(row) + " does not fit the board");
+        }
+        board.tryAddPiece(createPiece(fen, c, Square.of(row, col++)));
+      }
+    }
+    if(row != 1 || col != width + 1){
+      throw invalid(fen, "placement does not fit the board");
+    }
+
+    // side to move
+    i = skipSpace(fen, i);
+    if(i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')){
+      throw invalid(fen, "side to move must be 'w' or 'b'");
+    }
+    boolean isWhiteToMove = fen.charAt(i++) == 'w';
+
+    // castling rights
+    i = skipSpace(fen, i);
+    int rights = 0;
+    if(i < length && fen.charAt(i) == '-'){
+      i++;
+    }
+    else{
+      for(; i < length && fen.charAt(i) != ' '; i++){
+        rights |= castlingRight(fen, fen.charAt(i));
+      }
+    }
+    removeCastlingRights(board, rights);
+
+    // en passant square
+    i = skipSpace(fen, i);
+    Square enPassantSquare = null;
+    if(i < length && fen.charAt(i) == '-'){
+      i++;
+    }
+    else{
+      if(i + 1 >= length || fen.charAt(i) < 'a' || fen.charAt(i) > 'h'
+        || fen.charAt(i + 1) < '1' || fen.charAt(i + 1) > '8'){
+        throw invalid(fen, "en passant square must be '-' or a square");
+      }
+      enPassantSquare = Square.of(fen.charAt(i + 1) - '0', fen.charAt(i) - 'a' + 1);
+      i += 2;
+    }
+
+    // move clocks
+    int halfmoveClock = 0;
+    int fullmoveNumber = 1;
+    i = skipSpace(fen, i);
+    if(i < length){
+      halfmoveClock = readNumber(fen, i);
+      i = skipSpace(fen, skipNumber(fen, i));
+      if(i < length){
+        fullmoveNumber = readNumber(fen, i);
+        i = skipSpace(fen, skipNumber(fen, i));
+      }
+    }
+    if(i < length){
+      throw invalid(fen, "unexpected text after the move clocks");
+    }
+
+    board.endTurn(!isWhiteToMove, enPassantSquare);
+    board.setMoveClocks(halfmoveClock, Math.max(fullmoveNumber, 1));
+  }
+
+  private static IllegalArgumentException invalid(CharSequence fen, String reason){
+    return new IllegalArgumentException("invalid FEN \'" + fen + "\': " + reason);
+  }
+
+  private static int skipSpace(CharSequence fen, int i){
+    while(i < fen.length() && fen.charAt(i) == ' '){
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipNumber(CharSequence fen, int i){
+    while(i < fen.length() && fen.charAt(i) >= '0' && fen.charAt(i) <= '9'){
+      i++;
+    }
+    return i;
+  }
+
+  private static int readNumber(CharSequence fen, int i){
+    int end = skipNumber(fen, i);
+    if(end == i || end - i > 9){
+      throw invalid(fen, "move clocks must be numbers");
+    }
+    int number = 0;
+    for(; i < end; i++){
+      number = number * 10 + (fen.charAt(i) - '0');
+    }
+    return number;
+  }
+
+  private static Piece createPiece(CharSequence fen, char c, Square square){
+    boolean isWhite = c >= 'A' && c <= 'Z';
+    switch(isWhite ? c : (char)(c - 'a' + 'A')){
+      case 'P':
+        return new Pawn("P", isWhite, square);
+      case 'N':
+        return new Knight("N", isWhite, square);
+      case 'B':
+        return new Bishop("B", isWhite, square);
+      case 'R':
+        return new Rook("R", isWhite, square, square.getColumn() > 4);
+      case 'Q':
+        return new Queen("Q", isWhite, square);
+      case 'K':
+        return new King("K", isWhite, square);
+      default:
+        throw invalid(fen, "invalid piece \'" + c + "\'");
+    }
+  }
+
+  private static int castlingRight(CharSequence fen, char c){
+    switch(c){
+      case 'K':
+        return Board.WHITE_KING_SIDE;
+      case 'Q':
+        return Board.WHITE_QUEEN_SIDE;
+      case 'k':
+        return Board.BLACK_KING_SIDE;
+      case 'q':
+        return Board.BLACK_QUEEN_SIDE;
+      default:
+        throw invalid(fen, "invalid castling right \'" + c + "\'");
+    }
+  }
+
+  /**
+   * the board grants a right while King and Rook are unmoved on their starting squares,
+   * so a right the position lacks is taken away by marking its Rook as moved
+   */
+  private static void removeCastlingRights(Board board, int rights){
+    removeCastlingRight(board, rights, Board.WHITE_KING_SIDE, 1, 8);
+    removeCastlingRight(board, rights, Board.WHITE_QUEEN_SIDE, 1, 1);
+    removeCastlingRight(board, rights, Board.BLACK_KING_SIDE, 8, 8);
+    removeCastlingRight(board, rights, Board.BLACK_QUEEN_SIDE, 8, 1);
+  }
+
+  private static void removeCastlingRight(Board board, int rights, int right, int row, int col){
+    if((rights & right) != 0){
+      return;
+    }
+    Square square = Square.of(row, col);
+    if(!board.isSquareOnBoard(square)){
+      return;
+    }
+    Piece p = board.whatIsAtSquare(square);
+    if(p != null && p.getType() == Piece.ROOK && p.getMoveCounter() == 0){
+      p.incrementMoveCounter();
+    }
+  }
+
+  /**
+   * @param board
+   * @return position in Forsyth-Edwards Notation
+   */
+  public static String toFen(Board board){
+    StringBuilder out = new StringBuilder(90);
+    write(board, out);
+    return out.toString();
+  }
+
+  /**
+   * append the position of a board in Forsyth-Edwards Notation
+   * @param board
+   * @param out
+   */
+  public static void write(Board board, StringBuilder out){
+    for(int row = board.getHeight(); row >= 1; row--){
+      int empty = 0;
+      for(int col = 1; col <= board.getWidth(); col++){
+        Piece p = board.whatIsAtSquare(Square.of(row, col));
+        if(p == null){
+          empty++;
+          continue;
+        }
+        if(empty > 0){
+          out.append((char)('0' + empty));
+          empty = 0;
+        }
+        char letter = PIECE_LETTERS[p.getType()];
+        out.append(p.isWhitePiece() ? letter : (char)(letter - 'A' + 'a'));
+      }
+      if(empty > 0){
+        out.append((char)('0' + empty));
+      }
+      if(row > 1){
+        out.append('/');
+      }
+    }
+
+    out.append(board.isWhiteToMove() ? " w " : " b ");
+
+    int rights = board.getCastlingRights();
+    if(rights == 0){
+      out.append('-');
+    }
+    else{
+      if((rights & Board.WHITE_KING_SIDE) != 0){
+        out.append('K');
+      }
+      if((rights & Board.WHITE_QUEEN_SIDE) != 0){
+        out.append('Q');
+      }
+      if((rights & Board.BLACK_KING_SIDE) != 0){
+        out.append('k');
+      }
+      if((rights & Board.BLACK_QUEEN_SIDE) != 0){
+        out.append('q');
+      }
+    }
+
+    Square enPassantSquare = board.getEnPassantSquare();
+    out.append(' ');
+    if(enPassantSquare == null){
+      out.append('-');
+    }
+    else{
+      out.append((char)('a' + enPassantSquare.getColumn() - 1)).append(enPassantSquare.getRow());
+    }
+
+    out.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+  }
+}
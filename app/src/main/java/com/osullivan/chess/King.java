@@ -8,44 +8,44 @@ public class King extends Piece {
     super(name, isWhite, square);
   }
 
+  @Override
+  protected Piece newInstance() {
+    return new King(this.name, this.isWhite, this.square);
+  }
+
+  @Override
+  public int getType() {
+    return KING;
+  }
+
   @Override
   public HashSet<Square> canMoveTo(Board board) {
     // King can move these adjacent places:
     // 1. empty square not covered by enemy
     // 2. enemy-occupied square not defended by another enemy piece
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.getSquare().getRow();
-    int currCol = this.getSquare().getColumn();
-    for(int i = -1; i <= 1; i++){
-      for(int j = -1; j <= 1; j++){
-        Square square = new Square(currRow + i, currCol + j);
-        if(square.equals(this.square) || !board.isSquareOnBoard(square)){
-          continue;
-        }
-        Piece p = board.whatIsAtSquare(square);
-        if(p == null){
-          board.tryRemovePiece(this);
-          if(!square.canBeCoveredAssumingEmptyBy(!this.isWhite, board)){
-            nextMoves.add(square);
-          }
-          board.tryAddPiece(this);
-        }
-        else{
-          if(p.isWhite != this.isWhite){
-            board.tryRemovePiece(this);
-            if(!p.canBeProtected(board)){
-              nextMoves.add(square);
-            }
-            board.tryAddPiece(this);
-          }
-        }
+    // enemy sliders are looked up again with the King taken off the board,
+    // so it cannot hide behind itself along a line of check
+    boolean isEnemyWhite = !this.isWhite;
+    long enemyQueens = board.getPieceBitboard(isEnemyWhite, QUEEN);
+    long enemyRooks = board.getPieceBitboard(isEnemyWhite, ROOK) | enemyQueens;
+    long enemyBishops = board.getPieceBitboard(isEnemyWhite, BISHOP) | enemyQueens;
+    long occupancy = board.getOccupancy() & ~(1L << this.square.getIndex());
+
+    long nextMoves = this.getAttacksExcludingOwnTeam(board) & ~board.getAttackMap(isEnemyWhite);
+    for(long candidates = nextMoves; candidates != 0; candidates &= candidates - 1){
+      int sq = Long.numberOfTrailingZeros(candidates);
+      if((Attacks.rookAttacks(sq, occupancy) & enemyRooks) != 0 
+        || (Attacks.bishopAttacks(sq, occupancy) & enemyBishops) != 0){
+        nextMoves &= ~(1L << sq);
       }
     }
-    return nextMoves;
+    return toSquares(nextMoves);
   }
 
   @Override
   public HashSet<Square> canCover(Board board) {
-    return this.canMoveTo(board);
+    // King covers every adjacent square not taken by its own team,
+    // whether or not it would be safe to step there
+    return toSquares(this.getAttacksExcludingOwnTeam(board));
   }
 }
@@ -9,26 +9,18 @@ public class Knight extends Piece{
   }
 
   @Override
-  public HashSet<Square> canMoveTo(Board board) {
-    int currRow = this.getSquare().getRow();
-    int currCol = this.getSquare().getColumn();
-    HashSet<Square> nextMoves = new HashSet<>();
+  protected Piece newInstance() {
+    return new Knight(this.name, this.isWhite, this.square);
+  }
 
-    for(int i = -2; i <= 2; i++){
-      for(int j = -2; j <= 2; j++){
-        if(i == 0 || j == 0 || Math.abs(i) == Math.abs(j)){
-          continue;
-        }
-        Square square = new Square(currRow + i, currCol + j);
-        if(board.isSquareOnBoard(square)){
-          Piece p = board.whatIsAtSquare(square);
-          if(p == null || (p != null && p.isWhite != this.isWhite)){
-            nextMoves.add(square);
-          }
-        }
-      }
-    }
-    return nextMoves;
+  @Override
+  public int getType() {
+    return KNIGHT;
+  }
+
+  @Override
+  public HashSet<Square> canMoveTo(Board board) {
+    return toSquares(this.getAttacksExcludingOwnTeam(board));
   }
 
   @Override
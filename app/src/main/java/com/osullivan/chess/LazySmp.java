@@ -0,0 +1,226 @@
+package com.osullivan.chess;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP parallel search: helper threads search the same root on their own boards
+ * while the main search runs on the caller's thread, and the threads share nothing
+ * but the transposition table, where the helpers' results speed up the main search
+ * the main search alone decides the move and when to stop, helpers stop with it
+ * the helper threads, boards and searches are kept from one search to the next,
+ * each search only copies the position onto the helper boards
+ */
+public class LazySmp implements AutoCloseable {
+  public static final int MAX_THREADS = 64;
+
+  private final int threads;
+  private final TranspositionTable table;
+  // runs the helpers, null with a single thread
+  private final ExecutorService pool;
+  // board the searches were set up for, the helper boards are copies of it
+  private Board board;
+  private Search main;
+  private Board[] helperBoards;
+  private Search[] helpers;
+  private boolean closed;
+
+  /**
+   * @param threads number of threads, including the main search, at most MAX_THREADS
+   * @param table table shared by every thread
+   */
+  public LazySmp(int threads, TranspositionTable table){
+    if(threads < 1){
+      throw new IllegalArgumentException("search needs at least one thread");
+    }
+    if(threads > MAX_THREADS){
+      throw new IllegalArgumentException("search can use at most " + MAX_THREADS + " threads");
+    }
+    this.threads = threads;
+    this.table = table;
+    this.pool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, new ThreadFactory(){
+      private int count = 0;
+
+      @Override
+      public Thread newThread(Runnable r){
+        Thread thread = new Thread(r, "search-helper-" + (++this.count));
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    this.board = null;
+    this.closed = false;
+  }
+
+  public int getThreads(){
+    return this.threads;
+  }
+
+  public TranspositionTable getTable(){
+    return this.table;
+  }
+
+  /**
+   * set up the searches for the board, the first time it is searched,
+   * and copy its position onto the helper boards
+   * @param board
+   */
+  private void setUp(Board board){
+    if(this.board != board){
+      this.board = board;
+      this.main = new Search(board, this.table);
+      this.helperBoards = new Board[this.threads - 1];
+      this.helpers = new Search[this.threads - 1];
+      for(int i = 0; i < this.helpers.length; i++){
+        this.helperBoards[i] = board.copy();
+        this.helpers[i] = new Search(this.helperBoards[i], this.table);
+      }
+      return;
+    }
+    for(Board helperBoard: this.helperBoards){
+      helperBoard.copyPositionFrom(board);
+    }
+  }
+
+  /**
+   * search the position on the board for the side to move, the board is left as it was
+   * the limits apply to the main search, so with a node limit every thread
+   * searches at most about that many nodes
+   * @param board
+   * @param limits
+   * @return main search result, with the nodes of every thread and the cutoffs of the main search
+   */
+  public SearchResult search(Board board, SearchLimits limits){
+    if(this.closed){
+      throw new IllegalStateException("search is closed");
+    }
+    this.setUp(board);
+    if(this.threads == 1){
+      return this.main.search(limits);
+    }
+    this.table.newSearch();
+    AtomicBoolean stopSignal = new AtomicBoolean(false);
+    // helpers run until the main search is done
+    SearchLimits helperLimits = SearchLimits.depth(Search.MAX_PLY);
+    List<Future<SearchResult>> results = new ArrayList<>(this.helpers.length);
+    for(int i = 0; i < this.helpers.length; i++){
+      int helper = i + 1;
+      Search search = this.helpers[i];
+      results.add(this.pool.submit(() -> search.search(helperLimits, helper, stopSignal)));
+    }
+
+    SearchResult main;
+    long nodes = 0;
+    try{
+      main = this.main.search(limits, 0, stopSignal);
+    }
+    finally{
+      stopSignal.set(true);
+      for(Future<SearchResult> result: results){
+        nodes += getUninterruptibly(result).getNodes();
+      }
+    }
+    nodes += main.getNodes();
+    return new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(), nodes, main.getNanos(),
+      main.getCutoffs(), main.getFirstMoveCutoffs(), main.getStop());
+  }
+
+  private static SearchResult getUninterruptibly(Future<SearchResult> future){
+    boolean interrupted = false;
+    try{
+      while(true){
+        try{
+          return future.get();
+        }
+        catch(InterruptedException e){
+          interrupted = true;
+        }
+        catch(ExecutionException e){
+          throw new IllegalStateException("search helper failed", e.getCause());
+        }
+      }
+    }
+    finally{
+      if(interrupted){
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * stop the helper threads, the search cannot be used after this
+   */
+  @Override
+  public void close(){
+    this.closed = true;
+    if(this.pool != null){
+      this.pool.shutdown();
+    }
+    this.board = null;
+    this.main = null;
+    this.helperBoards = null;
+    this.helpers = null;
+  }
+
+  /**
+   * search the same position to the same depth with each thread count, each with a fresh table,
+   * and print nodes per second and time to depth
+   * @param position
+   * @param depth
+   * @param threadCounts thread counts to run, the first is the baseline
+   * @param megabytes table size
+   * @param out
+   * @return time to depth speedup of each thread count over the first
+   */
+  public static double[] reportScaling(PerftPosition position, int depth, int[] threadCounts, int megabytes, PrintStream out){
+    double[] speedups = new double[threadCounts.length];
+    long baselineNanos = 0;
+    for(int i = 0; i < threadCounts.length; i++){
+      SearchResult result;
+      int hashfull;
+      try(LazySmp smp = new LazySmp(threadCounts[i], new TranspositionTable(megabytes))){
+        result = smp.search(position.toBoard(), SearchLimits.depth(depth));
+        hashfull = smp.getTable().hashfull();
+      }
+      long nanos = result.getNanos();
+      if(i == 0){
+        baselineNanos = nanos;
+      }
+      speedups[i] = (double)baselineNanos / Math.max(nanos, 1);
+      out.print(String.format("%s depth %d, %d threads: %d nodes, %d nps, time to depth %.3f s, speedup %.2f, hashfull %d, bestmove %s%n",
+        position.name(), result.getDepth(), threadCounts[i], result.getNodes(),
+        Perft.nodesPerSecond(result.getNodes(), nanos), nanos / 1e9, speedups[i],
+        hashfull, PackedMove.toString(result.getBestMove())));
+    }
+    return speedups;
+  }
+
+  /**
+   * scaling report from the command line
+   * "[DEPTH [POSITION [MAX_THREADS]]]": run with 1, 2, 4, ... threads up to MAX_THREADS,
+   * depth 6 from Kiwipete with up to 64 threads by default
+   * @param args
+   */
+  public static void main(String[] args){
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+    PerftPosition position = args.length > 1 ? PerftPosition.valueOf(args[1]) : PerftPosition.KIWIPETE;
+    int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : MAX_THREADS;
+    List<Integer> counts = new ArrayList<>();
+    for(int threads = 1; threads < maxThreads; threads *= 2){
+      counts.add(threads);
+    }
+    counts.add(maxThreads);
+    int[] threadCounts = new int[counts.size()];
+    for(int i = 0; i < threadCounts.length; i++){
+      threadCounts[i] = counts.get(i);
+    }
+    reportScaling(position, depth, threadCounts, TranspositionTable.DEFAULT_MEGABYTES, System.out);
+  }
+}
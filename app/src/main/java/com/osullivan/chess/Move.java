@@ -20,8 +20,8 @@ public class Move {
     if(descr.length() != 4){
       throw new IllegalArgumentException("move only accept string with length of 4");
     }
-    this.squareFrom = new Square(descr.substring(0, 2));
-    this.squareTo = new Square(descr.substring(2));
+    this.squareFrom = Square.of(descr.substring(0, 2));
+    this.squareTo = Square.of(descr.substring(2));
     this.validate();
   }
 
@@ -45,7 +45,7 @@ public class Move {
 
   @Override
   public int hashCode(){
-    return this.toString().hashCode();
+    return this.squareFrom.hashCode() * 31 + this.squareTo.hashCode();
   }
 
   @Override
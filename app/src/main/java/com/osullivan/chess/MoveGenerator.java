@@ -0,0 +1,189 @@
+package com.osullivan.chess;
+
+/**
+ * generates every legal move of a team as packed moves, see PackedMove
+ * including castling, en passant captures and all four promotion choices
+ * legality comes from the pins and check mask in CheckInfo,
+ * only en passant captures are played out to test them
+ * a generator is reused between positions and does not allocate while generating
+ */
+public class MoveGenerator {
+  private static final int[] PROMOTION_TYPES = {Piece.QUEEN, Piece.ROOK, Piece.BISHOP, Piece.KNIGHT};
+
+  // square index of White's King before castling, Black's is on the top rank of the board
+  private static final int WHITE_KING_FROM = 4;
+
+  private final CheckInfo checkInfo;
+
+  public MoveGenerator(){
+    this.checkInfo = new CheckInfo();
+  }
+
+  /**
+   * @return checks and pins of the position moves were last generated for
+   */
+  public CheckInfo getCheckInfo(){
+    return this.checkInfo;
+  }
+
+  /**
+   * write every legal move of a team into a buffer
+   * @param board
+   * @param isWhite true to generate white moves
+   * @param moves buffer, cleared first
+   * @return number of legal moves
+   */
+  public int generateLegalMoves(Board board, boolean isWhite, MoveList moves){
+    moves.clear();
+    CheckInfo info = this.checkInfo;
+    info.update(board, isWhite);
+
+    long own = board.getTeamOccupancy(isWhite);
+    long enemy = board.getTeamOccupancy(!isWhite);
+    long occupancy = board.getOccupancy();
+    long boardMask = board.getBoardMask();
+
+    this.generateKingMoves(board, isWhite, info, own, enemy, moves);
+    if(Long.bitCount(info.getCheckers()) > 1){
+      // only the King can answer a double check
+      return moves.size();
+    }
+
+    long checkMask = info.getCheckMask();
+    long targets = ~own & boardMask & checkMask;
+    for(int type = Piece.KNIGHT; type <= Piece.QUEEN; type++){
+      for(long pieces = board.getPieceBitboard(isWhite, type); pieces != 0; pieces &= pieces - 1){
+        int from = Long.numberOfTrailingZeros(pieces);
+        long attacks = Attacks.attacks(type, isWhite, from, occupancy) & targets & info.getPinRay(from);
+        this.addMoves(from, attacks, enemy, moves);
+      }
+    }
+    this.generatePawnMoves(board, isWhite, info, enemy, occupancy, boardMask, moves);
+    this.generateEnPassant(board, isWhite, moves);
+    this.generateCastling(board, isWhite, info, occupancy, moves);
+    return moves.size();
+  }
+
+  private void addMoves(int from, long targets, long enemy, MoveList moves){
+    while(targets != 0){
+      int to = Long.numberOfTrailingZeros(targets);
+      int flags = (enemy & (1L << to)) != 0 ? PackedMove.CAPTURE : 0;
+      moves.add(PackedMove.encode(from, to, 0, flags));
+      targets &= targets - 1;
+    }
+  }
+
+  private void generateKingMoves(Board board, boolean isWhite, CheckInfo info, long own, long enemy, MoveList moves){
+    int from = info.getKingIndex();
+    if(from < 0){
+      return;
+    }
+    long targets = Attacks.kingAttacks(from) & ~own & board.getBoardMask() & ~info.getKingDanger();
+    this.addMoves(from, targets, enemy, moves);
+  }
+
+  private void addPawnMove(int from, int to, int flags, int lastRow, MoveList moves){
+    if(to / 8 == lastRow){
+      for(int type: PROMOTION_TYPES){
+        moves.add(PackedMove.encode(from, to, type, flags));
+      }
+    }
+    else{
+      moves.add(PackedMove.encode(from, to, 0, flags));
+    }
+  }
+
+  private void generatePawnMoves(Board board, boolean isWhite, CheckInfo info, long enemy, long occupancy, long boardMask, MoveList moves){
+    int forward = isWhite ? 8 : -8;
+    // rows are 0-based here, Pawns move two squares from the second rank of their side of the board
+    int startRow = isWhite ? 1 : board.getHeight() - 2;
+    int lastRow = isWhite ? board.getHeight() - 1 : 0;
+    long empty = ~occupancy & boardMask;
+
+    for(long pawns = board.getPieceBitboard(isWhite, Piece.PAWN); pawns != 0; pawns &= pawns - 1){
+      int from = Long.numberOfTrailingZeros(pawns);
+      long allowed = info.getCheckMask() & info.getPinRay(from);
+
+      int oneStep = from + forward;
+      if(oneStep >= 0 && oneStep < 64 && (empty & (1L << oneStep)) != 0){
+        if((allowed & (1L << oneStep)) != 0){
+          this.addPawnMove(from, oneStep, 0, lastRow, moves);
+        }
+        int twoSteps = oneStep + forward;
+        if(from / 8 == startRow && twoSteps >= 0 && twoSteps < 64
+          && (empty & (1L << twoSteps)) != 0 && (allowed & (1L << twoSteps)) != 0){
+          moves.add(PackedMove.encode(from, twoSteps, 0, PackedMove.DOUBLE_PUSH));
+        }
+      }
+
+      long captures = Attacks.pawnAttacks(isWhite, from) & enemy & allowed;
+      while(captures != 0){
+        int to = Long.numberOfTrailingZeros(captures);
+        this.addPawnMove(from, to, PackedMove.CAPTURE, lastRow, moves);
+        captures &= captures - 1;
+      }
+    }
+  }
+
+  private void generateEnPassant(Board board, boolean isWhite, MoveList moves){
+    Square enPassantSquare = board.getEnPassantSquare();
+    if(enPassantSquare == null){
+      return;
+    }
+    // the square must have been skipped by an enemy Pawn, not one of ours
+    int to = enPassantSquare.getIndex();
+    if(to / 8 != (isWhite ? 5 : 2)){
+      return;
+    }
+    int capturedIndex = to + (isWhite ? -8 : 8);
+    if((board.getPieceBitboard(!isWhite, Piece.PAWN) & (1L << capturedIndex)) == 0){
+      return;
+    }
+
+    long pawns = Attacks.pawnAttacks(!isWhite, to) & board.getPieceBitboard(isWhite, Piece.PAWN);
+    while(pawns != 0){
+      int from = Long.numberOfTrailingZeros(pawns);
+      int move = PackedMove.encode(from, to, 0, PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+      // two Pawns leave the rank at once, which pins cannot describe, so play it out
+      board.makeMove(move);
+      Piece king = board.getKing(isWhite);
+      boolean isLegal = king == null
+        || (board.getAttackMap(!isWhite) & (1L << king.getSquare().getIndex())) == 0;
+      board.unmakeMove();
+      if(isLegal){
+        moves.add(move);
+      }
+      pawns &= pawns - 1;
+    }
+  }
+
+  private void generateCastling(Board board, boolean isWhite, CheckInfo info, long occupancy, MoveList moves){
+    if(info.isInCheck()){
+      return;
+    }
+    int rights = board.getCastlingRights();
+    int kingFrom = isWhite ? WHITE_KING_FROM : (board.getHeight() - 1) * 8 + WHITE_KING_FROM;
+    int kingSide = isWhite ? Board.WHITE_KING_SIDE : Board.BLACK_KING_SIDE;
+    int queenSide = isWhite ? Board.WHITE_QUEEN_SIDE : Board.BLACK_QUEEN_SIDE;
+    long enemyAttacks = board.getAttackMap(!isWhite);
+
+    if((rights & kingSide) != 0){
+      this.tryAddCastle(kingFrom, kingFrom + 3, kingFrom + 2, occupancy, enemyAttacks, moves);
+    }
+    if((rights & queenSide) != 0){
+      this.tryAddCastle(kingFrom, kingFrom - 4, kingFrom - 2, occupancy, enemyAttacks, moves);
+    }
+  }
+
+  private void tryAddCastle(int kingFrom, int rookFrom, int kingTo, long occupancy, long enemyAttacks, MoveList moves){
+    // no pieces between King and Rook, and no square the King passes attacked
+    if((Attacks.between(kingFrom, rookFrom) & occupancy) != 0){
+      return;
+    }
+    long kingPath = Attacks.between(kingFrom, kingTo) | (1L << kingTo);
+    if((kingPath & enemyAttacks) != 0){
+      return;
+    }
+    moves.add(PackedMove.encode(kingFrom, kingTo, 0, PackedMove.CASTLE));
+  }
+}
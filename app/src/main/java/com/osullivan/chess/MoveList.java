@@ -0,0 +1,95 @@
+package com.osullivan.chess;
+
+import java.util.Arrays;
+
+/**
+ * growable list of packed moves
+ * generators append to it and callers clear and reuse it across plies,
+ * so the backing array is only reallocated when it runs out of room
+ */
+public class MoveList {
+  private static final int DEFAULT_CAPACITY = 256;
+
+  private int[] moves;
+  private int size;
+
+  public MoveList(){
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MoveList(int capacity){
+    if(capacity <= 0){
+      throw new IllegalArgumentException("move list capacity must be positive");
+    }
+    this.moves = new int[capacity];
+    this.size = 0;
+  }
+
+  public void add(int move){
+    if(this.size == this.moves.length){
+      this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+    }
+    this.moves[this.size++] = move;
+  }
+
+  public int get(int i){
+    if(i < 0 || i >= this.size){
+      throw new IndexOutOfBoundsException("move index " + i + " out of range for size " + this.size);
+    }
+    return this.moves[i];
+  }
+
+  public void set(int i, int move){
+    if(i < 0 || i >= this.size){
+      throw new IndexOutOfBoundsException("move index " + i + " out of range for size " + this.size);
+    }
+    this.moves[i] = move;
+  }
+
+  public int size(){
+    return this.size;
+  }
+
+  public boolean isEmpty(){
+    return this.size == 0;
+  }
+
+  /**
+   * empty the list, keeping the backing array
+   */
+  public void clear(){
+    this.size = 0;
+  }
+
+  /**
+   * @param move packed move
+   * @return true if the exact packed move is in the list
+   */
+  public boolean contains(int move){
+    return this.indexOf(move) >= 0;
+  }
+
+  /**
+   * @param move packed move
+   * @return position of the exact packed move, -1 if not in the list
+   */
+  public int indexOf(int move){
+    for(int i = 0; i < this.size; i++){
+      if(this.moves[i] == move){
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * swap two moves, used to pick moves in order without sorting the whole list
+   * @param i
+   * @param j
+   */
+  public void swap(int i, int j){
+    int tmp = this.moves[i];
+    this.moves[i] = this.moves[j];
+    this.moves[j] = tmp;
+  }
+}
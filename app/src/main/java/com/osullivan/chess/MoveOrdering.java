@@ -0,0 +1,252 @@
+package com.osullivan.chess;
+
+import java.io.PrintStream;
+
+/**
+ * order in which the search tries the moves of a node, best guesses first so cutoffs come early:
+ * the hash move, then captures and Queen promotions by MVV-LVA (most valuable victim, least valuable attacker),
+ * then the two killer moves of the ply, then quiet moves by their history score, then underpromotions
+ * killers and history are learned from the cutoffs of the search, so each search thread keeps its own
+ */
+public class MoveOrdering {
+  private static final int HASH_SCORE = 1 << 30;
+  private static final int CAPTURE_SCORE = 1 << 28;
+  private static final int KILLER_SCORE = 1 << 27;
+  private static final int UNDERPROMOTION_SCORE = -(1 << 20);
+  // history scores stay within +-HISTORY_MAX, below every killer
+  private static final int HISTORY_MAX = 1 << 14;
+  // no position has more legal moves
+  private static final int MAX_MOVES = 256;
+
+  // two killers per ply, the quiet moves that last caused a cutoff there
+  private final int[][] killers;
+  // butterfly table, indexed by color, from and to square
+  private final int[] history;
+  // move scores of each ply, in the order of its move list
+  private final int[][] scores;
+
+  public MoveOrdering(){
+    this.killers = new int[Search.MAX_PLY + 1][2];
+    this.history = new int[2 * 64 * 64];
+    this.scores = new int[Search.MAX_PLY + 1][];
+    for(int i = 0; i < this.scores.length; i++){
+      this.scores[i] = new int[MAX_MOVES];
+    }
+  }
+
+  /**
+   * forget the killers and halve the history, before a new search
+   * the history still helps, but newer cutoffs soon outweigh it
+   */
+  public void newSearch(){
+    for(int[] killer: this.killers){
+      killer[0] = PackedMove.NONE;
+      killer[1] = PackedMove.NONE;
+    }
+    for(int i = 0; i < this.history.length; i++){
+      this.history[i] /= 2;
+    }
+  }
+
+  /**
+   * forget everything learned
+   */
+  public void clear(){
+    this.newSearch();
+    for(int i = 0; i < this.history.length; i++){
+      this.history[i] = 0;
+    }
+  }
+
+  /**
+   * @param board
+   * @param isWhite color of the piece
+   * @param square square index
+   * @return type of the piece of that color on the square, -1 if none
+   */
+  static int pieceTypeAt(Board board, boolean isWhite, int square){
+    long bit = 1L << square;
+    for(int type = Piece.PAWN; type <= Piece.KING; type++){
+      if((board.getPieceBitboard(isWhite, type) & bit) != 0){
+        return type;
+      }
+    }
+    return -1;
+  }
+
+  private static int historyIndex(boolean isWhite, int move){
+    return (isWhite ? 0 : 64 * 64) + (PackedMove.getFrom(move) << 6) + PackedMove.getTo(move);
+  }
+
+  /**
+   * @param move
+   * @return true if the move neither captures nor promotes
+   */
+  public static boolean isQuiet(int move){
+    return !PackedMove.isCapture(move) && PackedMove.getPromotion(move) == 0;
+  }
+
+  /**
+   * score the legal moves of a node, to be picked in order with pick
+   * @param board position the moves are legal in
+   * @param moves
+   * @param ply
+   * @param hashMove move from the transposition table, PackedMove.NONE if none
+   */
+  public void score(Board board, MoveList moves, int ply, int hashMove){
+    boolean isWhite = board.isWhiteToMove();
+    int[] scores = this.scores[ply];
+    int killer0 = this.killers[ply][0];
+    int killer1 = this.killers[ply][1];
+    for(int i = 0; i < moves.size(); i++){
+      int move = moves.get(i);
+      int promotion = PackedMove.getPromotion(move);
+      int score;
+      if(move == hashMove){
+        score = HASH_SCORE;
+      }
+      else if(promotion != 0 && promotion != Piece.QUEEN){
+        score = UNDERPROMOTION_SCORE + promotion;
+      }
+      else if(PackedMove.isCapture(move) || promotion != 0){
+        int victim = PackedMove.isEnPassant(move) ? Piece.PAWN
+          : PackedMove.isCapture(move) ? pieceTypeAt(board, !isWhite, PackedMove.getTo(move)) : -1;
+        int attacker = pieceTypeAt(board, isWhite, PackedMove.getFrom(move));
+        score = CAPTURE_SCORE + 8 * (victim + 1) - attacker;
+        if(promotion != 0){
+          score += 8 * Piece.QUEEN;
+        }
+      }
+      else if(move == killer0){
+        score = KILLER_SCORE + 1;
+      }
+      else if(move == killer1){
+        score = KILLER_SCORE;
+      }
+      else{
+        score = this.history[historyIndex(isWhite, move)];
+      }
+      scores[i] = score;
+    }
+  }
+
+  /**
+   * move the best of the moves not yet tried to the front, a selection sort step,
+   * so moves after a cutoff are never sorted
+   * @param moves moves scored by score
+   * @param ply
+   * @param index number of moves already tried
+   * @return move to try next
+   */
+  public int pick(MoveList moves, int ply, int index){
+    int[] scores = this.scores[ply];
+    int best = index;
+    for(int i = index + 1; i < moves.size(); i++){
+      if(scores[i] > scores[best]){
+        best = i;
+      }
+    }
+    if(best != index){
+      moves.swap(index, best);
+      int score = scores[index];
+      scores[index] = scores[best];
+      scores[best] = score;
+    }
+    return moves.get(index);
+  }
+
+  /**
+   * learn from a beta cutoff: a quiet cutoff move becomes a killer and gains history,
+   * the quiet moves tried before it lose history
+   * @param isWhite side that moved
+   * @param moves moves of the node, tried in list order up to the cutoff
+   * @param index index of the cutoff move
+   * @param ply
+   * @param depth remaining depth of the node, deeper cutoffs count more
+   */
+  public void cutoff(boolean isWhite, MoveList moves, int index, int ply, int depth){
+    int move = moves.get(index);
+    if(!isQuiet(move)){
+      return;
+    }
+    int[] killer = this.killers[ply];
+    if(killer[0] != move){
+      killer[1] = killer[0];
+      killer[0] = move;
+    }
+    int bonus = Math.min(depth * depth, HISTORY_MAX);
+    this.updateHistory(historyIndex(isWhite, move), bonus);
+    for(int i = 0; i < index; i++){
+      int tried = moves.get(i);
+      if(isQuiet(tried)){
+        this.updateHistory(historyIndex(isWhite, tried), -bonus);
+      }
+    }
+  }
+
+  private void updateHistory(int index, int bonus){
+    // moves toward the bound slow down, so scores never leave +-HISTORY_MAX
+    this.history[index] += bonus - this.history[index] * Math.abs(bonus) / HISTORY_MAX;
+  }
+
+  /**
+   * @param isWhite
+   * @param move
+   * @return history score of the quiet move
+   */
+  public int getHistory(boolean isWhite, int move){
+    return this.history[historyIndex(isWhite, move)];
+  }
+
+  /**
+   * @param ply
+   * @return the two killer moves of the ply, the newer first
+   */
+  public int[] getKillers(int ply){
+    return this.killers[ply].clone();
+  }
+
+  /**
+   * search each position to the same depth with and without move ordering
+   * and print the nodes and first-move cutoff rate of each
+   * @param positions
+   * @param depth
+   * @param out
+   * @return node count with ordering over node count without, for each position
+   */
+  public static double[] reportNodes(PerftPosition[] positions, int depth, PrintStream out){
+    double[] ratios = new double[positions.length];
+    for(int i = 0; i < positions.length; i++){
+      SearchResult[] results = new SearchResult[2];
+      for(int ordered = 0; ordered < 2; ordered++){
+        Search search = new Search(positions[i].toBoard());
+        search.setMoveOrdering(ordered == 1);
+        results[ordered] = search.search(SearchLimits.depth(depth));
+        out.print(String.format("%s depth %d, %s: %d nodes, first move cutoffs %.1f%%, bestmove %s%n",
+          positions[i].name(), results[ordered].getDepth(), ordered == 1 ? "ordered" : "hash move only",
+          results[ordered].getNodes(), 100 * results[ordered].getFirstMoveCutoffRate(),
+          PackedMove.toString(results[ordered].getBestMove())));
+      }
+      ratios[i] = (double)results[1].getNodes() / Math.max(results[0].getNodes(), 1);
+      out.print(String.format("%s: ordering searched %.1f%% of the nodes%n", positions[i].name(), 100 * ratios[i]));
+    }
+    return ratios;
+  }
+
+  /**
+   * node report from the command line
+   * "[DEPTH [POSITION...]]": depth 5 on every perft position by default
+   * @param args
+   */
+  public static void main(String[] args){
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    PerftPosition[] positions = PerftPosition.values();
+    if(args.length > 1){
+      positions = new PerftPosition[args.length - 1];
+      for(int i = 1; i < args.length; i++){
+        positions[i - 1] = PerftPosition.valueOf(args[i]);
+      }
+    }
+    reportNodes(positions, depth, System.out);
+  }
+}
@@ -0,0 +1,132 @@
+package com.osullivan.chess;
+
+/**
+ * moves packed into a single int, so search and perft can run without Move objects
+ * bits 0-5: source square index, a1 is 0, ..., h8 is 63
+ * bits 6-11: destination square index
+ * bits 12-14: promotion piece type, e.g. Piece.QUEEN, 0 if none
+ * bits 15-18: flags
+ */
+public final class PackedMove {
+  public static final int NONE = 0;
+
+  public static final int CAPTURE = 1 << 15;
+  public static final int CASTLE = 1 << 16;
+  public static final int EN_PASSANT = 1 << 17;
+  public static final int DOUBLE_PUSH = 1 << 18;
+
+  private static final int SQUARE_MASK = 0x3F;
+  private static final int TO_SHIFT = 6;
+  private static final int PROMOTION_SHIFT = 12;
+  private static final int PROMOTION_MASK = 0x7;
+
+  private PackedMove(){
+  }
+
+  /**
+   * pack a move
+   * @param from source square index
+   * @param to destination square index
+   * @param promotion promotion piece type, 0 if none
+   * @param flags CAPTURE, CASTLE, EN_PASSANT and DOUBLE_PUSH or-ed together
+   * @return packed move
+   */
+  public static int encode(int from, int to, int promotion, int flags){
+    return from | (to << TO_SHIFT) | (promotion << PROMOTION_SHIFT) | flags;
+  }
+
+  public static int getFrom(int move){
+    return move & SQUARE_MASK;
+  }
+
+  public static int getTo(int move){
+    return (move >>> TO_SHIFT) & SQUARE_MASK;
+  }
+
+  /**
+   * @param move
+   * @return promotion piece type, 0 if the move does not promote
+   */
+  public static int getPromotion(int move){
+    return (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+  }
+
+  public static boolean isCapture(int move){
+    return (move & CAPTURE) != 0;
+  }
+
+  public static boolean isCastle(int move){
+    return (move & CASTLE) != 0;
+  }
+
+  public static boolean isEnPassant(int move){
+    return (move & EN_PASSANT) != 0;
+  }
+
+  public static boolean isDoublePush(int move){
+    return (move & DOUBLE_PUSH) != 0;
+  }
+
+  /**
+   * convert to a Move, which drops the promotion piece and flags
+   * @param move packed move
+   * @return move
+   */
+  public static Move toMove(int move){
+    return new Move(Square.of(getFrom(move)), Square.of(getTo(move)));
+  }
+
+  /**
+   * pack a Move, reading its flags off the board before the move is made
+   * @param move
+   * @param board board the move is about to be made on
+   * @param promotion promotion piece type, 0 if none
+   * @return packed move
+   */
+  public static int fromMove(Move move, Board board, int promotion){
+    Square from = move.getSquareFrom();
+    Square to = move.getSquareTo();
+    Piece p = board.whatIsAtSquare(from);
+    if(p == null){
+      throw new IllegalArgumentException("no piece at \'" + from.toString() + "\'");
+    }
+
+    int flags = 0;
+    if(board.whatIsAtSquare(to) != null){
+      flags |= CAPTURE;
+    }
+    if(p.getType() == Piece.KING && Math.abs(to.getColumn() - from.getColumn()) == 2){
+      flags |= CASTLE;
+    }
+    if(p.getType() == Piece.PAWN){
+      if(Math.abs(to.getRow() - from.getRow()) == 2){
+        flags |= DOUBLE_PUSH;
+      }
+      else if(from.getColumn() != to.getColumn() && board.whatIsAtSquare(to) == null){
+        flags |= CAPTURE | EN_PASSANT;
+      }
+    }
+    return encode(from.getIndex(), to.getIndex(), promotion, flags);
+  }
+
+  /**
+   * describe in coordinate notation, e.g. "e2e4" or "e7e8q"
+   * @param move packed move
+   * @return description
+   */
+  public static String toString(int move){
+    String descr = Square.of(getFrom(move)).toString() + Square.of(getTo(move)).toString();
+    switch(getPromotion(move)){
+      case Piece.KNIGHT:
+        return descr + "n";
+      case Piece.BISHOP:
+        return descr + "b";
+      case Piece.ROOK:
+        return descr + "r";
+      case Piece.QUEEN:
+        return descr + "q";
+      default:
+        return descr;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.osullivan.chess;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * perft split into fork/join tasks, for deep counts on many cores
+ * the tree is split at the root and again at every ply that still has
+ * more than SEQUENTIAL_DEPTH plies below it, each task plays its move on its own
+ * board copy and counts below it, and the counts are summed as tasks join
+ */
+public class ParallelPerft {
+  // subtrees this shallow are counted on one thread, splitting them costs more than it gains
+  private static final int SEQUENTIAL_DEPTH = 3;
+
+  private final int threads;
+
+  /**
+   * @param threads number of worker threads
+   */
+  public ParallelPerft(int threads){
+    if(threads < 1){
+      throw new IllegalArgumentException("perft needs at least one thread");
+    }
+    this.threads = threads;
+  }
+
+  public int getThreads(){
+    return this.threads;
+  }
+
+  private static class PerftTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final Board board;
+    private final int depth;
+
+    PerftTask(Board board, int depth){
+      this.board = board;
+      this.depth = depth;
+    }
+
+    @Override
+    protected Long compute(){
+      if(this.depth <= SEQUENTIAL_DEPTH){
+        return new Perft(this.board).perft(this.depth);
+      }
+      MoveList moves = new MoveList();
+      new MoveGenerator().generateLegalMoves(this.board, this.board.isWhiteToMove(), moves);
+      List<PerftTask> tasks = new ArrayList<>(moves.size());
+      for(int i = 0; i < moves.size(); i++){
+        Board child = this.board.copy();
+        child.makeMove(moves.get(i));
+        PerftTask task = new PerftTask(child, this.depth - 1);
+        task.fork();
+        tasks.add(task);
+      }
+      long nodes = 0;
+      for(PerftTask task: tasks){
+        nodes += task.join();
+      }
+      return nodes;
+    }
+  }
+
+  /**
+   * count leaf nodes from a position, the board itself is left untouched
+   * @param board
+   * @param depth
+   * @return number of leaf nodes
+   */
+  public long perft(Board board, int depth){
+    if(depth < 0){
+      throw new IllegalArgumentException("perft depth must not be negative");
+    }
+    ForkJoinPool pool = new ForkJoinPool(this.threads);
+    try{
+      return pool.invoke(new PerftTask(board.copy(), depth));
+    }
+    finally{
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * run the same perft with each thread count and print time and speedup over the first
+   * @param position
+   * @param depth
+   * @param threadCounts thread counts to run, the first is the baseline
+   * @param out
+   * @return speedup of each thread count over the first
+   */
+  public static double[] reportScaling(PerftPosition position, int depth, int[] threadCounts, PrintStream out){
+    double[] speedups = new double[threadCounts.length];
+    long baselineNanos = 0;
+    for(int i = 0; i < threadCounts.length; i++){
+      ParallelPerft perft = new ParallelPerft(threadCounts[i]);
+      long start = System.nanoTime();
+      long nodes = perft.perft(position.toBoard(), depth);
+      long nanos = System.nanoTime() - start;
+      if(i == 0){
+        baselineNanos = nanos;
+      }
+      speedups[i] = (double)baselineNanos / Math.max(nanos, 1);
+      out.print(String.format("%s depth %d, %d threads: %d nodes, %.3f s, %d nps, speedup %.2f%n",
+        position.name(), depth, threadCounts[i], nodes, nanos / 1e9,
+        Perft.nodesPerSecond(nodes, nanos), speedups[i]));
+    }
+    return speedups;
+  }
+
+  /**
+   * scaling report from the command line
+   * "[DEPTH [POSITION]]": run with 1, 2, 4, ... threads up to the available cores,
+   * depth 5 from the starting position by default
+   * @param args
+   */
+  public static void main(String[] args){
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    PerftPosition position = args.length > 1 ? PerftPosition.valueOf(args[1]) : PerftPosition.STARTING;
+    int cores = Runtime.getRuntime().availableProcessors();
+    List<Integer> counts = new ArrayList<>();
+    for(int threads = 1; threads < cores; threads *= 2){
+      counts.add(threads);
+    }
+    counts.add(cores);
+    int[] threadCounts = new int[counts.size()];
+    for(int i = 0; i < threadCounts.length; i++){
+      threadCounts[i] = counts.get(i);
+    }
+    reportScaling(position, depth, threadCounts, System.out);
+  }
+}
@@ -8,6 +8,16 @@ public class Pawn extends Piece {
     super(name, isWhite, square);
   }
 
+  @Override
+  protected Piece newInstance() {
+    return new Pawn(this.name, this.isWhite, this.square);
+  }
+
+  @Override
+  public int getType() {
+    return PAWN;
+  }
+
   /**
    * test constructor (allow manual moveCounter setting)
    * DO NOT invoke in other classes
@@ -59,7 +69,7 @@ public class Pawn extends Piece {
       }
     }
     else{
-      if(this.square.getRow() != 7){
+      if(this.square.getRow() != board.getHeight() - 1){
         return false;
       }
     }
@@ -67,12 +77,12 @@ public class Pawn extends Piece {
     int direction = this.isWhite ? 1 : -1;
 
     // false if first square blocked
-    Square firstSquare = new Square(this.square.getRow() + direction * 1, this.square.getColumn());
+    Square firstSquare = Square.of(this.square.getRow() + direction * 1, this.square.getColumn());
     if(board.whatIsAtSquare(firstSquare) != null){
       return false;
     }
     // false if second square occupied
-    Square secondSquare = new Square(this.square.getRow() + direction * 2, this.square.getColumn());
+    Square secondSquare = Square.of(this.square.getRow() + direction * 2, this.square.getColumn());
     if(board.whatIsAtSquare(secondSquare) != null){
       return false;
     }
@@ -88,23 +98,23 @@ public class Pawn extends Piece {
     int currCol = this.square.getColumn();
 
     // can move forward 1 square
-    Square nextMove = new Square(currRow + direction * 1, currCol);
+    Square nextMove = Square.of(currRow + direction * 1, currCol);
     if(board.isSquareOnBoard(nextMove) && board.whatIsAtSquare(nextMove) == null){
       nextMoves.add(nextMove);
     }
 
     // can move forward 2 squares on first move
     if(this.canMoveTwoSquares(board)){
-      nextMove = new Square(currRow + direction * 2, currCol);
+      nextMove = Square.of(currRow + direction * 2, currCol);
       nextMoves.add(nextMove);
     }
 
     // can capture on adjacent forward diagonals
-    nextMove = new Square(currRow + direction * 1, currCol - 1);
+    nextMove = Square.of(currRow + direction * 1, currCol - 1);
     if(this.canCaptureOn(nextMove, board)){
       nextMoves.add(nextMove);
     }
-    nextMove = new Square(currRow + direction * 1, currCol + 1);
+    nextMove = Square.of(currRow + direction * 1, currCol + 1);
     if(this.canCaptureOn(nextMove, board)){
       nextMoves.add(nextMove);
     }
@@ -128,11 +138,11 @@ public class Pawn extends Piece {
     int currRow = this.square.getRow();
     int currCol = this.square.getColumn();
     
-    Square nextMove = new Square(currRow + direction * 1, currCol - 1);
+    Square nextMove = Square.of(currRow + direction * 1, currCol - 1);
     if(this.noSelfPieceAt(nextMove, board)){
       nextMoves.add(nextMove);
     }
-    nextMove = new Square(currRow + direction * 1, currCol + 1);
+    nextMove = Square.of(currRow + direction * 1, currCol + 1);
     if(this.noSelfPieceAt(nextMove, board)){
       nextMoves.add(nextMove);
     }
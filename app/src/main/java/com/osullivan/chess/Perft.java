@@ -0,0 +1,158 @@
+package com.osullivan.chess;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * perft counts the leaf nodes of the legal move tree to a fixed depth,
+ * which checks move generation against published counts and measures its speed
+ * moves are generated by MoveGenerator and played with make/unmake on the board
+ */
+public class Perft {
+  private final Board board;
+  private final MoveGenerator generator;
+  // one move buffer per ply, so recursion does not allocate
+  private MoveList[] moveLists;
+
+  public Perft(Board board){
+    this.board = board;
+    this.generator = new MoveGenerator();
+    this.moveLists = new MoveList[0];
+  }
+
+  private MoveList getMoveList(int ply){
+    if(ply >= this.moveLists.length){
+      MoveList[] lists = new MoveList[ply + 1];
+      System.arraycopy(this.moveLists, 0, lists, 0, this.moveLists.length);
+      for(int i = this.moveLists.length; i < lists.length; i++){
+        lists[i] = new MoveList();
+      }
+      this.moveLists = lists;
+    }
+    return this.moveLists[ply];
+  }
+
+  /**
+   * count leaf nodes from the position on the board, for the side to move
+   * the last ply is bulk counted: the number of legal moves is added without playing them
+   * @param depth
+   * @return number of leaf nodes
+   */
+  public long perft(int depth){
+    if(depth < 0){
+      throw new IllegalArgumentException("perft depth must not be negative");
+    }
+    if(depth == 0){
+      return 1;
+    }
+    return this.count(depth, 0);
+  }
+
+  private long count(int depth, int ply){
+    MoveList moves = this.getMoveList(ply);
+    int size = this.generator.generateLegalMoves(this.board, this.board.isWhiteToMove(), moves);
+    if(depth == 1){
+      return size;
+    }
+    long nodes = 0;
+    for(int i = 0; i < size; i++){
+      this.board.makeMove(moves.get(i));
+      nodes += this.count(depth - 1, ply + 1);
+      this.board.unmakeMove();
+    }
+    return nodes;
+  }
+
+  /**
+   * count leaf nodes below each root move, to find which move a count goes wrong on
+   * @param depth at least 1
+   * @return leaf nodes by root move in coordinate notation, e.g. "e7e8q"
+   */
+  public LinkedHashMap<String, Long> divide(int depth){
+    if(depth < 1){
+      throw new IllegalArgumentException("divide depth must be at least 1");
+    }
+    LinkedHashMap<String, Long> result = new LinkedHashMap<>();
+    MoveList moves = new MoveList();
+    this.generator.generateLegalMoves(this.board, this.board.isWhiteToMove(), moves);
+    for(int i = 0; i < moves.size(); i++){
+      int move = moves.get(i);
+      this.board.makeMove(move);
+      result.put(PackedMove.toString(move), this.perft(depth - 1));
+      this.board.unmakeMove();
+    }
+    return result;
+  }
+
+  /**
+   * @param nodes
+   * @param nanos elapsed time
+   * @return nodes per second
+   */
+  public static long nodesPerSecond(long nodes, long nanos){
+    if(nanos <= 0){
+      return 0;
+    }
+    return (long)(nodes * 1_000_000_000.0 / nanos);
+  }
+
+  /**
+   * run the reference suite to a depth and print counts, mismatches and speed
+   * @param maxDepth deepest depth to run, positions only go as deep as their published counts
+   * @param out
+   * @return true if every count matches
+   */
+  public static boolean runSuite(int maxDepth, PrintStream out){
+    boolean allMatch = true;
+    long totalNodes = 0;
+    long totalNanos = 0;
+    for(PerftPosition position: PerftPosition.values()){
+      int depth = Math.min(maxDepth, position.getMaxDepth());
+      Perft perft = new Perft(position.toBoard());
+      long start = System.nanoTime();
+      long nodes = perft.perft(depth);
+      long nanos = System.nanoTime() - start;
+      long expected = position.getExpectedNodes(depth);
+      boolean match = nodes == expected;
+      allMatch &= match;
+      totalNodes += nodes;
+      totalNanos += nanos;
+      out.print(position.name() + " depth " + depth + ": " + nodes + " nodes"
+        + (match ? "" : " (expected " + expected + ")")
+        + ", " + nodesPerSecond(nodes, nanos) + " nps\n");
+    }
+    out.print("total: " + totalNodes + " nodes, " + nodesPerSecond(totalNodes, totalNanos) + " nps\n");
+    return allMatch;
+  }
+
+  /**
+   * perft from the command line
+   * no arguments: run the reference suite to depth 4
+   * "suite DEPTH": run the reference suite to a depth
+   * "DEPTH [POSITION]": divide a reference position, the starting position by default
+   * @param args
+   */
+  public static void main(String[] args){
+    PrintStream out = System.out;
+    if(args.length == 0 || args[0].equals("suite")){
+      int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+      if(!runSuite(depth, out)){
+        System.exit(1);
+      }
+      return;
+    }
+
+    int depth = Integer.parseInt(args[0]);
+    PerftPosition position = args.length > 1 ? PerftPosition.valueOf(args[1]) : PerftPosition.STARTING;
+    Perft perft = new Perft(position.toBoard());
+    long start = System.nanoTime();
+    long nodes = 0;
+    for(Map.Entry<String, Long> entry: perft.divide(depth).entrySet()){
+      out.print(entry.getKey() + ": " + entry.getValue() + "\n");
+      nodes += entry.getValue();
+    }
+    long nanos = System.nanoTime() - start;
+    out.print("nodes: " + nodes + ", " + nodesPerSecond(nodes, nanos) + " nps\n");
+  }
+}
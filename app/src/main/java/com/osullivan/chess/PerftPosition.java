@@ -0,0 +1,59 @@
+package com.osullivan.chess;
+
+/**
+ * reference positions with published perft node counts
+ * positions are written in Forsyth-Edwards Notation
+ */
+public enum PerftPosition {
+  STARTING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+    20L, 400L, 8902L, 197281L, 4865609L),
+  KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -",
+    48L, 2039L, 97862L, 4085603L),
+  POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -",
+    14L, 191L, 2812L, 43238L, 674624L),
+  POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq -",
+    6L, 264L, 9467L, 422333L),
+  POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ -",
+    44L, 1486L, 62379L, 2103487L),
+  POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - -",
+    46L, 2079L, 89890L, 3894594L);
+
+  private final String fen;
+  // indexed by depth - 1
+  private final long[] expectedNodes;
+
+  PerftPosition(String fen, long... expectedNodes){
+    this.fen = fen;
+    this.expectedNodes = expectedNodes;
+  }
+
+  public String getFen(){
+    return this.fen;
+  }
+
+  /**
+   * @return deepest depth with a published count
+   */
+  public int getMaxDepth(){
+    return this.expectedNodes.length;
+  }
+
+  /**
+   * @param depth from 1 to getMaxDepth()
+   * @return published number of leaf nodes
+   */
+  public long getExpectedNodes(int depth){
+    if(depth < 1 || depth > this.expectedNodes.length){
+      throw new IllegalArgumentException("no reference count for depth " + depth);
+    }
+    return this.expectedNodes[depth - 1];
+  }
+
+  /**
+   * set the position up on a new board
+   * @return board with the side to move, castling rights and en passant square of the position
+   */
+  public Board toBoard(){
+    return Fen.toBoard(this.fen);
+  }
+}
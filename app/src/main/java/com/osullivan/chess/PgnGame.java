@@ -0,0 +1,107 @@
+package com.osullivan.chess;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * one game read by PgnReader: its tags, the moves as played and the final position
+ * a game object is reused for every game of an archive, reading the next game overwrites it
+ */
+public class PgnGame {
+  private final Map<String, String> tags;
+  private final Map<String, String> tagView;
+  private final MoveList moves;
+  private final Board board;
+  private String result;
+  private String error;
+
+  public PgnGame(){
+    this.tags = new LinkedHashMap<>();
+    this.tagView = Collections.unmodifiableMap(this.tags);
+    this.moves = new MoveList();
+    this.board = new ChessBoard(8, 8);
+    this.result = null;
+    this.error = null;
+  }
+
+  /**
+   * forget the previous game
+   */
+  void reset(){
+    this.tags.clear();
+    this.moves.clear();
+    this.result = null;
+    this.error = null;
+  }
+
+  void putTag(String name, String value){
+    this.tags.put(name, value);
+  }
+
+  void setResult(String result){
+    this.result = result;
+  }
+
+  void setError(String error){
+    this.error = error;
+  }
+
+  /**
+   * set the starting position up, from the FEN tag if the game has one
+   */
+  void setUpBoard(){
+    String fen = this.tags.get("FEN");
+    try{
+      Fen.load(fen == null ? Fen.STARTING_POSITION : fen, this.board);
+    }
+    catch(IllegalArgumentException e){
+      Fen.load(Fen.STARTING_POSITION, this.board);
+      this.error = e.getMessage();
+    }
+  }
+
+  /**
+   * @return tags in the order they were read, e.g. "White" or "Result"
+   */
+  public Map<String, String> getTags(){
+    return this.tagView;
+  }
+
+  /**
+   * @param name
+   * @return value of the tag, null if the game does not have it
+   */
+  public String getTag(String name){
+    return this.tags.get(name);
+  }
+
+  /**
+   * @return packed moves played, up to the first illegal one
+   */
+  public MoveList getMoves(){
+    return this.moves;
+  }
+
+  /**
+   * @return board with the position after the last move played,
+   * whose moves can be taken back with unmakeMove
+   */
+  public Board getBoard(){
+    return this.board;
+  }
+
+  /**
+   * @return "1-0", "0-1", "1/2-1/2" or "*", null if the movetext has no result
+   */
+  public String getResult(){
+    return this.result;
+  }
+
+  /**
+   * @return why the game could not be replayed, null if every move was legal
+   */
+  public String getError(){
+    return this.error;
+  }
+}
@@ -0,0 +1,194 @@
+package com.osullivan.chess;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * byte offsets of the games in a PGN file, so any game can be read without reading the ones before it
+ * the file is scanned once through memory-mapped windows, and a game starts at a tag line
+ * that follows the movetext of the previous game, or at the first tag line of the file
+ * games without tags are not indexed
+ * the index is saved as one 8-byte big-endian offset per game
+ */
+public class PgnIndex {
+  // bytes mapped at once, a mapping cannot be larger than 2 GB
+  private static final long WINDOW_SIZE = 1L << 28;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final Path pgn;
+  private final long[] offsets;
+
+  private PgnIndex(Path pgn, long[] offsets){
+    this.pgn = pgn;
+    this.offsets = offsets;
+  }
+
+  /**
+   * scan a PGN file for the offsets of its games
+   * @param pgn path of the PGN file
+   * @return index of the file
+   * @throws IOException
+   */
+  public static PgnIndex build(Path pgn) throws IOException{
+    long[] offsets = new long[INITIAL_CAPACITY];
+    int size = 0;
+    try(FileChannel channel = FileChannel.open(pgn, StandardOpenOption.READ)){
+      long length = channel.size();
+      boolean isLineStart = true;
+      boolean inTags = false;
+      boolean inComment = false;
+      boolean inLineComment = false;
+      for(long windowStart = 0; windowStart < length; windowStart += WINDOW_SIZE){
+        int windowSize = (int)Math.min(WINDOW_SIZE, length - windowStart);
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+        for(int i = 0; i < windowSize; i++){
+          byte c = window.get(i);
+          if(c == '\n'){
+            isLineStart = true;
+            inLineComment = false;
+            continue;
+          }
+          if(inComment){
+            inComment = c != '}';
+          }
+          else if(inLineComment){
+            // skipped to the end of the line
+          }
+          else if(c == '{'){
+            inComment = true;
+          }
+          else if(c == ';'){
+            inLineComment = true;
+          }
+          else if(isLineStart && c == '['){
+            if(!inTags){
+              if(size == offsets.length){
+                offsets = Arrays.copyOf(offsets, size * 2);
+              }
+              offsets[size++] = windowStart + i;
+              inTags = true;
+            }
+            // the rest of a tag line cannot start a game
+            inLineComment = true;
+          }
+          else if(c != ' ' && c != '\t' && c != '\r'){
+            inTags = false;
+          }
+          isLineStart = false;
+        }
+      }
+    }
+    return new PgnIndex(pgn, Arrays.copyOf(offsets, size));
+  }
+
+  /**
+   * load an index saved with save
+   * @param pgn path of the PGN file the index was built from
+   * @param index path of the index file
+   * @return index of the file
+   * @throws IOException
+   */
+  public static PgnIndex load(Path pgn, Path index) throws IOException{
+    try(FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)){
+      long length = channel.size();
+      if(length % Long.BYTES != 0 || length / Long.BYTES > Integer.MAX_VALUE){
+        throw new IllegalArgumentException("invalid index file \'" + index.toString() + "\'");
+      }
+      long[] offsets = new long[(int)(length / Long.BYTES)];
+      if(offsets.length > 0){
+        LongBuffer longs = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).asLongBuffer();
+        longs.get(offsets);
+      }
+      return new PgnIndex(pgn, offsets);
+    }
+  }
+
+  /**
+   * save the offsets to an index file, replacing it if it exists
+   * @param index path of the index file
+   * @throws IOException
+   */
+  public void save(Path index) throws IOException{
+    try(FileChannel channel = FileChannel.open(index, StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+      ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * INITIAL_CAPACITY);
+      for(int i = 0; i < this.offsets.length; i++){
+        buffer.putLong(this.offsets[i]);
+        if(!buffer.hasRemaining() || i == this.offsets.length - 1){
+          buffer.flip();
+          while(buffer.hasRemaining()){
+            channel.write(buffer);
+          }
+          buffer.clear();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return number of games indexed
+   */
+  public int size(){
+    return this.offsets.length;
+  }
+
+  /**
+   * @param game number of the game, starting at 0
+   * @return byte offset of the first tag of the game
+   */
+  public long getOffset(int game){
+    if(game < 0 || game >= this.offsets.length){
+      throw new IllegalArgumentException("no game " + Integer.toString(game) + " in the index");
+    }
+    return this.offsets[game];
+  }
+
+  /**
+   * jump to a game and replay it onto the game's board
+   * @param game number of the game, starting at 0
+   * @param into game to read into, its previous contents are overwritten
+   * @throws IOException
+   */
+  public void readGame(int game, PgnGame into) throws IOException{
+    long offset = this.getOffset(game);
+    try(FileChannel channel = FileChannel.open(this.pgn, StandardOpenOption.READ);
+      PgnReader reader = new PgnReader(channel, 8192)){
+      // the reader reads nothing before its first game, so the channel can be moved under it
+      channel.position(offset);
+      reader.readGame(into);
+    }
+  }
+
+  /**
+   * index a PGN file, or read one game of it, from the command line
+   * "PGN INDEX": build the index of a PGN file and save it
+   * "PGN INDEX N": print the final position of game N, starting at 0
+   * @param args
+   * @throws IOException
+   */
+  public static void main(String[] args) throws IOException{
+    PrintStream out = System.out;
+    Path pgn = Paths.get(args[0]);
+    Path index = Paths.get(args[1]);
+    if(args.length == 2){
+      PgnIndex built = build(pgn);
+      built.save(index);
+      out.print(built.size() + " games indexed\n");
+      return;
+    }
+    PgnGame game = new PgnGame();
+    load(pgn, index).readGame(Integer.parseInt(args[2]), game);
+    out.print(game.getTags() + "\n" + Fen.toFen(game.getBoard()) + "\n");
+    if(game.getError() != null){
+      out.print(game.getError() + "\n");
+    }
+  }
+}
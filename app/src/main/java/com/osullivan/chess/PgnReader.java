@@ -0,0 +1,337 @@
+package com.osullivan.chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * reads games in Portable Game Notation from a channel, one game at a time,
+ * replaying every move on the game's board so illegal moves are caught
+ * the channel is read through a fixed buffer and games are read into a reused PgnGame,
+ * so memory use does not grow with the size of the archive
+ * comments, variations, numeric annotations and move numbers are skipped
+ */
+public class PgnReader implements Closeable {
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+  // longer tag names, tag values and tokens are cut off
+  private static final int MAX_TEXT_LENGTH = 1024;
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer;
+  private boolean isEndOfStream;
+  private int lastByte;
+
+  private final SanResolver resolver;
+  private final StringBuilder token;
+  private final byte[] text;
+  private int gameCount;
+
+  public PgnReader(ReadableByteChannel channel){
+    this(channel, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param channel channel to read from, read up to its end
+   * @param bufferSize number of bytes read from the channel at once
+   */
+  public PgnReader(ReadableByteChannel channel, int bufferSize){
+    if(bufferSize < 1){
+      throw new IllegalArgumentException("buffer size must be positive");
+    }
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    this.buffer.flip();
+    this.isEndOfStream = false;
+    this.lastByte = '\n';
+    this.resolver = new SanResolver();
+    this.token = new StringBuilder(MAX_TEXT_LENGTH);
+    this.text = new byte[MAX_TEXT_LENGTH];
+    this.gameCount = 0;
+  }
+
+  /**
+   * @return number of games read so far
+   */
+  public int getGameCount(){
+    return this.gameCount;
+  }
+
+  private boolean fill() throws IOException{
+    if(this.isEndOfStream){
+      return false;
+    }
+    this.buffer.clear();
+    int n;
+    do{
+      n = this.channel.read(this.buffer);
+    } while(n == 0);
+    this.buffer.flip();
+    if(n < 0){
+      this.isEndOfStream = true;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @return next byte without consuming it, -1 at the end of the channel
+   */
+  private int peek() throws IOException{
+    if(!this.buffer.hasRemaining() && !this.fill()){
+      return -1;
+    }
+    return this.buffer.get(this.buffer.position()) & 0xff;
+  }
+
+  /**
+   * @return next byte, -1 at the end of the channel
+   */
+  private int read() throws IOException{
+    int c = this.peek();
+    if(c >= 0){
+      this.buffer.position(this.buffer.position() + 1);
+      this.lastByte = c;
+    }
+    return c;
+  }
+
+  private static boolean isSpace(int c){
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+  }
+
+  private static boolean isTokenChar(int c){
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+      || c == '-' || c == '+' || c == '#' || c == '=' || c == '/' || c == ':' || c == '_'
+      || c == '!' || c == '?';
+  }
+
+  private void skipUntil(int end) throws IOException{
+    int c;
+    do{
+      c = this.read();
+    } while(c >= 0 && c != end);
+  }
+
+  private void skipVariation() throws IOException{
+    int depth = 1;
+    while(depth > 0){
+      int c = this.read();
+      if(c < 0){
+        return;
+      }
+      if(c == '('){
+        depth++;
+      }
+      else if(c == ')'){
+        depth--;
+      }
+      else if(c == '{'){
+        // a comment may contain parentheses
+        this.skipUntil('}');
+      }
+    }
+  }
+
+  private void readToken() throws IOException{
+    this.token.setLength(0);
+    while(isTokenChar(this.peek())){
+      int c = this.read();
+      if(this.token.length() < MAX_TEXT_LENGTH){
+        this.token.append((char)c);
+      }
+    }
+  }
+
+  /**
+   * read a tag pair after its opening bracket, e.g. Event "Casual Game"]
+   */
+  private void readTag(PgnGame game) throws IOException{
+    while(this.peek() == ' ' || this.peek() == '\t'){
+      this.read();
+    }
+    this.readToken();
+    String name = this.token.toString();
+    while(this.peek() == ' ' || this.peek() == '\t'){
+      this.read();
+    }
+    int length = 0;
+    if(this.peek() == '"'){
+      this.read();
+      for(int c = this.read(); c >= 0 && c != '"'; c = this.read()){
+        if(c == '\\'){
+          c = this.read();
+        }
+        if(c >= 0 && length < MAX_TEXT_LENGTH){
+          this.text[length++] = (byte)c;
+        }
+      }
+    }
+    for(int c = this.peek(); c >= 0 && c != ']' && c != '\n'; c = this.peek()){
+      this.read();
+    }
+    if(this.peek() == ']'){
+      this.read();
+    }
+    if(!name.isEmpty()){
+      game.putTag(name, new String(this.text, 0, length, StandardCharsets.UTF_8));
+    }
+  }
+
+  private boolean isResult(){
+    StringBuilder t = this.token;
+    int length = t.length();
+    if(length == 3){
+      return (t.charAt(0) == '1' && t.charAt(1) == '-' && t.charAt(2) == '0')
+        || (t.charAt(0) == '0' && t.charAt(1) == '-' && t.charAt(2) == '1');
+    }
+    return length == 7 && t.indexOf("1/2-1/2") == 0;
+  }
+
+  private boolean isMoveNumber(){
+    for(int i = 0; i < this.token.length(); i++){
+      char c = this.token.charAt(i);
+      if(c < '0' || c > '9'){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void playMove(PgnGame game){
+    if(game.getError() != null){
+      // the position is lost after an illegal move, the rest of the game is only skipped
+      return;
+    }
+    Board board = game.getBoard();
+    try{
+      int move = this.resolver.resolve(board, this.token);
+      board.makeMove(move);
+      game.getMoves().add(move);
+    }
+    catch(IllegalArgumentException e){
+      game.setError("ply " + Integer.toString(game.getMoves().size() + 1) + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * read the next game and replay its moves
+   * a game ends with its result, or where the tags of the next game begin
+   * @param game game to read into, its previous contents are overwritten
+   * @return false if the channel has no more games
+   * @throws IOException
+   */
+  public boolean readGame(PgnGame game) throws IOException{
+    game.reset();
+    boolean hasTags = false;
+    boolean inMovetext = false;
+    while(true){
+      int c = this.peek();
+      if(c < 0){
+        break;
+      }
+      if(isSpace(c)){
+        this.read();
+        continue;
+      }
+      if(c == '%' && this.lastByte == '\n'){
+        // escaped line
+        this.skipUntil('\n');
+        continue;
+      }
+      if(c == '['){
+        if(inMovetext){
+          break;
+        }
+        this.read();
+        this.readTag(game);
+        hasTags = true;
+        continue;
+      }
+      if(!inMovetext){
+        game.setUpBoard();
+        inMovetext = true;
+      }
+
+      if(c == '{'){
+        this.skipUntil('}');
+      }
+      else if(c == ';'){
+        this.skipUntil('\n');
+      }
+      else if(c == '('){
+        this.read();
+        this.skipVariation();
+      }
+      else if(c == '*'){
+        this.read();
+        game.setResult("*");
+        break;
+      }
+      else if(c == '$'){
+        this.read();
+        while(this.peek() >= '0' && this.peek() <= '9'){
+          this.read();
+        }
+      }
+      else if(isTokenChar(c)){
+        this.readToken();
+        if(this.isResult()){
+          game.setResult(this.token.toString());
+          break;
+        }
+        if(!this.isMoveNumber()){
+          this.playMove(game);
+        }
+      }
+      else{
+        // dots after move numbers and stray characters
+        this.read();
+      }
+    }
+
+    if(!hasTags && !inMovetext){
+      return false;
+    }
+    if(!inMovetext){
+      game.setUpBoard();
+    }
+    this.gameCount++;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException{
+    this.channel.close();
+  }
+
+  /**
+   * check every game of PGN files from the command line and print the ones with illegal moves
+   * @param args paths of PGN files
+   * @throws IOException
+   */
+  public static void main(String[] args) throws IOException{
+    PrintStream out = System.out;
+    int errors = 0;
+    for(String path: args){
+      try(PgnReader reader = new PgnReader(FileChannel.open(Paths.get(path), StandardOpenOption.READ))){
+        PgnGame game = new PgnGame();
+        while(reader.readGame(game)){
+          if(game.getError() != null){
+            errors++;
+            out.print(path + ", game " + reader.getGameCount() + ": " + game.getError() + "\n");
+          }
+        }
+        out.print(path + ": " + reader.getGameCount() + " games\n");
+      }
+    }
+    if(errors > 0){
+      System.exit(1);
+    }
+  }
+}
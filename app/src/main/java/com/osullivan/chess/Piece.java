@@ -3,6 +3,13 @@ package com.osullivan.chess;
 import java.util.HashSet;
 
 public abstract class Piece {
+  public static final int PAWN = 0;
+  public static final int KNIGHT = 1;
+  public static final int BISHOP = 2;
+  public static final int ROOK = 3;
+  public static final int QUEEN = 4;
+  public static final int KING = 5;
+
   protected final String name;
   protected final boolean isWhite;
   protected Square square;
@@ -14,6 +21,21 @@ public abstract class Piece {
     this.square = square;
   }
 
+  /**
+   * copy the piece with its square and move counter, to put on another board
+   * @return new piece
+   */
+  public Piece copy(){
+    Piece p = this.newInstance();
+    p.moveCounter = this.moveCounter;
+    return p;
+  }
+
+  /**
+   * @return new piece of the same kind, name, team and square
+   */
+  protected abstract Piece newInstance();
+
   public String getName(){
     return this.name;
   }
@@ -22,6 +44,12 @@ public abstract class Piece {
     return this.isWhite;
   }
 
+  /**
+   * get the type of the piece, one of PAWN, KNIGHT, BISHOP, ROOK, QUEEN and KING
+   * @return type index
+   */
+  public abstract int getType();
+
   public Square getSquare() {
     return this.square;
   }
@@ -38,6 +66,10 @@ public abstract class Piece {
     this.moveCounter++;
   }
 
+  public void decrementMoveCounter() {
+    this.moveCounter--;
+  }
+
   /**
    * check if this piece is protected by other team pieces
    * @param board
@@ -51,207 +83,36 @@ public abstract class Piece {
   }
 
   /**
-   * 
-   * @param square square try to be added to valid moves (won't be added if occupied by own piece)
-   * @param nextMoves set of valid moves
-   * @param board board
-   * @return true if current square is blocking
-   */
-  private boolean blockedAfterTryAddingSquare(Square square, HashSet<Square> nextMoves, Board board){
-    Piece pieceAtCurrSquare = board.whatIsAtSquare(square);       
-    if(pieceAtCurrSquare != null){
-      if(pieceAtCurrSquare.isWhite != this.isWhite){
-        nextMoves.add(square);
-      }
-      return true;
-    }
-    nextMoves.add(square);
-    return false;
-  }
-
-  /**
-   * check where the piece can move up in a straight line
-   * used for Rook and Queen
-   * @param board
-   * @return
-   */
-  protected HashSet<Square> canMoveUpTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currRow + 1;
-    while(i <= board.getHeight()){
-      Square currSquare = new Square(i, currCol);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i++;
-    }
-    return nextMoves;
-  }
-
-  /**
-   * check where the piece can move down in a straight line
-   * used for Rook and Queen
-   * @param board
-   * @return
-   */
-  protected HashSet<Square> canMoveDownTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currRow - 1;
-    while(i >= 1){
-      Square currSquare = new Square(i, currCol);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i--;
-    }
-    return nextMoves;
-  }
-
-  /**
-   * check where the piece can move left in a straight line
-   * used for Rook and Queen
+   * get squares the piece attacks from its square as a bitboard,
+   * including squares taken by its own team, see Attacks
    * @param board
-   * @return
-   */
-  protected HashSet<Square> canMoveLeftTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currCol - 1;
-    while(i >= 1){
-      Square currSquare = new Square(currRow, i);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i--;
-    }
-    return nextMoves;
-  }
-
-  /**
-   * check where the piece can move right in a straight line
-   * used for Rook and Queen
-   * @param board
-   * @return
-   */
-  protected HashSet<Square> canMoveRightTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currCol + 1;
-    while(i <= board.getWidth()){
-      Square currSquare = new Square(currRow, i);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i++;
-    }
-    return nextMoves;
-  }
-
-  /**
-   * check where the piece can move along the up left diagonal
-   * used for Bishop and Queen
-   * @param board
-   * @return
+   * @return attacked squares on board
    */
-  protected HashSet<Square> canMoveUpLeftDiagonalTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currRow + 1;
-    int j = currCol - 1;
-    while(i <= board.getHeight() && j >= 1){
-      Square currSquare = new Square(i, j);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i++;
-      j--;
-    }
-    return nextMoves;
+  public long getAttacks(Board board){
+    return Attacks.attacks(this.getType(), this.isWhite, this.square.getIndex(), board.getOccupancy()) & board.getBoardMask();
   }
 
   /**
-   * check where the piece can move along the up right diagonal
-   * used for Bishop and Queen
+   * get attacked squares that are empty or taken by the enemy
    * @param board
-   * @return
+   * @return bitboard of squares the piece can move to or capture at
    */
-  protected HashSet<Square> canMoveUpRightDiagonalTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currRow + 1;
-    int j = currCol + 1;
-    while(i <= board.getHeight() && j <= board.getWidth()){
-      Square currSquare = new Square(i, j);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i++;
-      j++;
-    }
-    return nextMoves;
+  protected long getAttacksExcludingOwnTeam(Board board){
+    return this.getAttacks(board) & ~board.getTeamOccupancy(this.isWhite);
   }
 
   /**
-   * check where the piece can move along the down left diagonal
-   * used for Bishop and Queen
-   * @param board
-   * @return
+   * convert a bitboard to a set of squares
+   * @param bitboard
+   * @return squares of the set bits
    */
-  protected HashSet<Square> canMoveDownLeftDiagonalTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currRow - 1;
-    int j = currCol - 1;
-    while(i >= 1 && j >= 1){
-      Square currSquare = new Square(i, j);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i--;
-      j--;
-    }
-    return nextMoves;
-  }
-
-
-  /**
-   * check where the piece can move along the down right diagonal
-   * used for Bishop and Queen
-   * @param board
-   * @return
-   */
-  protected HashSet<Square> canMoveDownRightDiagonalTo(Board board){
-    HashSet<Square> nextMoves = new HashSet<>();
-    int currRow = this.square.getRow();
-    int currCol = this.square.getColumn();
-
-    int i = currRow - 1;
-    int j = currCol + 1;
-    while(i >= 1 && j <= board.getWidth()){
-      Square currSquare = new Square(i, j);
-      if(this.blockedAfterTryAddingSquare(currSquare, nextMoves, board)){
-        break;
-      }
-      i--;
-      j++;
+  protected static HashSet<Square> toSquares(long bitboard){
+    HashSet<Square> squares = new HashSet<>();
+    while(bitboard != 0){
+      squares.add(Square.of(Long.numberOfTrailingZeros(bitboard)));
+      bitboard &= bitboard - 1;
     }
-    return nextMoves;
+    return squares;
   }
 
   /**
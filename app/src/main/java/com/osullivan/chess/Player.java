@@ -1,15 +1,19 @@
 package com.osullivan.chess;
 
 import java.io.IOException;
-import java.util.List;
 
 public abstract class Player {
   protected final boolean isWhite;
   protected Board board;
+  // reused for every position this player checks moves in
+  private final MoveGenerator moveGenerator;
+  private final MoveList legalMoves;
 
   public Player(boolean isWhite, Board board) {
     this.isWhite = isWhite;
     this.board = board;
+    this.moveGenerator = new MoveGenerator();
+    this.legalMoves = new MoveList();
   }
 
   public boolean isWhitePlayer(){
@@ -31,164 +35,172 @@ public abstract class Player {
     return null;
   }
 
-  private void movePieceTo(Piece p, Square newSquare){
-    Piece enemyPiece = this.board.whatIsAtSquare(newSquare);
-    if(enemyPiece != null){
-      if(!this.board.tryRemovePiece(enemyPiece)){
-        throw new IllegalAccessError("failed to remove piece from board");
-      }
-    }
-    p.setSquare(newSquare);
-    p.incrementMoveCounter();
-  }
-
-  private void revertPiecesAfterDetectingChecks(Move move, Piece selfPiece, Piece enemyPiece){
-    selfPiece.setSquare(move.getSquareFrom());
-    if(enemyPiece != null){
-      if(!this.board.tryAddPiece(enemyPiece)){
-        throw new IllegalAccessError("failed to add piece to board");
-      }
-    }
+  /**
+   * generate every legal move of this player in the current position
+   * @return packed moves, valid until the next call
+   */
+  protected MoveList getLegalMoves(){
+    this.moveGenerator.generateLegalMoves(this.board, this.isWhite, this.legalMoves);
+    return this.legalMoves;
   }
 
-  private String moveWillLeadToSelfChecks(Move move){
-    Piece selfPiece = this.board.whatIsAtSquare(move.getSquareFrom());
-    Piece enemyPiece = this.board.whatIsAtSquare(move.getSquareTo());
-    if(enemyPiece != null){
-      if(!this.board.tryRemovePiece(enemyPiece)){
-        throw new IllegalAccessError("failed to remove piece from board");
+  /**
+   * find the legal move going between the squares of a move
+   * @param move
+   * @return packed move, the first promotion choice for promotions,
+   * PackedMove.NONE if the move is not legal
+   */
+  protected int findLegalMove(Move move){
+    int from = move.getSquareFrom().getIndex();
+    int to = move.getSquareTo().getIndex();
+    MoveList moves = this.getLegalMoves();
+    for(int i = 0; i < moves.size(); i++){
+      int m = moves.get(i);
+      if(PackedMove.getFrom(m) == from && PackedMove.getTo(m) == to){
+        return m;
       }
     }
-    selfPiece.setSquare(move.getSquareTo());
-    if(this.isUnderCheck()){
-      this.revertPiecesAfterDetectingChecks(move, selfPiece, enemyPiece);
-      return "move will leave King in check";
-    }
-    this.revertPiecesAfterDetectingChecks(move, selfPiece, enemyPiece);
-    return null;
+    return PackedMove.NONE;
   }
 
   /**
-   * make normal moves
-   * excluding castling, en passant and promotion
+   * make any legal move, including castling, en passant and promotion,
+   * checking it against the generated legal moves
    * @param move
-   * @return
+   * @return error message
    * @throws IOException
-   */   
-  public String tryMakeNormalMove(Move move) throws IOException{
+   */
+  public String tryMakeMove(Move move) throws IOException{
     String errMsg = this.areMoveSquaresValid(move);
     if(errMsg != null){
       return errMsg;
     }
 
-    Piece p = this.board.whatIsAtSquare(move.getSquareFrom());
-    if(!p.canMoveTo(board).contains(move.getSquareTo())){
-      return "cannot move to or capture at new square";
-    }
-
-    errMsg = this.moveWillLeadToSelfChecks(move);
-    if(errMsg != null){
-      return errMsg;
+    int legalMove = this.findLegalMove(move);
+    if(legalMove == PackedMove.NONE){
+      return this.whyIllegal(move);
     }
+    return this.makeLegalMove(move, legalMove);
+  }
 
-    this.movePieceTo(p, move.getSquareTo());
-    if(this.canPromote(p)){
-      Piece promotedPiece = this.getPromotedPiece();
-      promotedPiece.setSquare(p.getSquare());
-      if(!this.board.tryRemovePiece(p)){
-        throw new IllegalAccessError("failed to remove piece from board");
-      }
-      if(!this.board.tryAddPiece(promotedPiece)){
-        throw new IllegalAccessError("failed to add piece to board");
-      }
+  /**
+   * @param move
+   * @param legalMove generated legal move going between the squares of the move
+   * @return error message
+   * @throws IOException
+   */
+  private String makeLegalMove(Move move, int legalMove) throws IOException{
+    Piece promotedPiece = null;
+    if(PackedMove.getPromotion(legalMove) != 0){
+      promotedPiece = this.getPromotedPiece();
     }
+    this.board.makeMove(move, promotedPiece);
     return null;
   }
 
-  private boolean enemyCanAttack(Square square){
-    for(Piece p: board.getTeamPieces(!this.isWhite)){
-      if(p.canCover(board).contains(square)){
-        return true;
-      }
+  /**
+   * explain why a move of own piece is not among the legal moves
+   * the legal moves alone decide what may be played, this only picks the message
+   * @param move
+   * @return error message
+   */
+  private String whyIllegal(Move move){
+    Piece p = this.board.whatIsAtSquare(move.getSquareFrom());
+    Square from = move.getSquareFrom();
+    Square to = move.getSquareTo();
+    if(p.getType() == Piece.KING && from.getRow() == to.getRow() && Math.abs(to.getColumn() - from.getColumn()) == 2){
+      Square rookFrom = Square.of(from.getRow(), to.getColumn() > from.getColumn() ? 8 : 1);
+      return this.whyCannotCastle(from, rookFrom);
     }
-    return false;
+    if(p.getType() == Piece.PAWN && from.getRow() == this.getEnPassantRowFrom()
+      && from.getColumn() != to.getColumn() && this.board.whatIsAtSquare(to) == null){
+      return this.whyCannotEnPassant(move);
+    }
+    return this.whyCannotMove(move);
   }
 
-  private String castlingPiecesAreInPlace(Square rookSquare, Square kingSquare){
-    String errMsg = "pieces not at castling position";
-
-    Piece rook = this.board.whatIsAtSquare(rookSquare);
-    Piece king = this.board.whatIsAtSquare(kingSquare);
-    if(rook == null || king == null){
-      // cannot castle if no pieces at castling position
-      return errMsg;
-    }
-    if(rook.isWhitePiece() != this.isWhite || king.isWhitePiece() != this.isWhite){
-      // cannot castle if pieces have wrong color
-      return errMsg;
+  /**
+   * @param move move of own piece, other than castling and en passant
+   * @return error message
+   */
+  private String whyCannotMove(Move move){
+    Piece p = this.board.whatIsAtSquare(move.getSquareFrom());
+    if(!p.canMoveTo(this.board).contains(move.getSquareTo())){
+      return "cannot move to or capture at new square";
     }
-    if(!(rook instanceof Rook) || !(king instanceof King)){
-      // cannot castle if wrong pieces at castling position
+    return "move will leave King in check";
+  }
+
+  /**
+   * make normal moves
+   * excluding castling and en passant
+   * @param move
+   * @return error message
+   * @throws IOException
+   */
+  public String tryMakeNormalMove(Move move) throws IOException{
+    String errMsg = this.areMoveSquaresValid(move);
+    if(errMsg != null){
       return errMsg;
     }
-    if(rook.getMoveCounter() > 0 || king.getMoveCounter() > 0){
-      return "castling pieces moved";
+
+    int legalMove = this.findLegalMove(move);
+    if(legalMove == PackedMove.NONE || PackedMove.isCastle(legalMove) || PackedMove.isEnPassant(legalMove)){
+      return this.whyCannotMove(move);
     }
-    return null;
+    return this.makeLegalMove(move, legalMove);
   }
 
-  private String castlingPathIsBlocked(Square rookSquare, Square kingSquare){
-    int startColFromKingToRook = Math.min(rookSquare.getColumn(), kingSquare.getColumn()) + 1;
-    int stopColFromKingToRook = Math.max(rookSquare.getColumn(), kingSquare.getColumn()) - 1;
-    for(int i = startColFromKingToRook; i <= stopColFromKingToRook; i++){
-      Square squareInBetween = new Square(rookSquare.getRow(), i);
-      if(this.board.whatIsAtSquare(squareInBetween) != null){
-        return "castling path blocked";
-      }
-    }
-    return null;
+  private boolean enemyCanAttack(Square square){
+    return square.canBeCoveredBy(!this.isWhite, this.board);
   }
 
-  private String isUnderCheckWhenCastling(Square kingFrom, Square kingTo){
-    int startCol = Math.min(kingFrom.getColumn(), kingTo.getColumn());
-    int stopCol = Math.max(kingFrom.getColumn(), kingTo.getColumn());
-    for(int i = startCol; i <= stopCol; i++){
-      Square squareInBetween = new Square(kingFrom.getRow(), i);
-      if(this.enemyCanAttack(squareInBetween)){
-        return "cannot castling through checks";
-      }
+  /**
+   * castle if the King moving between the squares is a legal castling move
+   * @param kingFrom
+   * @param kingTo
+   * @param rookFrom
+   * @return error message
+   */
+  private String tryCastle(Square kingFrom, Square kingTo, Square rookFrom){
+    Move move = new Move(kingFrom, kingTo);
+    if(!PackedMove.isCastle(this.findLegalMove(move))){
+      return this.whyCannotCastle(kingFrom, rookFrom);
     }
+    // the board moves the Rook along with the King
+    this.board.makeMove(move, null);
     return null;
   }
 
-  private String tryCastle(Square kingFrom, Square KingTo, Square rookFrom, Square rookTo){
-    // cannot castle if pieces are not in place
-    String errMsg = this.castlingPiecesAreInPlace(rookFrom, kingFrom);
-    if(errMsg != null){
-      return errMsg;
+  /**
+   * @param kingFrom
+   * @param rookFrom
+   * @return error message for castling that is not among the legal moves
+   */
+  private String whyCannotCastle(Square kingFrom, Square rookFrom){
+    if(!this.board.isSquareOnBoard(kingFrom) || !this.board.isSquareOnBoard(rookFrom)){
+      return "pieces not at castling position";
+    }
+    Piece king = this.board.whatIsAtSquare(kingFrom);
+    Piece rook = this.board.whatIsAtSquare(rookFrom);
+    if(king == null || rook == null || king.isWhitePiece() != this.isWhite || rook.isWhitePiece() != this.isWhite
+      || king.getType() != Piece.KING || rook.getType() != Piece.ROOK){
+      return "pieces not at castling position";
     }
 
-    // cannot castle if there are pieces between king and rook
-    errMsg = this.castlingPathIsBlocked(rookFrom, kingFrom);
-    if(errMsg != null){
-      return errMsg;
+    // the board keeps the right to castle only while neither piece has moved
+    boolean isKingSide = rookFrom.getColumn() > kingFrom.getColumn();
+    int right = this.isWhite
+      ? (isKingSide ? Board.WHITE_KING_SIDE : Board.WHITE_QUEEN_SIDE)
+      : (isKingSide ? Board.BLACK_KING_SIDE : Board.BLACK_QUEEN_SIDE);
+    if((this.board.getCastlingRights() & right) == 0){
+      return "castling pieces moved";
     }
-        
-    // king cannot be in check throughtout castling
-    errMsg = this.isUnderCheckWhenCastling(kingFrom, KingTo);
-    if(errMsg != null){
-      return errMsg;
+    if((Attacks.between(kingFrom.getIndex(), rookFrom.getIndex()) & this.board.getOccupancy()) != 0){
+      return "castling path blocked";
     }
-
-    // if can castle, move pieces
-    Piece rook = this.board.whatIsAtSquare(rookFrom);
-    Piece king = this.board.whatIsAtSquare(kingFrom);
-    rook.setSquare(rookTo);
-    king.setSquare(KingTo);
-    rook.incrementMoveCounter();
-    king.incrementMoveCounter();
-
-    return null;
+    // all that is left is a check on the King's way
+    return "cannot castling through checks";
   }
 
   /**
@@ -196,11 +208,8 @@ public abstract class Player {
    * @return error message
    */
   public String tryQueenSideCastle(){
-    Square rookFrom = new Square(this.isWhite ? "a1" : "a8");
-    Square kingFrom = new Square(this.isWhite ? "e1" : "e8");
-    Square rookTo = new Square(this.isWhite ? "d1" : "d8");
-    Square kingTo = new Square(this.isWhite ? "c1" : "c8");
-    return this.tryCastle(kingFrom, kingTo, rookFrom, rookTo);
+    int row = this.isWhite ? 1 : this.board.getHeight();
+    return this.tryCastle(Square.of(row, 5), Square.of(row, 3), Square.of(row, 1));
   }
 
   /**
@@ -208,133 +217,77 @@ public abstract class Player {
    * @return error message
    */
   public String tryKingSideCastle(){
-    Square rookFrom = new Square(this.isWhite ? "h1" : "h8");
-    Square kingFrom = new Square(this.isWhite ? "e1" : "e8");
-    Square rookTo = new Square(this.isWhite ? "f1" : "f8");
-    Square kingTo = new Square(this.isWhite ? "g1" : "g8");
-    return this.tryCastle(kingFrom, kingTo, rookFrom, rookTo);
+    int row = this.isWhite ? 1 : this.board.getHeight();
+    return this.tryCastle(Square.of(row, 5), Square.of(row, 7), Square.of(row, 8));
   }
 
-  private String isEnPassantDirectionValid(Move move){
-    String errMsg = "invalid en passant destination";
-    int forwardDir = this.isWhite ? 1 : -1;
-    Square squareFrom = move.getSquareFrom();
-    Square squareTo = move.getSquareTo();
-    if(squareTo.getRow() - squareFrom.getRow() != forwardDir){
+  /**
+   * try en passant capture
+   * @param move
+   * @return error message
+   */
+  public String tryEnPassant(Move move){
+    String errMsg = this.areMoveSquaresValid(move);
+    if(errMsg != null){
       return errMsg;
     }
-    if(Math.abs(squareTo.getColumn() - squareFrom.getColumn()) != 1){
-      return errMsg;
+    if(!PackedMove.isEnPassant(this.findLegalMove(move))){
+      return this.whyCannotEnPassant(move);
     }
-    return null;
-  }
 
-  private String isEnemyPawnAtEnPassantCapture(Piece pieceToBeCaptured){
-    String errMsg = "no enemy Pawn to en passant capture";
-    if(pieceToBeCaptured == null){
-      return errMsg;
-    }
-    if(!(pieceToBeCaptured instanceof Pawn)){
-      return errMsg;
-    }
-    return null;
-  }
+    // do en passant capture, the board removes the Pawn moving diagonally past
+    this.board.makeMove(move, null);
 
-  private String didEnemyPawnJustMoveTwoForward(Square squareToBeCaptured){
-    String errMsg = "enemy pawn invalid en passant status";
-    List<Move> moveLog = this.board.getMoveLog();
-    if(moveLog.size() == 0){
-      return errMsg;
-    }
-    Move enemyLastMove = moveLog.get(moveLog.size() - 1);
-    Square enemyLastMoveFrom = enemyLastMove.getSquareFrom();
-    Square enemyLastMoveTo = enemyLastMove.getSquareTo();
-    if(!enemyLastMoveTo.equals(squareToBeCaptured)){
-      return errMsg;
-    }
-    if(Math.abs(enemyLastMoveFrom.getRow() - enemyLastMoveTo.getRow()) != 2){
-      return errMsg;
-    }
     return null;
   }
 
-  protected String canEnPassant(Move move) {
-    String errMsg = this.areMoveSquaresValid(move);
-    if(errMsg != null){
-      return errMsg;
-    }
+  /**
+   * @return rank own Pawns capture en passant from,
+   * where an enemy Pawn moving two squares lands next to them
+   */
+  private int getEnPassantRowFrom(){
+    return this.isWhite ? this.board.getHeight() - 3 : 4;
+  }
 
-    // cannot en passant if selected piece is not a pawn
-    Piece p = this.board.whatIsAtSquare(move.getSquareFrom());
-    if(!(p instanceof Pawn)){
+  /**
+   * @param move move of own piece
+   * @return error message for an en passant capture that is not among the legal moves
+   */
+  private String whyCannotEnPassant(Move move){
+    Square from = move.getSquareFrom();
+    Square to = move.getSquareTo();
+    Piece p = this.board.whatIsAtSquare(from);
+    if(p.getType() != Piece.PAWN){
       return "cannot en passant with pieces other than Pawn";
     }
 
-    // cannot en passant if piece on wrong ranks
-    // white: rank 5, black: rank 4
-    int enPassantRowFrom = this.isWhite ? 5 : 4;
-    if(p.getSquare().getRow() != enPassantRowFrom){
+    if(from.getRow() != this.getEnPassantRowFrom()){
       return "cannot en passant from invalid rank";
     }
-
-    // cannot en passant if Pawn not moving in forward diagonals
-    errMsg = this.isEnPassantDirectionValid(move);
-    if(errMsg != null){
-      return errMsg;
-    }
-
-    // cannot en passant if there is no enemy Pawn at capturing square
-    Square squareToBeCaptured = new Square(p.getSquare().getRow(), move.getSquareTo().getColumn());
-    Piece pieceToBeCaptured = this.board.whatIsAtSquare(squareToBeCaptured);
-    errMsg = this.isEnemyPawnAtEnPassantCapture(pieceToBeCaptured);
-    if(errMsg != null){
-      return errMsg;
-    }
-
-    // can only en passant if the enemy Pawn just moved forward 2 squares
-    errMsg = this.didEnemyPawnJustMoveTwoForward(squareToBeCaptured);
-    if(errMsg != null){
-      return errMsg;
+    int forwardDir = this.isWhite ? 1 : -1;
+    if(to.getRow() - from.getRow() != forwardDir || Math.abs(to.getColumn() - from.getColumn()) != 1){
+      return "invalid en passant destination";
     }
 
-    // cannot en passant if move lead to checks
-    errMsg = this.moveWillLeadToSelfChecks(move);
-    if(errMsg != null){
-      return errMsg;
+    Piece pieceToBeCaptured = this.board.whatIsAtSquare(Square.of(from.getRow(), to.getColumn()));
+    if(pieceToBeCaptured == null || pieceToBeCaptured.getType() != Piece.PAWN
+      || pieceToBeCaptured.isWhitePiece() == this.isWhite){
+      return "no enemy Pawn to en passant capture";
     }
-    return null;
-  }
-
-  /**
-   * try en passant capture
-   * @param move
-   * @return
-   */
-  public String tryEnPassant(Move move){
-    String errMsg = this.canEnPassant(move);
-    if(errMsg != null){
-      return errMsg;
+    // the board only offers en passant right after the enemy Pawn moved two squares
+    Square enPassantSquare = this.board.getEnPassantSquare();
+    if(enPassantSquare == null || !enPassantSquare.equals(to)){
+      return "enemy pawn invalid en passant status";
     }
-
-    // do en passant capture
-    Piece p = this.board.whatIsAtSquare(move.getSquareFrom());
-    Square squareToBeCaptured = new Square(p.getSquare().getRow(), move.getSquareTo().getColumn());
-    Piece pieceToBeCaptured = this.board.whatIsAtSquare(squareToBeCaptured);
-
-    p.setSquare(move.getSquareTo());
-    this.board.tryRemovePiece(pieceToBeCaptured);
-    p.incrementMoveCounter();
-
-    return null;
+    return "move will leave King in check";
   }
 
   private Piece getKing(){
-    for(Piece p: this.board.getTeamPieces(this.isWhite)){
-      if(p instanceof King){
-        return p;
-      }
+    Piece king = this.board.getKing(this.isWhite);
+    if(king == null){
+      throw new IllegalAccessError("no King found");
     }
-    throw new IllegalAccessError("no King found");
+    return king;
   }
 
   /**
@@ -349,47 +302,11 @@ public abstract class Player {
     return false;
   }
 
-  protected boolean canPromote(Piece p){
-    // check if the piece is piece is Pawn
-    if(!(p instanceof Pawn)){
-      return false;
-    } 
-
-    // can only promote when moving to bottom ranks
-    int bottomRank = this.isWhite ? this.board.getHeight() : 1;
-    if(p.getSquare().getRow() != bottomRank){
-      return false;
-    }
-
-    return true;
-  }
-
+  /**
+   * @return true if any move of this player is legal, castling and en passant included
+   */
   protected boolean stillHasLegalMoves(){
-    for(Piece p: this.board.getTeamPieces(this.isWhite)){
-      // check normal moves
-      for(Square s: p.canMoveTo(this.board)){
-        String errMsg = this.moveWillLeadToSelfChecks(new Move(p.getSquare(), s));
-        if(errMsg == null){
-          return true;
-        }
-      }
-      // check en passant
-      if(p instanceof Pawn){
-        int forwardDir = this.isWhite ? 1 : -1;
-        Move enPassantMove1 = new Move(
-          p.getSquare(), 
-          new Square(p.getSquare().getRow() + forwardDir, p.getSquare().getColumn() + 1)
-        );
-        Move enPassantMove2 = new Move(
-          p.getSquare(), 
-          new Square(p.getSquare().getRow() + forwardDir, p.getSquare().getColumn() - 1)
-        );
-        if(this.canEnPassant(enPassantMove1) == null || this.canEnPassant(enPassantMove2) == null){
-          return true;
-        }
-      }
-    }
-    return false;
+    return this.getLegalMoves().size() > 0;
   }
 
   /**
@@ -422,16 +339,10 @@ public abstract class Player {
     if(!this.isUnderCheck()){
       return false;
     }
-
-    Piece king = this.getKing();
-    if(king.canMoveTo(this.board).size() > 0){
-      return false;
-    }
-
+    // the legal moves include every King move, capture and block
     if(this.stillHasLegalMoves()){
       return false;
     }
-
     return true;
   }
 
@@ -8,18 +8,19 @@ public class Queen extends Piece {
     super(name, isWhite, square);
   }
 
+  @Override
+  protected Piece newInstance() {
+    return new Queen(this.name, this.isWhite, this.square);
+  }
+
+  @Override
+  public int getType() {
+    return QUEEN;
+  }
+
   @Override
   public HashSet<Square> canMoveTo(Board board) {
-    HashSet<Square> nextMoves = new HashSet<>();
-    nextMoves.addAll(this.canMoveLeftTo(board));
-    nextMoves.addAll(this.canMoveRightTo(board));
-    nextMoves.addAll(this.canMoveUpTo(board));
-    nextMoves.addAll(this.canMoveDownTo(board));
-    nextMoves.addAll(this.canMoveUpLeftDiagonalTo(board));
-    nextMoves.addAll(this.canMoveUpRightDiagonalTo(board));
-    nextMoves.addAll(this.canMoveDownLeftDiagonalTo(board));
-    nextMoves.addAll(this.canMoveDownRightDiagonalTo(board));
-    return nextMoves;
+    return toSquares(this.getAttacksExcludingOwnTeam(board));
   }
 
   @Override
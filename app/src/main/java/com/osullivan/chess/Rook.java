@@ -10,14 +10,19 @@ public class Rook extends Piece{
     this.isKingSide = isKingSide;
   }
 
+  @Override
+  protected Piece newInstance() {
+    return new Rook(this.name, this.isWhite, this.square, this.isKingSide);
+  }
+
+  @Override
+  public int getType() {
+    return ROOK;
+  }
+
   @Override
   public HashSet<Square> canMoveTo(Board board) {
-    HashSet<Square> nextMoves = new HashSet<>();
-    nextMoves.addAll(this.canMoveUpTo(board));
-    nextMoves.addAll(this.canMoveDownTo(board));
-    nextMoves.addAll(this.canMoveLeftTo(board));
-    nextMoves.addAll(this.canMoveRightTo(board));
-    return nextMoves;
+    return toSquares(this.getAttacksExcludingOwnTeam(board));
   }
 
   /**
@@ -0,0 +1,157 @@
+package com.osullivan.chess;
+
+/**
+ * turns moves in Standard Algebraic Notation, e.g. "Nbd7", "exd6", "e8=Q+" or "O-O",
+ * into packed moves by matching them against the legal moves of the side to move
+ * check, mate and annotation suffixes are ignored, castling may be written with zeros
+ * a resolver is reused between positions and does not allocate unless a move is rejected
+ */
+public class SanResolver {
+  private final MoveGenerator generator;
+  private final MoveList legalMoves;
+
+  public SanResolver(){
+    this.generator = new MoveGenerator();
+    this.legalMoves = new MoveList();
+  }
+
+  private static int pieceType(char c){
+    switch(c){
+      case 'N':
+        return Piece.KNIGHT;
+      case 'B':
+        return Piece.BISHOP;
+      case 'R':
+        return Piece.ROOK;
+      case 'Q':
+        return Piece.QUEEN;
+      case 'K':
+        return Piece.KING;
+      default:
+        return -1;
+    }
+  }
+
+  private static boolean isSuffix(char c){
+    return c == '+' || c == '#' || c == '!' || c == '?';
+  }
+
+  /**
+   * @return 1 for king side, 2 for queen side, 0 if not a castling move
+   */
+  private static int castlingSide(CharSequence san, int end){
+    if(end != 3 && end != 5){
+      return 0;
+    }
+    char o = san.charAt(0);
+    if(o != 'O' && o != '0'){
+      return 0;
+    }
+    for(int i = 1; i < end; i++){
+      if(san.charAt(i) != (i % 2 == 1 ? '-' : o)){
+        return 0;
+      }
+    }
+    return end == 3 ? 1 : 2;
+  }
+
+  private static IllegalArgumentException invalid(CharSequence san, String reason){
+    return new IllegalArgumentException(reason + " \'" + san + "\'");
+  }
+
+  /**
+   * find the legal move of the side to move written by a SAN move
+   * @param board board with the position before the move
+   * @param san move in Standard Algebraic Notation
+   * @return packed move, see PackedMove
+   * @throws IllegalArgumentException if the move is malformed, illegal or ambiguous
+   */
+  public int resolve(Board board, CharSequence san){
+    int end = san.length();
+    while(end > 0 && isSuffix(san.charAt(end - 1))){
+      end--;
+    }
+    if(end < 2){
+      throw invalid(san, "malformed move");
+    }
+    boolean isWhite = board.isWhiteToMove();
+    int size = this.generator.generateLegalMoves(board, isWhite, this.legalMoves);
+
+    int side = castlingSide(san, end);
+    if(side != 0){
+      for(int i = 0; i < size; i++){
+        int move = this.legalMoves.get(i);
+        if(PackedMove.isCastle(move) && (PackedMove.getTo(move) > PackedMove.getFrom(move)) == (side == 1)){
+          return move;
+        }
+      }
+      throw invalid(san, "illegal move");
+    }
+
+    // promotion, as "e8=Q" or "e8Q"
+    int promotion = 0;
+    int promotionType = pieceType(san.charAt(end - 1));
+    if(promotionType > Piece.PAWN && promotionType < Piece.KING){
+      promotion = promotionType;
+      end--;
+      if(end > 0 && san.charAt(end - 1) == '='){
+        end--;
+      }
+    }
+
+    // destination square
+    if(end < 2){
+      throw invalid(san, "malformed move");
+    }
+    char toFile = san.charAt(end - 2);
+    char toRank = san.charAt(end - 1);
+    if(toFile < 'a' || toFile > 'h' || toRank < '1' || toRank > '8'){
+      throw invalid(san, "malformed move");
+    }
+    int to = (toRank - '1') * 8 + (toFile - 'a');
+
+    // moving piece and disambiguation, captures may be marked with 'x', '-' or ':'
+    int start = 0;
+    int type = pieceType(san.charAt(0));
+    if(type < 0){
+      type = Piece.PAWN;
+    }
+    else{
+      start = 1;
+    }
+    int fromFile = -1;
+    int fromRank = -1;
+    for(int i = start; i < end - 2; i++){
+      char c = san.charAt(i);
+      if(c >= 'a' && c <= 'h'){
+        fromFile = c - 'a';
+      }
+      else if(c >= '1' && c <= '8'){
+        fromRank = c - '1';
+      }
+      else if(c != 'x' && c != '-' && c != ':'){
+        throw invalid(san, "malformed move");
+      }
+    }
+
+    long pieces = board.getPieceBitboard(isWhite, type);
+    int found = PackedMove.NONE;
+    for(int i = 0; i < size; i++){
+      int move = this.legalMoves.get(i);
+      int from = PackedMove.getFrom(move);
+      if(PackedMove.getTo(move) != to || (pieces & (1L << from)) == 0
+        || PackedMove.getPromotion(move) != promotion
+        || (fromFile >= 0 && from % 8 != fromFile) || (fromRank >= 0 && from / 8 != fromRank)){
+        continue;
+      }
+      if(found != PackedMove.NONE){
+        throw invalid(san, "ambiguous move");
+      }
+      found = move;
+    }
+    if(found == PackedMove.NONE){
+      throw invalid(san, "illegal move");
+    }
+    return found;
+  }
+}
@@ -0,0 +1,630 @@
+package com.osullivan.chess;
+
+import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * iterative deepening alpha-beta search in negamax form, with a principal variation search:
+ * the first move of a node is searched with the full window, later moves with a null window
+ * and searched again only if they turn out better, so moves are tried in the order of MoveOrdering
+ * at depth 0 a quiescence search plays on the captures and promotions that do not lose material
+ * by static exchange evaluation, so no score is taken in the middle of an exchange
+ * the tree is cut down further by null move pruning, late move reductions, (reverse) futility pruning
+ * and aspiration windows, see SearchFeature, each of which can be switched off
+ * results are kept in a transposition table, which can be shared with searches on other threads
+ * the search plays moves on the board with make/unmake and leaves it as it found it
+ * it stops at the depth, node or time limit, and then plays the best move
+ * of the last iteration it completed, or a move the unfinished iteration has already found to be better
+ * past the soft time limit it finishes the iteration it is in, but starts no new one
+ */
+public class Search {
+  public static final int MAX_PLY = 64;
+  // game positions before the root checked for repetitions, the fifty-move rule ends the game before more
+  private static final int MAX_HISTORY = 100;
+  public static final int INFINITE = 32000;
+  // mate in n plies scores MATE - n
+  public static final int MATE = 31000;
+  // the clock is only read this often, in nodes, a power of two
+  private static final int CHECK_INTERVAL = 256;
+  // reverse futility and futility margins per ply of remaining depth, in centipawns
+  private static final int REVERSE_FUTILITY_MARGIN = 120;
+  private static final int FUTILITY_MARGIN = 150;
+  private static final int ASPIRATION_WINDOW = 25;
+  // late move reductions by remaining depth and move index, grow with the log of both
+  private static final int[][] REDUCTIONS = new int[MAX_PLY + 1][64];
+
+  static {
+    for(int depth = 1; depth <= MAX_PLY; depth++){
+      for(int index = 1; index < 64; index++){
+        REDUCTIONS[depth][index] = (int)(0.75 + Math.log(depth) * Math.log(index) / 2.25);
+      }
+    }
+  }
+
+  private final Board board;
+  private final TranspositionTable table;
+  private final MoveGenerator generator;
+  private final MoveOrdering ordering;
+  private final StaticExchange exchange;
+  // one move buffer per ply, so the search does not allocate
+  private final MoveList[] moveLists;
+  // Zobrist keys of the game before the root and along the current line, to find repetitions
+  private final long[] keys;
+  // index of the root in keys, the number of game positions before it
+  private int root;
+  // buffer the board fills with the game positions before the root
+  private final long[] history;
+
+  private SearchLimits limits;
+  private long startNanos;
+  private long softDeadline;
+  private long deadline;
+  private long nodes;
+  private long cutoffs;
+  private long firstMoveCutoffs;
+  private boolean stopped;
+  private SearchStop stop;
+  // set by another thread to stop this search, null if searching alone
+  private AtomicBoolean stopSignal;
+  private int rootBestMove;
+  // off to try the hash move first and the rest in generation order, to measure the ordering
+  private boolean moveOrdering;
+  private final EnumSet<SearchFeature> features;
+
+  public Search(Board board){
+    this(board, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+  }
+
+  /**
+   * @param board
+   * @param table transposition table, may be shared with searches on other threads
+   */
+  public Search(Board board, TranspositionTable table){
+    this.board = board;
+    this.table = table;
+    this.generator = new MoveGenerator();
+    this.ordering = new MoveOrdering();
+    this.exchange = new StaticExchange();
+    this.moveLists = new MoveList[MAX_PLY + 1];
+    for(int i = 0; i < this.moveLists.length; i++){
+      this.moveLists[i] = new MoveList();
+    }
+    this.keys = new long[MAX_HISTORY + MAX_PLY + 1];
+    this.history = new long[MAX_HISTORY];
+    this.moveOrdering = true;
+    this.features = EnumSet.allOf(SearchFeature.class);
+  }
+
+  public TranspositionTable getTable(){
+    return this.table;
+  }
+
+  public MoveOrdering getOrdering(){
+    return this.ordering;
+  }
+
+  public boolean isMoveOrdering(){
+    return this.moveOrdering;
+  }
+
+  public void setMoveOrdering(boolean moveOrdering){
+    this.moveOrdering = moveOrdering;
+  }
+
+  public boolean isEnabled(SearchFeature feature){
+    return this.features.contains(feature);
+  }
+
+  /**
+   * switch a part of the search on or off, all are on to start with
+   * @param feature
+   * @param enabled
+   */
+  public void setEnabled(SearchFeature feature, boolean enabled){
+    if(enabled){
+      this.features.add(feature);
+    }
+    else{
+      this.features.remove(feature);
+    }
+  }
+
+  /**
+   * search the position on the board for the side to move
+   * @param limits
+   * @return best move found, PackedMove.NONE if there is no legal move
+   */
+  public SearchResult search(SearchLimits limits){
+    this.table.newSearch();
+    return this.search(limits, 0, null);
+  }
+
+  /**
+   * search as one thread of a parallel search, the caller starts the new search in the table
+   * helpers differ from the main search in the depth they start at and the order
+   * of their root moves, so they fill the shared table with different parts of the tree
+   * @param limits
+   * @param helper 0 for the main search, 1 and up for helpers
+   * @param stopSignal stops the search once set, null if searching alone
+   * @return best move found, PackedMove.NONE if there is no legal move
+   */
+  SearchResult search(SearchLimits limits, int helper, AtomicBoolean stopSignal){
+    this.limits = limits;
+    this.stopSignal = stopSignal;
+    this.startNanos = System.nanoTime();
+    this.softDeadline = this.deadlineOf(limits.getSoftMillis());
+    this.deadline = this.deadlineOf(limits.getMillis());
+    this.nodes = 0;
+    this.cutoffs = 0;
+    this.firstMoveCutoffs = 0;
+    this.stopped = false;
+    this.stop = SearchStop.DEPTH;
+    this.ordering.newSearch();
+    // positions of the game since the last capture or Pawn move come before the root
+    this.root = this.board.getPreviousKeys(this.history);
+    System.arraycopy(this.history, 0, this.keys, 0, this.root);
+
+    MoveList rootMoves = this.moveLists[0];
+    int size = this.generator.generateLegalMoves(this.board, this.board.isWhiteToMove(), rootMoves);
+    if(size == 0){
+      int score = this.generator.getCheckInfo().isInCheck() ? -MATE : 0;
+      return new SearchResult(PackedMove.NONE, score, 0, 0, System.nanoTime() - this.startNanos, SearchStop.NO_MOVES);
+    }
+
+    // play some legal move even if the first iteration cannot finish
+    int bestMove = rootMoves.get(helper % size);
+    int bestScore = -INFINITE;
+    int completedDepth = 0;
+    for(int depth = 1 + helper % 2; depth <= limits.getDepth(); depth++){
+      int score = this.searchIteration(depth, bestMove, bestScore);
+      // the root keeps the best move of the moves it searched to the end,
+      // which is the previous best move or one that beat it
+      bestMove = this.rootBestMove;
+      if(this.stopped){
+        break;
+      }
+      bestScore = score;
+      completedDepth = depth;
+      if(Math.abs(score) >= MATE - depth){
+        // a forced mate was found, deeper iterations cannot improve on it
+        this.stop = SearchStop.MATE;
+        break;
+      }
+      if(depth < limits.getDepth() && System.nanoTime() >= this.softDeadline){
+        this.stop = SearchStop.SOFT_TIME;
+        break;
+      }
+    }
+    return new SearchResult(bestMove, bestScore, completedDepth, this.nodes, System.nanoTime() - this.startNanos,
+      this.cutoffs, this.firstMoveCutoffs, this.stop);
+  }
+
+  /**
+   * search the root to a depth, in a window around the previous score if aspiration windows are on,
+   * widened and searched again for as long as the score falls outside
+   */
+  private int searchIteration(int depth, int previousBest, int previousScore){
+    if(!this.isEnabled(SearchFeature.ASPIRATION_WINDOWS) || depth < 4 || Math.abs(previousScore) >= MATE - MAX_PLY){
+      return this.searchRoot(depth, previousBest, -INFINITE, INFINITE);
+    }
+    int delta = ASPIRATION_WINDOW;
+    int alpha = Math.max(previousScore - delta, -INFINITE);
+    int beta = Math.min(previousScore + delta, INFINITE);
+    while(true){
+      int score = this.searchRoot(depth, previousBest, alpha, beta);
+      if(this.stopped || (score > alpha && score < beta)){
+        return score;
+      }
+      delta *= 2;
+      if(score <= alpha){
+        alpha = Math.max(score - delta, -INFINITE);
+      }
+      else{
+        beta = Math.min(score + delta, INFINITE);
+        // the move that failed high is the one to search first next time
+        previousBest = this.rootBestMove;
+      }
+    }
+  }
+
+  private int searchRoot(int depth, int previousBest, int alpha, int beta){
+    MoveList moves = this.moveLists[0];
+    int size = this.generator.generateLegalMoves(this.board, this.board.isWhiteToMove(), moves);
+    // the best move of the previous iteration is searched first
+    this.orderMoves(moves, 0, previousBest);
+    long key = this.board.getZobristKey();
+    this.keys[this.root] = key;
+    // the root counts against the node limit too, its moves return at once if it is reached here
+    this.enterNode();
+
+    int originalAlpha = alpha;
+    int bestScore = -INFINITE;
+    this.rootBestMove = previousBest;
+    for(int i = 0; i < size; i++){
+      int move = this.nextMove(moves, 0, i);
+      this.board.makeMove(move);
+      int score;
+      if(i == 0){
+        score = -this.negamax(depth - 1, 1, -beta, -alpha, true);
+      }
+      else{
+        score = -this.negamax(depth - 1, 1, -alpha - 1, -alpha, true);
+        if(score > alpha && score < beta){
+          score = -this.negamax(depth - 1, 1, -beta, -alpha, true);
+        }
+      }
+      this.board.unmakeMove();
+      if(this.stopped){
+        return 0;
+      }
+      if(score > bestScore){
+        bestScore = score;
+        if(score > alpha){
+          alpha = score;
+          this.rootBestMove = move;
+          if(alpha >= beta){
+            break;
+          }
+        }
+      }
+    }
+    int bound = bestScore >= beta ? TranspositionTable.LOWER
+      : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+    this.table.store(key, this.rootBestMove, bestScore, depth, bound);
+    return bestScore;
+  }
+
+  private void orderMoves(MoveList moves, int ply, int hashMove){
+    if(this.moveOrdering){
+      this.ordering.score(this.board, moves, ply, hashMove);
+    }
+    else{
+      int index = hashMove == PackedMove.NONE ? -1 : moves.indexOf(hashMove);
+      if(index > 0){
+        moves.swap(0, index);
+      }
+    }
+  }
+
+  private int nextMove(MoveList moves, int ply, int index){
+    return this.moveOrdering ? this.ordering.pick(moves, ply, index) : moves.get(index);
+  }
+
+  private boolean isRepetition(int ply){
+    // only positions since the last capture or Pawn move can repeat, in the search or in the game before it
+    int index = this.root + ply;
+    int distance = Math.min(this.board.getHalfmoveClock(), index);
+    for(int i = index - 2; i >= index - distance; i -= 2){
+      if(this.keys[i] == this.keys[index]){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long deadlineOf(long millis){
+    return millis == Long.MAX_VALUE ? Long.MAX_VALUE : this.startNanos + millis * 1_000_000L;
+  }
+
+  /**
+   * count a node, unless the search has stopped already, and check the limits
+   * a stopped search still returns through re-searches, which must not count
+   * @return true if the search has stopped
+   */
+  private boolean enterNode(){
+    if(this.stopped){
+      return true;
+    }
+    this.nodes++;
+    this.checkLimits();
+    return this.stopped;
+  }
+
+  private void checkLimits(){
+    if(this.nodes >= this.limits.getNodes()){
+      this.stop(SearchStop.NODES);
+    }
+    else if((this.nodes & (CHECK_INTERVAL - 1)) == 0){
+      if(System.nanoTime() >= this.deadline){
+        this.stop(SearchStop.TIME);
+      }
+      else if(this.stopSignal != null && this.stopSignal.get()){
+        this.stop(SearchStop.SIGNAL);
+      }
+    }
+  }
+
+  private void stop(SearchStop stop){
+    this.stopped = true;
+    this.stop = stop;
+  }
+
+  /**
+   * mate scores are stored as distance from the position, not from the root
+   */
+  private static int scoreToTable(int score, int ply){
+    if(score >= MATE - MAX_PLY){
+      return score + ply;
+    }
+    if(score <= -MATE + MAX_PLY){
+      return score - ply;
+    }
+    return score;
+  }
+
+  private static int scoreFromTable(int score, int ply){
+    if(score >= MATE - MAX_PLY){
+      return score - ply;
+    }
+    if(score <= -MATE + MAX_PLY){
+      return score + ply;
+    }
+    return score;
+  }
+
+  private boolean isInCheck(boolean isWhite){
+    return (this.board.getPieceBitboard(isWhite, Piece.KING) & this.board.getAttackMap(!isWhite)) != 0;
+  }
+
+  /**
+   * @param isWhite
+   * @return true if the team has a piece other than Pawns and its King,
+   * without one it may be in zugzwang, where passing would be better than any move
+   */
+  private boolean hasNonPawnMaterial(boolean isWhite){
+    long pawnsAndKing = this.board.getPieceBitboard(isWhite, Piece.PAWN) | this.board.getPieceBitboard(isWhite, Piece.KING);
+    return (this.board.getTeamOccupancy(isWhite) & ~pawnsAndKing) != 0;
+  }
+
+  /**
+   * @param nullAllowed false right after a null move, two in a row would only pass the turn back
+   */
+  private int negamax(int depth, int ply, int alpha, int beta, boolean nullAllowed){
+    if(depth <= 0){
+      return this.quiescence(ply, alpha, beta);
+    }
+    if(this.enterNode()){
+      return 0;
+    }
+    long key = this.board.getZobristKey();
+    this.keys[this.root + ply] = key;
+    if(this.board.getHalfmoveClock() >= 100 || this.isRepetition(ply)){
+      return 0;
+    }
+
+    if(ply >= MAX_PLY){
+      return Evaluation.evaluate(this.board);
+    }
+
+    int hashMove = PackedMove.NONE;
+    long entry = this.table.probe(key);
+    if(entry != 0){
+      hashMove = TranspositionTable.getMove(entry);
+      if(TranspositionTable.getDepth(entry) >= depth){
+        int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+        int bound = TranspositionTable.getBound(entry);
+        if(bound == TranspositionTable.EXACT
+          || (bound == TranspositionTable.LOWER && score >= beta)
+          || (bound == TranspositionTable.UPPER && score <= alpha)){
+          return score;
+        }
+      }
+    }
+
+    // only null window nodes are pruned, the principal variation is searched in full
+    boolean pvNode = beta - alpha > 1;
+    boolean isWhite = this.board.isWhiteToMove();
+    boolean inCheck = this.isInCheck(isWhite);
+    int staticEval = 0;
+    if(!pvNode && !inCheck){
+      staticEval = Evaluation.evaluate(this.board);
+      int margin = REVERSE_FUTILITY_MARGIN * depth;
+      if(this.isEnabled(SearchFeature.REVERSE_FUTILITY) && depth <= 3
+        && Math.abs(beta) < MATE - MAX_PLY && staticEval - margin >= beta){
+        return staticEval - margin;
+      }
+      if(this.isEnabled(SearchFeature.NULL_MOVE) && nullAllowed && depth >= 3
+        && staticEval >= beta && this.hasNonPawnMaterial(isWhite)){
+        this.board.makeNullMove();
+        int score = -this.negamax(depth - 3 - depth / 4, ply + 1, -beta, -beta + 1, false);
+        this.board.unmakeMove();
+        if(this.stopped){
+          return 0;
+        }
+        if(score >= beta){
+          // a mate found after passing the turn is not a real one
+          return score >= MATE - MAX_PLY ? beta : score;
+        }
+      }
+    }
+    // quiet moves cannot bring the score up to alpha
+    boolean futile = this.isEnabled(SearchFeature.FUTILITY) && !pvNode && !inCheck && depth <= 2
+      && Math.abs(alpha) < MATE - MAX_PLY && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+    MoveList moves = this.moveLists[ply];
+    int size = this.generator.generateLegalMoves(this.board, isWhite, moves);
+    if(size == 0){
+      return inCheck ? -MATE + ply : 0;
+    }
+    this.orderMoves(moves, ply, hashMove);
+
+    int originalAlpha = alpha;
+    int bestScore = -INFINITE;
+    int bestMove = PackedMove.NONE;
+    for(int i = 0; i < size; i++){
+      int move = this.nextMove(moves, ply, i);
+      boolean quiet = MoveOrdering.isQuiet(move);
+      this.board.makeMove(move);
+      boolean givesCheck = this.isInCheck(!isWhite);
+      if(futile && i > 0 && quiet && !givesCheck){
+        this.board.unmakeMove();
+        continue;
+      }
+      int score;
+      if(i == 0){
+        score = -this.negamax(depth - 1, ply + 1, -beta, -alpha, true);
+      }
+      else{
+        int reduction = 0;
+        if(this.isEnabled(SearchFeature.LATE_MOVE_REDUCTIONS) && depth >= 3 && i >= 3
+          && quiet && !inCheck && !givesCheck){
+          reduction = REDUCTIONS[depth][Math.min(i, 63)] - (pvNode ? 1 : 0);
+          reduction = Math.max(0, Math.min(reduction, depth - 2));
+        }
+        score = -this.negamax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+        if(score > alpha && reduction > 0){
+          score = -this.negamax(depth - 1, ply + 1, -alpha - 1, -alpha, true);
+        }
+        if(score > alpha && score < beta){
+          score = -this.negamax(depth - 1, ply + 1, -beta, -alpha, true);
+        }
+      }
+      this.board.unmakeMove();
+      if(this.stopped){
+        return 0;
+      }
+      if(score > bestScore){
+        bestScore = score;
+        bestMove = move;
+        if(score > alpha){
+          alpha = score;
+          if(alpha >= beta){
+            this.cutoffs++;
+            if(i == 0){
+              this.firstMoveCutoffs++;
+            }
+            if(this.moveOrdering){
+              this.ordering.cutoff(isWhite, moves, i, ply, depth);
+            }
+            break;
+          }
+        }
+      }
+    }
+
+    int bound = bestScore >= beta ? TranspositionTable.LOWER
+      : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+    this.table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+    return bestScore;
+  }
+
+  /**
+   * search captures and Queen promotions until the position is quiet
+   * the side to move may stand pat on the static evaluation, unless in check,
+   * when every evasion is searched instead
+   */
+  private int quiescence(int ply, int alpha, int beta){
+    if(this.enterNode()){
+      return 0;
+    }
+    this.keys[this.root + ply] = this.board.getZobristKey();
+    if(this.board.getHalfmoveClock() >= 100 || this.isRepetition(ply)){
+      return 0;
+    }
+    if(ply >= MAX_PLY){
+      return Evaluation.evaluate(this.board);
+    }
+
+    MoveList moves = this.moveLists[ply];
+    int size = this.generator.generateLegalMoves(this.board, this.board.isWhiteToMove(), moves);
+    boolean inCheck = this.generator.getCheckInfo().isInCheck();
+    if(size == 0){
+      return inCheck ? -MATE + ply : 0;
+    }
+    int bestScore = -INFINITE;
+    if(!inCheck){
+      bestScore = Evaluation.evaluate(this.board);
+      if(bestScore >= beta){
+        return bestScore;
+      }
+      alpha = Math.max(alpha, bestScore);
+    }
+
+    this.orderMoves(moves, ply, PackedMove.NONE);
+    for(int i = 0; i < size; i++){
+      int move = this.nextMove(moves, ply, i);
+      if(!inCheck){
+        int promotion = PackedMove.getPromotion(move);
+        if(MoveOrdering.isQuiet(move)){
+          if(this.moveOrdering){
+            // captures and promotions are ordered first, the rest is quiet
+            break;
+          }
+          continue;
+        }
+        if((promotion != 0 && promotion != Piece.QUEEN) || this.exchange.evaluate(this.board, move) < 0){
+          continue;
+        }
+      }
+      this.board.makeMove(move);
+      int score = -this.quiescence(ply + 1, -beta, -alpha);
+      this.board.unmakeMove();
+      if(this.stopped){
+        return 0;
+      }
+      if(score > bestScore){
+        bestScore = score;
+        if(score > alpha){
+          alpha = score;
+          if(alpha >= beta){
+            break;
+          }
+        }
+      }
+    }
+    return bestScore;
+  }
+
+  /**
+   * search each position to the same depth with every feature on, then with each feature
+   * off on its own, then with all of them off, and print the nodes and time of each
+   * @param positions
+   * @param depth
+   * @param out
+   * @return total nodes over the positions of each run, in the order above
+   */
+  public static long[] reportFeatures(PerftPosition[] positions, int depth, PrintStream out){
+    SearchFeature[] features = SearchFeature.values();
+    long[] totals = new long[features.length + 2];
+    for(PerftPosition position: positions){
+      for(int run = 0; run < totals.length; run++){
+        Search search = new Search(position.toBoard());
+        String name = "all features";
+        if(run == totals.length - 1){
+          name = "no features";
+          for(SearchFeature feature: features){
+            search.setEnabled(feature, false);
+          }
+        }
+        else if(run > 0){
+          name = "no " + features[run - 1].name();
+          search.setEnabled(features[run - 1], false);
+        }
+        SearchResult result = search.search(SearchLimits.depth(depth));
+        totals[run] += result.getNodes();
+        out.print(String.format("%s depth %d, %s: %d nodes, %.3f s, score %d, bestmove %s%n",
+          position.name(), result.getDepth(), name, result.getNodes(), result.getNanos() / 1e9,
+          result.getScore(), PackedMove.toString(result.getBestMove())));
+      }
+    }
+    return totals;
+  }
+
+  /**
+   * feature report from the command line
+   * "[DEPTH [POSITION...]]": depth 6 on every perft position by default
+   * @param args
+   */
+  public static void main(String[] args){
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+    PerftPosition[] positions = PerftPosition.values();
+    if(args.length > 1){
+      positions = new PerftPosition[args.length - 1];
+      for(int i = 1; i < args.length; i++){
+        positions[i - 1] = PerftPosition.valueOf(args[i]);
+      }
+    }
+    reportFeatures(positions, depth, System.out);
+  }
+}
@@ -0,0 +1,18 @@
+package com.osullivan.chess;
+
+/**
+ * parts of the search that trade a little accuracy for a smaller tree,
+ * each can be switched off on its own with Search.setEnabled to measure what it saves
+ */
+public enum SearchFeature {
+  // pass the turn, and prune if the reduced search still fails high
+  NULL_MOVE,
+  // search late quiet moves shallower, and again at full depth only if they raise alpha
+  LATE_MOVE_REDUCTIONS,
+  // near the leaves, fail high when the static evaluation beats beta by a margin
+  REVERSE_FUTILITY,
+  // near the leaves, skip quiet moves when the static evaluation is too far below alpha
+  FUTILITY,
+  // search the root in a narrow window around the score of the last iteration
+  ASPIRATION_WINDOWS
+}
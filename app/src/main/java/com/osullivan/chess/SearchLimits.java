@@ -0,0 +1,77 @@
+package com.osullivan.chess;
+
+/**
+ * when a search must stop: at a depth, after a number of nodes or after a time,
+ * whichever comes first
+ * the time is a hard limit, the search is cut off there in the middle of an iteration,
+ * while after the soft time limit it only starts no new iteration
+ * the depth is always bounded by Search.MAX_PLY
+ */
+public class SearchLimits {
+  private final int depth;
+  private final long nodes;
+  private final long softMillis;
+  private final long millis;
+
+  /**
+   * @param depth deepest iteration to search, 0 or less for no limit
+   * @param nodes number of nodes to search, 0 or less for no limit
+   * @param millis time to search in milliseconds, 0 or less for no limit
+   */
+  public SearchLimits(int depth, long nodes, long millis){
+    this(depth, nodes, millis, millis);
+  }
+
+  /**
+   * @param depth deepest iteration to search, 0 or less for no limit
+   * @param nodes number of nodes to search, 0 or less for no limit
+   * @param softMillis time after which no new iteration starts, 0 or less for no limit
+   * @param millis time after which the search stops, 0 or less for no limit
+   */
+  public SearchLimits(int depth, long nodes, long softMillis, long millis){
+    this.depth = depth > 0 ? Math.min(depth, Search.MAX_PLY) : Search.MAX_PLY;
+    this.nodes = nodes > 0 ? nodes : Long.MAX_VALUE;
+    this.millis = millis > 0 ? millis : Long.MAX_VALUE;
+    this.softMillis = softMillis > 0 ? Math.min(softMillis, this.millis) : this.millis;
+  }
+
+  /**
+   * @param depth
+   * @return limits stopping at a depth only
+   */
+  public static SearchLimits depth(int depth){
+    return new SearchLimits(depth, 0, 0);
+  }
+
+  /**
+   * @param nodes
+   * @return limits stopping after a number of nodes only
+   */
+  public static SearchLimits nodes(long nodes){
+    return new SearchLimits(0, nodes, 0);
+  }
+
+  /**
+   * @param millis
+   * @return limits stopping after a time only
+   */
+  public static SearchLimits millis(long millis){
+    return new SearchLimits(0, 0, millis);
+  }
+
+  public int getDepth(){
+    return this.depth;
+  }
+
+  public long getNodes(){
+    return this.nodes;
+  }
+
+  public long getSoftMillis(){
+    return this.softMillis;
+  }
+
+  public long getMillis(){
+    return this.millis;
+  }
+}
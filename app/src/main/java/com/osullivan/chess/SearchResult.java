@@ -0,0 +1,102 @@
+package com.osullivan.chess;
+
+/**
+ * outcome of a search: the move to play and what the search found out about it
+ */
+public class SearchResult {
+  private final int bestMove;
+  private final int score;
+  private final int depth;
+  private final long nodes;
+  private final long nanos;
+  private final long cutoffs;
+  private final long firstMoveCutoffs;
+  private final SearchStop stop;
+
+  /**
+   * @param bestMove packed move, PackedMove.NONE if there is no legal move
+   * @param score score of the move in centipawns for the side to move
+   * @param depth deepest iteration completed
+   * @param nodes number of nodes searched
+   * @param nanos time searched
+   * @param stop why the search stopped
+   */
+  public SearchResult(int bestMove, int score, int depth, long nodes, long nanos, SearchStop stop){
+    this(bestMove, score, depth, nodes, nanos, 0, 0, stop);
+  }
+
+  /**
+   * @param bestMove packed move, PackedMove.NONE if there is no legal move
+   * @param score score of the move in centipawns for the side to move
+   * @param depth deepest iteration completed
+   * @param nodes number of nodes searched
+   * @param nanos time searched
+   * @param cutoffs number of nodes that failed high
+   * @param firstMoveCutoffs number of those that failed high on their first move
+   * @param stop why the search stopped
+   */
+  public SearchResult(int bestMove, int score, int depth, long nodes, long nanos, long cutoffs, long firstMoveCutoffs,
+      SearchStop stop){
+    this.bestMove = bestMove;
+    this.score = score;
+    this.depth = depth;
+    this.nodes = nodes;
+    this.nanos = nanos;
+    this.cutoffs = cutoffs;
+    this.firstMoveCutoffs = firstMoveCutoffs;
+    this.stop = stop;
+  }
+
+  public int getBestMove(){
+    return this.bestMove;
+  }
+
+  public int getScore(){
+    return this.score;
+  }
+
+  public int getDepth(){
+    return this.depth;
+  }
+
+  public long getNodes(){
+    return this.nodes;
+  }
+
+  public long getNanos(){
+    return this.nanos;
+  }
+
+  public long getCutoffs(){
+    return this.cutoffs;
+  }
+
+  public long getFirstMoveCutoffs(){
+    return this.firstMoveCutoffs;
+  }
+
+  public SearchStop getStop(){
+    return this.stop;
+  }
+
+  /**
+   * @return share of cutoffs made by the first move tried, 0 if there were none,
+   * the closer to 1 the better the move ordering
+   */
+  public double getFirstMoveCutoffRate(){
+    return this.cutoffs == 0 ? 0 : (double)this.firstMoveCutoffs / this.cutoffs;
+  }
+
+  /**
+   * @return true if the score is a forced mate for either side
+   */
+  public boolean isMate(){
+    return Math.abs(this.score) >= Search.MATE - Search.MAX_PLY;
+  }
+
+  @Override
+  public String toString(){
+    return "depth " + this.depth + " score " + this.score + " nodes " + this.nodes
+      + " nps " + Perft.nodesPerSecond(this.nodes, this.nanos) + " bestmove " + PackedMove.toString(this.bestMove);
+  }
+}
@@ -0,0 +1,21 @@
+package com.osullivan.chess;
+
+/**
+ * why a search stopped, so callers can tell a finished search from one that was cut off
+ */
+public enum SearchStop {
+  // there is no legal move to search
+  NO_MOVES,
+  // the deepest iteration of the limits was completed
+  DEPTH,
+  // a forced mate was found, deeper iterations cannot improve on it
+  MATE,
+  // the node limit was reached
+  NODES,
+  // an iteration finished after the soft time limit, so no new one was started
+  SOFT_TIME,
+  // the hard time limit was reached in the middle of an iteration
+  TIME,
+  // another thread stopped the search
+  SIGNAL
+}
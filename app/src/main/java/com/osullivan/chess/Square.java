@@ -1,32 +1,106 @@
 package com.osullivan.chess;
 
 public class Square{
+  /**
+   * canonical squares cover rows and columns -1 to 10,
+   * which is every square a piece on an 8 x 8 board can step or jump to,
+   * so move generators never allocate a square while walking the board
+   */
+  private static final int MIN_COORDINATE = -1;
+  private static final int MAX_COORDINATE = 10;
+  private static final int POOL_WIDTH = MAX_COORDINATE - MIN_COORDINATE + 1;
+  private static final Square[] POOL = new Square[POOL_WIDTH * POOL_WIDTH];
+  // canonical squares of an 8 x 8 board by square index
+  private static final Square[] BY_INDEX = new Square[64];
+
+  static {
+    for(int row = MIN_COORDINATE; row <= MAX_COORDINATE; row++){
+      for(int col = MIN_COORDINATE; col <= MAX_COORDINATE; col++){
+        POOL[toPoolIndex(row, col)] = new Square(row, col);
+      }
+    }
+    for(int i = 0; i < BY_INDEX.length; i++){
+      BY_INDEX[i] = POOL[toPoolIndex(i / 8 + 1, i % 8 + 1)];
+    }
+  }
+
   private final int row;
   private final int column;
+  private final int index;
+  private final int hash;
 
   public Square(int row, int column){
     this.row = row;
     this.column = column;
+    this.index = (row - 1) * 8 + (column - 1);
+    this.hash = row * 31 + column;
   }
 
   public Square(String descr){
+    this(parseRow(descr), parseColumn(descr));
+  }
+
+  private static void validateDescription(String descr){
     if(descr.length() != 2){
       throw new IllegalArgumentException("error: square requires exactly 2 characters");
     }
+  }
 
-    char rowChar = Character.toUpperCase(descr.charAt(1));
+  private static int parseColumn(String descr){
+    validateDescription(descr);
     char colChar = Character.toUpperCase(descr.charAt(0));
-
     if(colChar < 'A' || colChar > 'Z'){
       throw new IllegalArgumentException("error: character \'" + colChar + "\' is not a valid column");
     }
+    return colChar - 'A' + 1;
+  }
 
+  private static int parseRow(String descr){
+    validateDescription(descr);
+    char rowChar = Character.toUpperCase(descr.charAt(1));
     if(!Character.isDigit(rowChar)){
       throw new IllegalArgumentException("error: character \'" + rowChar + "\' is not a valid column");
     }
+    return Character.getNumericValue(rowChar);
+  }
 
-    this.column = colChar - 'A' + 1;
-    this.row = Character.getNumericValue(rowChar);
+  private static int toPoolIndex(int row, int column){
+    return (row - MIN_COORDINATE) * POOL_WIDTH + (column - MIN_COORDINATE);
+  }
+
+  /**
+   * get the canonical square at a row and column
+   * squares far off board are not pooled and are allocated on each call
+   * @param row
+   * @param column
+   * @return square
+   */
+  public static Square of(int row, int column){
+    if(row < MIN_COORDINATE || row > MAX_COORDINATE || column < MIN_COORDINATE || column > MAX_COORDINATE){
+      return new Square(row, column);
+    }
+    return POOL[toPoolIndex(row, column)];
+  }
+
+  /**
+   * get the canonical square of a square index on an 8 x 8 board
+   * @param index a1 is 0, b1 is 1, ..., h8 is 63
+   * @return square
+   */
+  public static Square of(int index){
+    if(index < 0 || index >= BY_INDEX.length){
+      throw new IllegalArgumentException("error: square index " + index + " is out of range");
+    }
+    return BY_INDEX[index];
+  }
+
+  /**
+   * get the canonical square described by a string, e.g. "e4"
+   * @param descr
+   * @return square
+   */
+  public static Square of(String descr){
+    return of(parseRow(descr), parseColumn(descr));
   }
 
   public int getRow(){
@@ -37,6 +111,15 @@ public class Square{
     return this.column;
   }
 
+  /**
+   * index of the square on an 8 x 8 board, a1 is 0, b1 is 1, ..., h8 is 63
+   * only meaningful for squares on board
+   * @return square index
+   */
+  public int getIndex(){
+    return this.index;
+  }
+
   /**
    * assuming the square is empty, check if team pieces can move to it
    * @param isWhite true if white
@@ -47,16 +130,32 @@ public class Square{
     if(board.whatIsAtSquare(this) != null){
       throw new IllegalArgumentException("the square under cover check is not empty");
     }
-    for(Piece teamPiece: board.getTeamPieces(isWhite)){
-      if(teamPiece.canCover(board).contains(this)){
-        return true;
-      }
+    return this.canBeCoveredBy(isWhite, board);
+  }
+
+  /**
+   * check if team pieces can move to or capture at the square
+   * @param isWhite true if white
+   * @param board board
+   * @return true if can be covered by that team
+   */
+  public boolean canBeCoveredBy(boolean isWhite, Board board){
+    if(!board.isSquareOnBoard(this)){
+      return false;
     }
-    return false;
+    // a team does not cover squares taken by its own pieces
+    Piece p = board.whatIsAtSquare(this);
+    if(p != null && p.isWhitePiece() == isWhite){
+      return false;
+    }
+    return (board.getAttackMap(isWhite) & (1L << this.index)) != 0;
   }
 
   @Override
   public boolean equals(Object o) {
+    if(o == this){
+      return true;
+    }
     if(o.getClass().equals(this.getClass())){
       Square rhs = (Square)o;
       return this.row == rhs.row && this.column == rhs.column;
@@ -66,7 +165,7 @@ public class Square{
 
   @Override
   public int hashCode(){
-    return this.toString().hashCode();
+    return this.hash;
   }
 
   @Override
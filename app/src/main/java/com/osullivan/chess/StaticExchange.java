@@ -0,0 +1,109 @@
+package com.osullivan.chess;
+
+/**
+ * static exchange evaluation: the material a move wins or loses once both sides
+ * have made every recapture on its destination square that pays for them,
+ * each side capturing with its least valuable piece first
+ * the exchange is played out on bitboards alone, so the board is never touched,
+ * and a slider behind a capturing piece joins in once that piece has gone (x-rays)
+ * pins are not taken into account
+ * each search has its own instance, whose swap list is reused by every evaluation
+ */
+public final class StaticExchange {
+  // the King is worth more than anything it could win, so it only captures last
+  private static final int[] VALUES = {100, 320, 330, 500, 900, 20000};
+  // one gain per capture in the exchange, there are never more than 32 pieces
+  private static final int MAX_CAPTURES = 33;
+
+  // gain of each capture in the exchange, from the side making it
+  private final int[] gain;
+
+  public StaticExchange(){
+    this.gain = new int[MAX_CAPTURES];
+  }
+
+  /**
+   * @param board
+   * @param sq square index
+   * @param occupancy squares taken, pieces missing from it neither attack nor block
+   * @return squares of the pieces of either team that attack the square
+   */
+  static long attackersTo(Board board, int sq, long occupancy){
+    long bishops = board.getPieceBitboard(true, Piece.BISHOP) | board.getPieceBitboard(false, Piece.BISHOP)
+      | board.getPieceBitboard(true, Piece.QUEEN) | board.getPieceBitboard(false, Piece.QUEEN);
+    long rooks = board.getPieceBitboard(true, Piece.ROOK) | board.getPieceBitboard(false, Piece.ROOK)
+      | board.getPieceBitboard(true, Piece.QUEEN) | board.getPieceBitboard(false, Piece.QUEEN);
+    long attackers = (Attacks.pawnAttacks(false, sq) & board.getPieceBitboard(true, Piece.PAWN))
+      | (Attacks.pawnAttacks(true, sq) & board.getPieceBitboard(false, Piece.PAWN))
+      | (Attacks.knightAttacks(sq) & (board.getPieceBitboard(true, Piece.KNIGHT) | board.getPieceBitboard(false, Piece.KNIGHT)))
+      | (Attacks.kingAttacks(sq) & (board.getPieceBitboard(true, Piece.KING) | board.getPieceBitboard(false, Piece.KING)))
+      | (Attacks.bishopAttacks(sq, occupancy) & bishops)
+      | (Attacks.rookAttacks(sq, occupancy) & rooks);
+    return attackers & occupancy;
+  }
+
+  /**
+   * @param board position the move is legal in
+   * @param move packed move
+   * @return material the side to move wins by the move and the exchange that follows,
+   * in centipawns, negative if it loses material
+   */
+  public int evaluate(Board board, int move){
+    int from = PackedMove.getFrom(move);
+    int to = PackedMove.getTo(move);
+    boolean side = board.isWhiteToMove();
+    int promotion = PackedMove.getPromotion(move);
+
+    long occupancy = board.getOccupancy() ^ (1L << from);
+    int[] gain = this.gain;
+    gain[0] = 0;
+    if(PackedMove.isEnPassant(move)){
+      gain[0] = VALUES[Piece.PAWN];
+      occupancy ^= 1L << (side ? to - 8 : to + 8);
+    }
+    else if(PackedMove.isCapture(move)){
+      gain[0] = VALUES[MoveOrdering.pieceTypeAt(board, !side, to)];
+    }
+    // the piece left standing on the square, to be captured next
+    int target = MoveOrdering.pieceTypeAt(board, side, from);
+    if(promotion != 0){
+      gain[0] += VALUES[promotion] - VALUES[Piece.PAWN];
+      target = promotion;
+    }
+    if(target == Piece.KING || PackedMove.isCastle(move)){
+      // a legal King move can never be recaptured
+      return gain[0];
+    }
+
+    long attackers = attackersTo(board, to, occupancy);
+    int d = 0;
+    while(true){
+      d++;
+      side = !side;
+      // gain if the side now on turn captures the target, before any answer
+      gain[d] = VALUES[target] - gain[d - 1];
+      long own = attackers & board.getTeamOccupancy(side);
+      if(own == 0){
+        break;
+      }
+      int type = Piece.PAWN;
+      long bit = 0;
+      for(; type <= Piece.KING; type++){
+        long pieces = own & board.getPieceBitboard(side, type);
+        if(pieces != 0){
+          bit = Long.lowestOneBit(pieces);
+          break;
+        }
+      }
+      occupancy ^= bit;
+      // sliders lined up behind the captured piece now see the square
+      attackers = attackersTo(board, to, occupancy);
+      target = type;
+    }
+    // the last speculative gain was never played, each side stops the exchange if it pays to
+    while(--d > 0){
+      gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+    }
+    return gain[0];
+  }
+}
@@ -51,42 +51,8 @@ public class TextPlayer extends Player {
   }
 
   protected String tryExecuteMove(Move move) throws IOException{
-    String errMsg;
-    // check squares on board
-    errMsg = this.areMoveSquaresValid(move);
-    if(errMsg != null){
-      return errMsg;
-    }
-
-    // try castle
-    Move expectedQueenSideCastleMove = new Move(this.isWhite ? "e1c1" : "e8c8");
-    Move expectedKingSideCastelMove = new Move(this.isWhite ? "e1g1" : "e8g8");
-    if(move.equals(expectedQueenSideCastleMove)){
-      errMsg = this.tryQueenSideCastle();
-      if(errMsg == null){
-        return null;
-      }
-    }
-    else if(move.equals(expectedKingSideCastelMove)){
-      errMsg = this.tryKingSideCastle();
-      if(errMsg == null){
-        return null;
-      }
-    }
-
-    // try normal moves
-    errMsg = this.tryMakeNormalMove(move);
-    if(errMsg == null){
-      return null;
-    }
-
-    // try en passant
-    errMsg = this.tryEnPassant(move);
-    if(errMsg == null){
-      return null;
-    }
-
-    return errMsg;
+    // castling, en passant and promotion are all in the legal move list
+    return this.tryMakeMove(move);
   }
 
   @Override
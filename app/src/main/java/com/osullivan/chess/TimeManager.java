@@ -0,0 +1,135 @@
+package com.osullivan.chess;
+
+/**
+ * clock of a computer player, which turns the time control into search limits for each move
+ * sudden death: all moves in a fixed time
+ * increment: a fixed time, and more after each move
+ * move time: a fixed time for each move
+ * each move gets a soft limit, after which the search starts no new iteration,
+ * and a hard limit, at which it is cut off, so a move never takes longer than the hard limit
+ * and the time it takes the search to notice it
+ */
+public class TimeManager {
+  // moves the remaining time is shared out over, as the game is not expected to end soon
+  private static final int MOVES_TO_GO = 30;
+  // a move may take at most this share of the remaining time
+  private static final int MAX_SHARE = 4;
+  // a move may overrun its soft limit this many times, to finish an iteration
+  private static final int HARD_FACTOR = 4;
+  public static final long DEFAULT_MOVE_OVERHEAD = 10;
+
+  private final long incrementMillis;
+  private final long moveMillis;
+  private long remainingMillis;
+  // kept back from every move, for the time between the deadline and the move being played
+  private long moveOverhead;
+
+  private TimeManager(long remainingMillis, long incrementMillis, long moveMillis){
+    this.remainingMillis = remainingMillis;
+    this.incrementMillis = incrementMillis;
+    this.moveMillis = moveMillis;
+    this.moveOverhead = DEFAULT_MOVE_OVERHEAD;
+  }
+
+  /**
+   * @param millis time for the whole game
+   * @return clock for a sudden death time control
+   */
+  public static TimeManager suddenDeath(long millis){
+    return increment(millis, 0);
+  }
+
+  /**
+   * @param millis time for the whole game, before increments
+   * @param incrementMillis time added after each move
+   * @return clock for an increment time control
+   */
+  public static TimeManager increment(long millis, long incrementMillis){
+    if(millis <= 0 || incrementMillis < 0){
+      throw new IllegalArgumentException("invalid time control " + millis + "+" + incrementMillis + " ms");
+    }
+    return new TimeManager(millis, incrementMillis, 0);
+  }
+
+  /**
+   * @param millis time for each move
+   * @return clock for a fixed time per move
+   */
+  public static TimeManager moveTime(long millis){
+    if(millis <= 0){
+      throw new IllegalArgumentException("invalid move time " + millis + " ms");
+    }
+    return new TimeManager(0, 0, millis);
+  }
+
+  public boolean isMoveTime(){
+    return this.moveMillis > 0;
+  }
+
+  /**
+   * @return time left on the clock, the time per move for a move time control
+   */
+  public long getRemainingMillis(){
+    return this.isMoveTime() ? this.moveMillis : this.remainingMillis;
+  }
+
+  public long getIncrementMillis(){
+    return this.incrementMillis;
+  }
+
+  public long getMoveOverhead(){
+    return this.moveOverhead;
+  }
+
+  /**
+   * @param moveOverhead time kept back from every move, in milliseconds
+   */
+  public void setMoveOverhead(long moveOverhead){
+    if(moveOverhead < 0){
+      throw new IllegalArgumentException("move overhead must not be negative");
+    }
+    this.moveOverhead = moveOverhead;
+  }
+
+  /**
+   * @return true if the clock has run out
+   */
+  public boolean isFlagged(){
+    return !this.isMoveTime() && this.remainingMillis <= 0;
+  }
+
+  /**
+   * share out the clock for the next move
+   * @param limits depth and node limits to keep, their time limit is replaced
+   * @return limits with the soft and hard time limit of the move, at least 1 ms each
+   */
+  public SearchLimits allocate(SearchLimits limits){
+    long hard;
+    long soft;
+    if(this.isMoveTime()){
+      // the whole move time is used, so there is no reason to stop early
+      hard = this.moveMillis - this.moveOverhead;
+      soft = hard;
+    }
+    else{
+      long available = this.remainingMillis - this.moveOverhead;
+      soft = available / MOVES_TO_GO + this.incrementMillis * 3 / 4;
+      hard = Math.min(soft * HARD_FACTOR, available / MAX_SHARE + this.incrementMillis);
+      hard = Math.min(hard, available);
+      soft = Math.min(soft, hard);
+    }
+    hard = Math.max(hard, 1);
+    soft = Math.max(soft, 1);
+    return new SearchLimits(limits.getDepth(), limits.getNodes(), soft, hard);
+  }
+
+  /**
+   * charge a move to the clock
+   * @param elapsedMillis time the move took
+   */
+  public void moveMade(long elapsedMillis){
+    if(!this.isMoveTime()){
+      this.remainingMillis += this.incrementMillis - elapsedMillis;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package com.osullivan.chess;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * hash table of search results by Zobrist key, shared by every thread of a search without locks
+ * the table lives off the Java heap in direct buffers, so a large table adds no work for the
+ * garbage collector, and it is split into buckets of four entries that share a cache line
+ * an entry is two longs, the key XORed with the data and the data itself,
+ * so an entry torn by two threads writing at once fails the key check and reads as a miss
+ * data layout, from the low bits:
+ * move 0-18, score + 32768 19-34, depth 35-41, bound 42-43, age 44-49
+ */
+public class TranspositionTable {
+  public static final int DEFAULT_MEGABYTES = 16;
+
+  // bounds, never 0 so a stored entry is never 0
+  public static final int EXACT = 1;
+  public static final int LOWER = 2;
+  public static final int UPPER = 3;
+
+  private static final int ENTRY_BYTES = 16;
+  private static final int BUCKET_ENTRIES = 4;
+  private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+  // a direct buffer holds at most 2 GB, larger tables are split over several
+  private static final int SEGMENT_SHIFT = 30;
+  private static final int AGE_MASK = 0x3F;
+  // entries sampled for hashfull, as in the UCI protocol
+  private static final int HASHFULL_SAMPLE = 1000;
+
+  private final ByteBuffer[] segments;
+  private final long bucketMask;
+  private final int megabytes;
+  // incremented by every new search, so entries of old searches are replaced first
+  private volatile int age;
+
+  /**
+   * @param megabytes size of the table, rounded down to a power of two buckets
+   */
+  public TranspositionTable(int megabytes){
+    if(megabytes < 1){
+      throw new IllegalArgumentException("table size must be at least 1 MB");
+    }
+    long buckets = Long.highestOneBit((long)megabytes * (1 << 20) / BUCKET_BYTES);
+    long bytes = buckets * BUCKET_BYTES;
+    int segmentCount = (int)Math.max(1, bytes >>> SEGMENT_SHIFT);
+    this.segments = new ByteBuffer[segmentCount];
+    for(int i = 0; i < segmentCount; i++){
+      int segmentBytes = (int)Math.min(bytes, 1L << SEGMENT_SHIFT);
+      this.segments[i] = ByteBuffer.allocateDirect(segmentBytes).order(ByteOrder.nativeOrder());
+    }
+    this.bucketMask = buckets - 1;
+    this.megabytes = megabytes;
+    this.age = 0;
+  }
+
+  public int getMegabytes(){
+    return this.megabytes;
+  }
+
+  /**
+   * @return number of entries
+   */
+  public long size(){
+    return (this.bucketMask + 1) * BUCKET_ENTRIES;
+  }
+
+  /**
+   * start a new search, entries of earlier searches become the first to be replaced
+   */
+  public void newSearch(){
+    this.age = (this.age + 1) & AGE_MASK;
+  }
+
+  /**
+   * @param bucket
+   * @return byte offset of the bucket within its segment
+   */
+  private static int offsetOf(long bucket){
+    return (int)((bucket * BUCKET_BYTES) & ((1L << SEGMENT_SHIFT) - 1));
+  }
+
+  private ByteBuffer segmentOf(long bucket){
+    return this.segments[(int)((bucket * BUCKET_BYTES) >>> SEGMENT_SHIFT)];
+  }
+
+  /**
+   * @param key Zobrist key
+   * @return data stored for the position, 0 if none
+   */
+  public long probe(long key){
+    long bucket = key & this.bucketMask;
+    ByteBuffer segment = this.segmentOf(bucket);
+    int offset = offsetOf(bucket);
+    for(int i = 0; i < BUCKET_ENTRIES; i++, offset += ENTRY_BYTES){
+      long data = segment.getLong(offset + 8);
+      if((segment.getLong(offset) ^ data) == key && data != 0){
+        return data;
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * store a search result
+   * an entry of the same position is overwritten unless it holds a deeper bound,
+   * otherwise the bucket's entry of the oldest search and least depth is replaced
+   * @param key Zobrist key
+   * @param move best move, PackedMove.NONE if none
+   * @param score score for the side to move
+   * @param depth depth searched
+   * @param bound EXACT, LOWER or UPPER
+   */
+  public void store(long key, int move, int score, int depth, int bound){
+    long bucket = key & this.bucketMask;
+    ByteBuffer segment = this.segmentOf(bucket);
+    int base = offsetOf(bucket);
+    int age = this.age;
+
+    int target = base;
+    int worstValue = Integer.MAX_VALUE;
+    for(int i = 0, offset = base; i < BUCKET_ENTRIES; i++, offset += ENTRY_BYTES){
+      long old = segment.getLong(offset + 8);
+      if(old == 0){
+        target = offset;
+        break;
+      }
+      if((segment.getLong(offset) ^ old) == key){
+        if(getDepth(old) > depth && bound != EXACT){
+          if(move != PackedMove.NONE && getMove(old) == PackedMove.NONE){
+            // keep the deeper result, but remember a best move for it
+            old |= move & 0x7FFFFL;
+            segment.putLong(offset, key ^ old);
+            segment.putLong(offset + 8, old);
+          }
+          return;
+        }
+        target = offset;
+        break;
+      }
+      // entries of older searches count as shallower
+      int value = getDepth(old) - 8 * ((age - getAge(old)) & AGE_MASK);
+      if(value < worstValue){
+        worstValue = value;
+        target = offset;
+      }
+    }
+
+    long data = (move & 0x7FFFFL)
+      | ((long)(score + 32768) << 19)
+      | ((long)Math.min(Math.max(depth, 0), 127) << 35)
+      | ((long)bound << 42)
+      | ((long)age << 44);
+    segment.putLong(target, key ^ data);
+    segment.putLong(target + 8, data);
+  }
+
+  /**
+   * @return permille of sampled entries written by the current search
+   */
+  public int hashfull(){
+    int age = this.age;
+    int sample = (int)Math.min(HASHFULL_SAMPLE, this.size());
+    ByteBuffer segment = this.segments[0];
+    int used = 0;
+    for(int i = 0; i < sample; i++){
+      long data = segment.getLong(i * ENTRY_BYTES + 8);
+      if(data != 0 && getAge(data) == age){
+        used++;
+      }
+    }
+    return used * 1000 / sample;
+  }
+
+  /**
+   * forget every entry
+   */
+  public void clear(){
+    for(ByteBuffer segment: this.segments){
+      for(int offset = 0; offset < segment.capacity(); offset += 8){
+        segment.putLong(offset, 0L);
+      }
+    }
+    this.age = 0;
+  }
+
+  public static int getMove(long data){
+    return (int)(data & 0x7FFFF);
+  }
+
+  public static int getScore(long data){
+    return (int)((data >>> 19) & 0xFFFF) - 32768;
+  }
+
+  public static int getDepth(long data){
+    return (int)((data >>> 35) & 0x7F);
+  }
+
+  public static int getBound(long data){
+    return (int)((data >>> 42) & 0x3);
+  }
+
+  public static int getAge(long data){
+    return (int)((data >>> 44) & AGE_MASK);
+  }
+}
@@ -0,0 +1,111 @@
+package com.osullivan.chess;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Zobrist keys for hashing positions
+ * a position key is the XOR of the keys of every piece on its square,
+ * the side to move, the castling rights and the en passant file,
+ * so each change to the position is applied by XOR-ing its keys in or out
+ */
+public final class Zobrist {
+  // fixed seed so keys, and anything stored under them, are stable between runs
+  private static final long SEED = 0x2545F4914F6CDD1DL;
+
+  // indexed by [color * 6 + piece type][square index]
+  private static final long[][] PIECE_KEYS = new long[12][64];
+  private static final long BLACK_TO_MOVE_KEY;
+  // indexed by castling rights bits
+  private static final long[] CASTLING_KEYS = new long[16];
+  // indexed by column - 1
+  private static final long[] EN_PASSANT_KEYS = new long[8];
+
+  static {
+    Random random = new Random(SEED);
+    for(int i = 0; i < PIECE_KEYS.length; i++){
+      for(int j = 0; j < 64; j++){
+        PIECE_KEYS[i][j] = random.nextLong();
+      }
+    }
+    BLACK_TO_MOVE_KEY = random.nextLong();
+    // rights are hashed as one key per right, so removing a right is one XOR
+    long[] rightKeys = new long[4];
+    for(int i = 0; i < rightKeys.length; i++){
+      rightKeys[i] = random.nextLong();
+    }
+    for(int rights = 0; rights < CASTLING_KEYS.length; rights++){
+      for(int i = 0; i < rightKeys.length; i++){
+        if((rights & (1 << i)) != 0){
+          CASTLING_KEYS[rights] ^= rightKeys[i];
+        }
+      }
+    }
+    for(int i = 0; i < EN_PASSANT_KEYS.length; i++){
+      EN_PASSANT_KEYS[i] = random.nextLong();
+    }
+  }
+
+  private Zobrist(){
+  }
+
+  /**
+   * key of a piece standing on a square
+   * @param p piece, its square must be on board
+   * @return key
+   */
+  public static long pieceKey(Piece p){
+    return PIECE_KEYS[(p.isWhitePiece() ? 0 : 6) + p.getType()][p.getSquare().getIndex()];
+  }
+
+  /**
+   * key XOR-ed in when black is to move
+   * @return key
+   */
+  public static long blackToMoveKey(){
+    return BLACK_TO_MOVE_KEY;
+  }
+
+  /**
+   * key of a set of castling rights
+   * @param rights bits of Board.WHITE_KING_SIDE etc.
+   * @return key
+   */
+  public static long castlingKey(int rights){
+    return CASTLING_KEYS[rights];
+  }
+
+  /**
+   * key of the en passant square, only its file is hashed
+   * @param enPassantSquare square, null if none
+   * @return key
+   */
+  public static long enPassantKey(Square enPassantSquare){
+    if(enPassantSquare == null){
+      return 0L;
+    }
+    return EN_PASSANT_KEYS[enPassantSquare.getColumn() - 1];
+  }
+
+  /**
+   * compute the key of a board from scratch
+   * boards keep their key up to date incrementally, this is for checking them
+   * @param board
+   * @return key
+   */
+  public static long computeKey(Board board){
+    long key = 0L;
+    for(int color = 0; color < 2; color++){
+      List<Piece> pieces = board.getTeamPieceList(color == 0);
+      for(int i = 0; i < pieces.size(); i++){
+        key ^= pieceKey(pieces.get(i));
+      }
+    }
+    if(!board.isWhiteToMove()){
+      key ^= BLACK_TO_MOVE_KEY;
+    }
+    key ^= castlingKey(board.getCastlingRights());
+    key ^= enPassantKey(board.getEnPassantSquare());
+    return key;
+  }
+}
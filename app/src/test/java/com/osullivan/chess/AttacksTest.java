@@ -0,0 +1,117 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class AttacksTest {
+  private long helper_bits(String... squares){
+    long bits = 0L;
+    for(String s: squares){
+      bits |= 1L << Square.of(s).getIndex();
+    }
+    return bits;
+  }
+
+  /**
+   * walk from the piece's square one step at a time until the edge of the board or a piece,
+   * which is included if it is an enemy
+   */
+  private HashSet<Square> helper_walkRay(Piece p, Board board, int rowStep, int colStep){
+    HashSet<Square> squares = new HashSet<>();
+    int row = p.getSquare().getRow() + rowStep;
+    int col = p.getSquare().getColumn() + colStep;
+    while(row >= 1 && row <= board.getHeight() && col >= 1 && col <= board.getWidth()){
+      Piece blocker = board.whatIsAtSquare(Square.of(row, col));
+      if(blocker == null || blocker.isWhitePiece() != p.isWhitePiece()){
+        squares.add(Square.of(row, col));
+      }
+      if(blocker != null){
+        break;
+      }
+      row += rowStep;
+      col += colStep;
+    }
+    return squares;
+  }
+
+  @Test
+  public void test_rookAttacks() {
+    int d4 = Square.of("d4").getIndex();
+    assertEquals(14, Long.bitCount(Attacks.rookAttacks(d4, 0L)));
+    long occupancy = this.helper_bits("d6", "b4", "d1", "h4");
+    assertEquals(
+      this.helper_bits("d5", "d6", "c4", "b4", "d3", "d2", "d1", "e4", "f4", "g4", "h4"),
+      Attacks.rookAttacks(d4, occupancy)
+    );
+  }
+
+  @Test
+  public void test_bishopAttacks() {
+    int a1 = Square.of("a1").getIndex();
+    assertEquals(7, Long.bitCount(Attacks.bishopAttacks(a1, 0L)));
+    assertEquals(this.helper_bits("b2", "c3"), Attacks.bishopAttacks(a1, this.helper_bits("c3", "e5")));
+    assertEquals(
+      Attacks.rookAttacks(a1, this.helper_bits("a3")) | Attacks.bishopAttacks(a1, this.helper_bits("a3")),
+      Attacks.queenAttacks(a1, this.helper_bits("a3"))
+    );
+  }
+
+  @Test
+  public void test_leaperAttacks() {
+    assertEquals(this.helper_bits("b3", "c2"), Attacks.knightAttacks(Square.of("a1").getIndex()));
+    assertEquals(8, Long.bitCount(Attacks.knightAttacks(Square.of("e4").getIndex())));
+    assertEquals(this.helper_bits("g8", "g7", "h7"), Attacks.kingAttacks(Square.of("h8").getIndex()));
+    assertEquals(this.helper_bits("d3", "f3"), Attacks.pawnAttacks(true, Square.of("e2").getIndex()));
+    assertEquals(this.helper_bits("b6"), Attacks.pawnAttacks(false, Square.of("a7").getIndex()));
+    assertThrows(IllegalArgumentException.class, () -> Attacks.attacks(6, true, 0, 0L));
+  }
+
+  /**
+   * magic lookups must agree with walking the rays square by square
+   */
+  @Test
+  public void test_matchesRayWalking() {
+    Random random = new Random(42);
+    for(int n = 0; n < 200; n++){
+      HashSet<Piece> pieces = new HashSet<>();
+      long occupancy = random.nextLong() & random.nextLong();
+      for(long bits = occupancy; bits != 0; bits &= bits - 1){
+        pieces.add(new Pawn("P", false, Square.of(Long.numberOfTrailingZeros(bits))));
+      }
+      int sq = random.nextInt(64);
+      Piece queen = new Queen("Q", true, Square.of(sq));
+      pieces.removeIf(p -> p.getSquare().equals(queen.getSquare()));
+      pieces.add(queen);
+      Board board = new ChessBoard(8, 8, pieces);
+
+      HashSet<Square> expected = new HashSet<>();
+      for(int rowStep = -1; rowStep <= 1; rowStep++){
+        for(int colStep = -1; colStep <= 1; colStep++){
+          if(rowStep != 0 || colStep != 0){
+            expected.addAll(this.helper_walkRay(queen, board, rowStep, colStep));
+          }
+        }
+      }
+      assertEquals(expected, queen.canMoveTo(board));
+    }
+  }
+
+  @Test
+  public void test_smallBoard() {
+    HashSet<Piece> pieces = new HashSet<>();
+    Piece rook = new Rook("R", true, Square.of("a1"), true);
+    pieces.add(rook);
+    Board board = new ChessBoard(3, 2, pieces);
+    assertEquals(this.helper_bits("a1", "b1", "c1", "a2", "b2", "c2"), board.getBoardMask());
+    HashSet<Square> expected = new HashSet<>();
+    expected.add(Square.of("b1"));
+    expected.add(Square.of("c1"));
+    expected.add(Square.of("a2"));
+    assertEquals(expected, rook.canMoveTo(board));
+  }
+}
@@ -0,0 +1,286 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class BitboardBoardTest {
+  @Test
+  public void test_defaultConstructor(){
+    Board board = new BitboardBoard(5, 4, new HashSet<>());
+    assertEquals(4, board.getHeight());
+    assertEquals(5, board.getWidth());
+
+    for(int i = 1; i <= board.getHeight(); i++){
+      for(int j = 1; j <= board.getWidth(); j++){
+        Square square = new Square(i, j);
+        assertNull(board.whatIsAtSquare(square));
+      }
+    }
+  }
+
+  @Test
+  public void test_constructor_invalidSize(){
+    assertThrows(IllegalArgumentException.class, () -> new BitboardBoard(9, 8, new HashSet<>()));
+    assertThrows(IllegalArgumentException.class, () -> new BitboardBoard(8, 0, new HashSet<>()));
+  }
+
+  private void helper_test_testConstructor_invalid(String squareStr, int expectedBoardWidth, int expectedBoardHeight){
+    HashSet<Piece> pieces = new HashSet<>();
+    Piece r1 = new Rook("R", true, new Square(squareStr), true);
+
+    pieces.add(r1);
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new BitboardBoard(expectedBoardWidth, expectedBoardHeight, pieces)
+    );
+  }
+
+  @Test
+  public void test_testConstructor_invalid(){
+    this.helper_test_testConstructor_invalid("d3", 3, 4);
+    this.helper_test_testConstructor_invalid("c5", 3, 4);
+    this.helper_test_testConstructor_invalid("c9", 8, 8);
+    this.helper_test_testConstructor_invalid("i5", 8, 8);
+  }
+
+  @Test
+  public void test_defaultSetup(){
+    BitboardBoard board = new BitboardBoard(8, 8);
+    assertEquals(0xFFFFL, board.getTeamOccupancy(true));
+    assertEquals(0xFFFFL << 48, board.getTeamOccupancy(false));
+    assertEquals(0xFFFF00000000FFFFL, board.getOccupancy());
+    assertEquals(0xFF00L, board.getPieceBitboard(true, Piece.PAWN));
+    assertEquals(0x42L << 56, board.getPieceBitboard(false, Piece.KNIGHT));
+    assertEquals(0x10L, board.getPieceBitboard(true, Piece.KING));
+    assertEquals(16, board.getTeamPieces(true).size());
+    assertEquals(16, board.getTeamPieces(false).size());
+  }
+
+  @Test
+  public void test_whatIsAtSquare(){
+    HashSet<Piece> pieces = new HashSet<>();
+    Rook r1 = new Rook("R", true, new Square("a1"), true);
+    Rook r2 = new Rook("R", true, new Square("b4"), true);
+
+    pieces.add(r1);
+    pieces.add(r2);
+
+    Board board = new BitboardBoard(8, 8, pieces);
+
+    assertSame(r1, board.whatIsAtSquare(new Square("a1")));
+    assertSame(r2, board.whatIsAtSquare(new Square("b4")));
+    assertNull(board.whatIsAtSquare(new Square("b5")));
+    assertNull(board.whatIsAtSquare(new Square(0, 3)));
+  }
+
+  @Test
+  public void test_getTeamPieces() {
+    HashSet<Piece> pieces = new HashSet<>();
+    Piece p1 = new Rook("R", true, new Square("a1"), true);
+    Piece p2 = new Knight("N", false, new Square("a2"));
+    Piece p3 = new Bishop("B", true, new Square("a3"));
+    Piece p4 = new Queen("Q", false, new Square("a4"));
+    pieces.add(p1);
+    pieces.add(p2);
+    pieces.add(p3);
+    pieces.add(p4);
+    Board b = new BitboardBoard(8, 8, pieces);
+
+    HashSet<Piece> whitePieces = new HashSet<>();
+    whitePieces.add(p1);
+    whitePieces.add(p3);
+
+    HashSet<Piece> blackPieces = new HashSet<>();
+    blackPieces.add(p2);
+    blackPieces.add(p4);
+
+    assertEquals(whitePieces, b.getTeamPieces(true));
+    assertEquals(blackPieces, b.getTeamPieces(false));
+  }
+
+  @Test
+  public void test_tryAddPiece() {
+    BitboardBoard b = new BitboardBoard(8, 8, new HashSet<>());
+    Piece p1 = new Knight("K", true, new Square("a1"));
+    Piece p2 = new Knight("K", true, new Square(5, 9));
+    Piece p3 = new Bishop("B", false, new Square("a1"));
+
+    assertTrue(b.tryAddPiece(p1));
+    assertFalse(b.tryAddPiece(p2));
+    assertFalse(b.tryAddPiece(p3));
+
+    assertEquals(p1, b.whatIsAtSquare(new Square("a1")));
+    assertEquals(1L, b.getPieceBitboard(true, Piece.KNIGHT));
+    assertEquals(0L, b.getPieceBitboard(false, Piece.BISHOP));
+  }
+
+  @Test
+  public void test_tryRemovePiece() {
+    BitboardBoard b = new BitboardBoard(8, 8, new HashSet<>());
+    Piece p1 = new Knight("K", true, new Square("a1"));
+    Piece p2 = new Bishop("B", true, new Square("a2"));
+    b.tryAddPiece(p1);
+
+    assertEquals(p1, b.whatIsAtSquare(new Square("a1")));
+    assertTrue(b.tryRemovePiece(p1));
+    assertFalse(b.tryRemovePiece(p2));
+    assertFalse(b.tryRemovePiece(p1));
+    assertEquals(new HashSet<>(), b.getTeamPieces(true));
+    assertEquals(0L, b.getOccupancy());
+  }
+
+  @Test
+  public void test_tryMovePiece() {
+    BitboardBoard b = new BitboardBoard(8, 8, new HashSet<>());
+    Piece p1 = new Knight("N", true, new Square("a1"));
+    Piece p2 = new Bishop("B", false, new Square("c2"));
+    Piece p3 = new Bishop("B", false, new Square("h8"));
+    b.tryAddPiece(p1);
+    b.tryAddPiece(p2);
+
+    assertFalse(b.tryMovePiece(p1, new Square("c2")));
+    assertFalse(b.tryMovePiece(p1, new Square(0, 2)));
+    assertFalse(b.tryMovePiece(p3, new Square("h7")));
+    assertTrue(b.tryMovePiece(p1, new Square("b3")));
+
+    assertEquals(new Square("b3"), p1.getSquare());
+    assertNull(b.whatIsAtSquare(new Square("a1")));
+    assertSame(p1, b.whatIsAtSquare(new Square("b3")));
+    assertEquals(1L << 17, b.getPieceBitboard(true, Piece.KNIGHT));
+    assertEquals((1L << 17) | (1L << 10), b.getOccupancy());
+  }
+
+  @Test
+  public void test_dropInReplacement() throws IOException {
+    // same Italian game opening on both boards should render the same
+    Board bitboard = new BitboardBoard(8, 8);
+    Board chessBoard = new ChessBoard(8, 8);
+    String[] moves = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "e1g1", "g8f6", "f3e5", "c6e5"};
+
+    Player[] bitboardPlayers = {new TextPlayer(true, bitboard), new TextPlayer(false, bitboard)};
+    Player[] chessBoardPlayers = {new TextPlayer(true, chessBoard), new TextPlayer(false, chessBoard)};
+    for(int i = 0; i < moves.length; i++){
+      Move move = new Move(moves[i]);
+      if(moves[i].equals("e1g1")){
+        assertNull(bitboardPlayers[i % 2].tryKingSideCastle());
+        assertNull(chessBoardPlayers[i % 2].tryKingSideCastle());
+      }
+      else{
+        assertNull(bitboardPlayers[i % 2].tryMakeNormalMove(move));
+        assertNull(chessBoardPlayers[i % 2].tryMakeNormalMove(move));
+      }
+      assertEquals(new BoardTextView(chessBoard).displayBoard(), new BoardTextView(bitboard).displayBoard());
+    }
+    assertEquals(15, bitboard.getTeamPieces(true).size());
+    assertEquals(15, bitboard.getTeamPieces(false).size());
+  }
+
+  @Test
+  public void test_copy() {
+    Board board = new BitboardBoard(8, 8);
+    board.makeMove(new Move("e2e4"), null);
+    board.makeMove(new Move("e7e6"), null);
+    board.makeMove(new Move("e1e2"), null);
+    board.makeMove(new Move("d7d5"), null);
+
+    Board copy = board.copy();
+    assertTrue(copy instanceof BitboardBoard);
+    assertEquals(board.getZobristKey(), copy.getZobristKey());
+    assertEquals(board.getCastlingRights(), copy.getCastlingRights());
+    assertEquals(board.getEnPassantSquare(), copy.getEnPassantSquare());
+    assertEquals(board.isWhiteToMove(), copy.isWhiteToMove());
+    assertEquals(board.getFullmoveNumber(), copy.getFullmoveNumber());
+    for(int i = 0; i < 16; i++){
+      Piece p = board.getTeamPieceList(true).get(i);
+      Piece q = copy.getTeamPieceList(true).get(i);
+      assertNotSame(p, q);
+      assertEquals(p.getSquare(), q.getSquare());
+      assertEquals(p.getMoveCounter(), q.getMoveCounter());
+      assertEquals(p.getType(), q.getType());
+    }
+
+    // the copy moves on its own
+    copy.makeMove(new Move("e4d5"), null);
+    assertEquals(16, board.getTeamPieceList(false).size());
+    assertEquals(Piece.PAWN, board.whatIsAtSquare(Square.of("e4")).getType());
+    copy.unmakeMove();
+    assertEquals(board.getZobristKey(), copy.getZobristKey());
+  }
+
+  @Test
+  public void test_copyPositionFrom() {
+    Board board = new BitboardBoard(8, 8);
+    Board helper = board.copy();
+    helper.makeMove(new Move("g1f3"), null);
+    board.makeMove(new Move("e2e4"), null);
+    board.makeMove(new Move("d7d5"), null);
+    board.makeMove(new Move("e4d5"), null);
+
+    helper.copyPositionFrom(board);
+    assertEquals(board.getZobristKey(), helper.getZobristKey());
+    assertEquals(board.getOccupancy(), helper.getOccupancy());
+    assertEquals(board.getMiddlegameScore(), helper.getMiddlegameScore());
+    assertEquals(board.getGamePhase(), helper.getGamePhase());
+    assertEquals(board.isWhiteToMove(), helper.isWhiteToMove());
+    assertEquals(15, helper.getTeamPieceList(false).size());
+    assertNotSame(board.whatIsAtSquare(Square.of("d5")), helper.whatIsAtSquare(Square.of("d5")));
+
+    // the helper moves on its own, and can be set up again
+    helper.makeMove(new Move("d8d5"), null);
+    assertEquals(Piece.PAWN, board.whatIsAtSquare(Square.of("d5")).getType());
+    helper.copyPositionFrom(board);
+    assertEquals(board.getZobristKey(), helper.getZobristKey());
+    assertThrows(IllegalArgumentException.class, () -> helper.copyPositionFrom(new BitboardBoard(7, 8)));
+  }
+
+  @Test
+  public void test_getPreviousKeys() {
+    Board board = new BitboardBoard(8, 8);
+    long[] keys = new long[8];
+    assertEquals(0, board.getPreviousKeys(keys));
+
+    long start = board.getZobristKey();
+    board.makeMove(new Move("g1f3"), null);
+    long afterKnight = board.getZobristKey();
+    board.makeMove(new Move("g8f6"), null);
+    assertEquals(2, board.getPreviousKeys(keys));
+    assertEquals(start, keys[0]);
+    assertEquals(afterKnight, keys[1]);
+
+    // a Pawn move cannot be undone, so no earlier position can repeat
+    board.makeMove(new Move("e2e4"), null);
+    assertEquals(0, board.getPreviousKeys(keys));
+    long afterPawn = board.getZobristKey();
+    board.makeMove(new Move("b8c6"), null);
+    long afterBlack = board.getZobristKey();
+    board.makeMove(new Move("f3g1"), null);
+
+    // a copy of the position keeps the keys, and adds its own moves after them
+    Board helper = new BitboardBoard(8, 8);
+    helper.copyPositionFrom(board);
+    assertEquals(2, helper.getPreviousKeys(keys));
+    assertEquals(afterPawn, keys[0]);
+    assertEquals(afterBlack, keys[1]);
+    long copied = helper.getZobristKey();
+    helper.makeMove(new Move("c6b8"), null);
+    assertEquals(3, helper.getPreviousKeys(keys));
+    assertEquals(afterPawn, keys[0]);
+    assertEquals(copied, keys[2]);
+
+    // only the most recent keys fit
+    long[] last = new long[1];
+    assertEquals(1, helper.getPreviousKeys(last));
+    assertEquals(copied, last[0]);
+  }
+}
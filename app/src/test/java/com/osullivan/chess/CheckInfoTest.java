@@ -0,0 +1,110 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class CheckInfoTest {
+  private long helper_bits(String... squares){
+    long bits = 0L;
+    for(String s: squares){
+      bits |= 1L << Square.of(s).getIndex();
+    }
+    return bits;
+  }
+
+  private boolean helper_isLegal(CheckInfo info, String move){
+    Move m = new Move(move);
+    return info.isLegal(m.getSquareFrom().getIndex(), m.getSquareTo().getIndex());
+  }
+
+  @Test
+  public void test_noCheck() {
+    CheckInfo info = new CheckInfo();
+    info.update(new ChessBoard(8, 8), true);
+    assertFalse(info.isInCheck());
+    assertEquals(0L, info.getPinned());
+    assertEquals(-1L, info.getCheckMask());
+    assertEquals(Square.of("e1").getIndex(), info.getKingIndex());
+    assertTrue(this.helper_isLegal(info, "e2e4"));
+
+    info.update(new ChessBoard(8, 8, new HashSet<>()), false);
+    assertEquals(-1, info.getKingIndex());
+    assertFalse(info.isInCheck());
+  }
+
+  @Test
+  public void test_pin() {
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Knight("N", true, Square.of("e3")));
+    pieces.add(new Bishop("B", true, Square.of("d2")));
+    pieces.add(new Rook("R", false, Square.of("e8"), true));
+    pieces.add(new Bishop("B", false, Square.of("a5")));
+    pieces.add(new King("K", false, Square.of("h8")));
+    Board board = new ChessBoard(8, 8, pieces);
+
+    CheckInfo info = new CheckInfo();
+    info.update(board, true);
+    assertFalse(info.isInCheck());
+    assertEquals(this.helper_bits("e3", "d2"), info.getPinned());
+    assertEquals(this.helper_bits("e2", "e3", "e4", "e5", "e6", "e7", "e8"), info.getPinRay(Square.of("e3").getIndex()));
+    // a pinned Knight can never move, a pinned Bishop only along the pin
+    assertFalse(this.helper_isLegal(info, "e3c4"));
+    assertFalse(this.helper_isLegal(info, "d2e3"));
+    assertTrue(this.helper_isLegal(info, "d2c3"));
+    assertTrue(this.helper_isLegal(info, "d2a5"));
+    assertTrue(this.helper_isLegal(info, "e1f1"));
+  }
+
+  @Test
+  public void test_check() {
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Rook("R", true, Square.of("a4"), false));
+    pieces.add(new Knight("N", true, Square.of("b1")));
+    pieces.add(new Queen("Q", false, Square.of("e7")));
+    pieces.add(new King("K", false, Square.of("h8")));
+    Board board = new ChessBoard(8, 8, pieces);
+
+    CheckInfo info = new CheckInfo();
+    info.update(board, true);
+    assertTrue(info.isInCheck());
+    assertEquals(this.helper_bits("e7"), info.getCheckers());
+    assertEquals(this.helper_bits("e2", "e3", "e4", "e5", "e6", "e7"), info.getCheckMask());
+    assertTrue(this.helper_isLegal(info, "a4e4"));
+    assertFalse(this.helper_isLegal(info, "a4a5"));
+    assertFalse(this.helper_isLegal(info, "b1c3"));
+    // the King cannot step back along the line of check
+    assertTrue((info.getKingDanger() & this.helper_bits("e2")) != 0);
+    assertFalse(this.helper_isLegal(info, "e1e2"));
+    assertTrue(this.helper_isLegal(info, "e1f1"));
+    assertTrue(this.helper_isLegal(info, "e1d1"));
+
+    // double check leaves only King moves
+    board.tryAddPiece(new Knight("N", false, Square.of("d3")));
+    info.update(board, true);
+    assertEquals(2, Long.bitCount(info.getCheckers()));
+    assertEquals(0L, info.getCheckMask());
+    assertFalse(this.helper_isLegal(info, "a4e4"));
+  }
+
+  @Test
+  public void test_isUnderCheckAgreesWithPlayer() {
+    Board board = new ChessBoard(8, 8);
+    board.makeMove(new Move("e2e4"), null);
+    board.makeMove(new Move("f7f6"), null);
+    board.makeMove(new Move("d1h5"), null);
+    Player black = new TextPlayer(false, board);
+    CheckInfo info = new CheckInfo();
+    info.update(board, false);
+    assertEquals(black.isUnderCheck(), info.isInCheck());
+    assertTrue(this.helper_isLegal(info, "g7g6"));
+    assertFalse(this.helper_isLegal(info, "a7a6"));
+    assertFalse(this.helper_isLegal(info, "e8f7"));
+  }
+}
@@ -2,12 +2,14 @@ package com.osullivan.chess;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -113,4 +115,379 @@ public class ChessBoardTest {
     assertFalse(b.tryRemovePiece(p1));
     assertEquals(new HashSet<>(), b.getTeamPieces(true));
   }
+
+  @Test
+  public void test_testConstructor_collision(){
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new Rook("R", true, new Square("a1"), true));
+    pieces.add(new Knight("N", false, new Square("a1")));
+    assertThrows(IllegalArgumentException.class, () -> new ChessBoard(8, 8, pieces));
+    assertThrows(IllegalArgumentException.class, () -> new ChessBoard(9, 8, new HashSet<>()));
+  }
+
+  @Test
+  public void test_isSquareOnBoard(){
+    Board b = new ChessBoard(5, 4, new HashSet<>());
+    assertTrue(b.isSquareOnBoard(new Square("a1")));
+    assertTrue(b.isSquareOnBoard(new Square("e4")));
+    assertFalse(b.isSquareOnBoard(new Square("f4")));
+    assertFalse(b.isSquareOnBoard(new Square("e5")));
+    assertFalse(b.isSquareOnBoard(new Square(0, 1)));
+    assertFalse(b.isSquareOnBoard(new Square(-1, -1)));
+    assertFalse(b.isSquareOnBoard(new Square(3, 25)));
+    assertNull(b.whatIsAtSquare(new Square(-5, 40)));
+  }
+
+  @Test
+  public void test_tryMovePiece() {
+    Board b = new ChessBoard(8, 8, new HashSet<>());
+    Piece p1 = new Knight("N", true, new Square("a1"));
+    Piece p2 = new Bishop("B", false, new Square("c2"));
+    Piece p3 = new Bishop("B", false, new Square("h8"));
+    b.tryAddPiece(p1);
+    b.tryAddPiece(p2);
+
+    assertFalse(b.tryMovePiece(p1, new Square("c2")));
+    assertFalse(b.tryMovePiece(p1, new Square(0, 2)));
+    assertFalse(b.tryMovePiece(p3, new Square("h7")));
+    assertTrue(b.tryMovePiece(p1, new Square("b3")));
+
+    assertEquals(new Square("b3"), p1.getSquare());
+    assertNull(b.whatIsAtSquare(new Square("a1")));
+    assertSame(p1, b.whatIsAtSquare(new Square("b3")));
+    assertTrue(b.tryRemovePiece(p1));
+    assertNull(b.whatIsAtSquare(new Square("b3")));
+  }
+
+  @Test
+  public void test_getTeamPieceList() {
+    Board b = new ChessBoard(8, 8, new HashSet<>());
+    Piece p1 = new Rook("R", true, new Square("a1"), true);
+    Piece p2 = new Knight("N", false, new Square("a2"));
+    Piece p3 = new Bishop("B", true, new Square("a3"));
+    Piece p4 = new Queen("Q", true, new Square("a4"));
+    b.tryAddPiece(p1);
+    b.tryAddPiece(p2);
+    b.tryAddPiece(p3);
+    b.tryAddPiece(p4);
+
+    List<Piece> whitePieces = b.getTeamPieceList(true);
+    assertEquals(List.of(p1, p3, p4), whitePieces);
+    assertEquals(List.of(p2), b.getTeamPieceList(false));
+    assertThrows(UnsupportedOperationException.class, () -> whitePieces.add(p2));
+
+    // the view follows changes to the board
+    b.tryRemovePiece(p3);
+    assertEquals(List.of(p1, p4), whitePieces);
+    b.tryMovePiece(p1, new Square("b1"));
+    assertEquals(List.of(p1, p4), whitePieces);
+  }
+
+  @Test
+  public void test_getKing() {
+    Board b = new ChessBoard(8, 8);
+    assertEquals(new Square("e1"), b.getKing(true).getSquare());
+    assertEquals(new Square("e8"), b.getKing(false).getSquare());
+
+    Piece whiteKing = b.getKing(true);
+    assertTrue(b.tryRemovePiece(whiteKing));
+    assertNull(b.getKing(true));
+    assertTrue(b.tryAddPiece(whiteKing));
+    assertSame(whiteKing, b.getKing(true));
+  }
+
+  private void helper_assertSameState(Board board, List<Piece> whitePieces, List<Piece> blackPieces, long key){
+    assertEquals(whitePieces, board.getTeamPieceList(true));
+    assertEquals(blackPieces, board.getTeamPieceList(false));
+    for(Piece p: whitePieces){
+      assertSame(p, board.whatIsAtSquare(p.getSquare()));
+    }
+    for(Piece p: blackPieces){
+      assertSame(p, board.whatIsAtSquare(p.getSquare()));
+    }
+    assertEquals(key, board.getZobristKey());
+    assertEquals(Zobrist.computeKey(board), board.getZobristKey());
+  }
+
+  @Test
+  public void test_makeMove_unmakeMove() {
+    Board board = new ChessBoard(8, 8);
+    List<Piece> whitePieces = List.copyOf(board.getTeamPieceList(true));
+    List<Piece> blackPieces = List.copyOf(board.getTeamPieceList(false));
+    long key = board.getZobristKey();
+
+    board.makeMove(new Move("e2e4"), null);
+    assertEquals(new Square("e3"), board.getEnPassantSquare());
+    assertFalse(board.isWhiteToMove());
+    assertEquals(0, board.getHalfmoveClock());
+    assertEquals(1, board.getFullmoveNumber());
+    board.makeMove(new Move("g8f6"), null);
+    assertEquals(1, board.getHalfmoveClock());
+    assertEquals(2, board.getFullmoveNumber());
+    board.makeMove(new Move("e4e5"), null);
+    board.makeMove(new Move("f6e4"), null);
+    assertEquals(2, board.whatIsAtSquare(new Square("e5")).getMoveCounter());
+
+    board.unmakeMove();
+    board.unmakeMove();
+    board.unmakeMove();
+    board.unmakeMove();
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+    assertTrue(board.isWhiteToMove());
+    assertNull(board.getEnPassantSquare());
+    assertEquals(0xF, board.getCastlingRights());
+    assertEquals(0, board.getHalfmoveClock());
+    assertEquals(1, board.getFullmoveNumber());
+    assertEquals(0, board.whatIsAtSquare(new Square("e2")).getMoveCounter());
+    assertThrows(IllegalStateException.class, ()->board.unmakeMove());
+  }
+
+  @Test
+  public void test_makeNullMove() {
+    Board board = new ChessBoard(8, 8);
+    board.makeMove(new Move("e2e4"), null);
+    List<Piece> whitePieces = List.copyOf(board.getTeamPieceList(true));
+    List<Piece> blackPieces = List.copyOf(board.getTeamPieceList(false));
+    long key = board.getZobristKey();
+
+    board.makeNullMove();
+    assertTrue(board.isWhiteToMove());
+    assertNull(board.getEnPassantSquare());
+    assertEquals(1, board.getHalfmoveClock());
+    assertEquals(2, board.getFullmoveNumber());
+    assertEquals(Zobrist.computeKey(board), board.getZobristKey());
+    board.makeMove(new Move("d2d4"), null);
+    board.unmakeMove();
+    board.unmakeMove();
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+    assertFalse(board.isWhiteToMove());
+    assertEquals(new Square("e3"), board.getEnPassantSquare());
+    assertEquals(0, board.getHalfmoveClock());
+    assertEquals(1, board.getFullmoveNumber());
+  }
+
+  @Test
+  public void test_makeMove_captureAndEnPassant() {
+    Board board = new ChessBoard(8, 8);
+    board.makeMove(new Move("e2e4"), null);
+    board.makeMove(new Move("d7d5"), null);
+    List<Piece> whitePieces = List.copyOf(board.getTeamPieceList(true));
+    List<Piece> blackPieces = List.copyOf(board.getTeamPieceList(false));
+    long key = board.getZobristKey();
+
+    Piece blackPawn = board.whatIsAtSquare(new Square("d5"));
+    board.makeMove(new Move("e4d5"), null);
+    assertEquals(15, board.getTeamPieceList(false).size());
+    board.makeMove(new Move("e7e5"), null);
+    board.makeMove(new Move("d5e6"), null);
+    assertNull(board.whatIsAtSquare(new Square("e5")));
+    assertEquals(14, board.getTeamPieceList(false).size());
+    board.unmakeMove();
+    assertSame(Piece.PAWN, board.whatIsAtSquare(new Square("e5")).getType());
+    board.unmakeMove();
+    board.unmakeMove();
+    assertSame(blackPawn, board.whatIsAtSquare(new Square("d5")));
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+    assertEquals(new Square("d6"), board.getEnPassantSquare());
+
+    assertThrows(IllegalArgumentException.class, ()->board.makeMove(new Move("e3e4"), null));
+    assertThrows(IllegalArgumentException.class, ()->board.makeMove(new Move("d1d2"), null));
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+  }
+
+  @Test
+  public void test_makeMove_castling() {
+    HashSet<Piece> pieces = new HashSet<>();
+    Piece whiteKing = new King("K", true, new Square("e1"));
+    Piece whiteRook = new Rook("R", true, new Square("h1"), true);
+    Piece blackKing = new King("K", false, new Square("e8"));
+    Piece blackRook = new Rook("R", false, new Square("a8"), true);
+    pieces.add(whiteKing);
+    pieces.add(whiteRook);
+    pieces.add(blackKing);
+    pieces.add(blackRook);
+    Board board = new ChessBoard(8, 8, pieces);
+    List<Piece> whitePieces = List.copyOf(board.getTeamPieceList(true));
+    List<Piece> blackPieces = List.copyOf(board.getTeamPieceList(false));
+    long key = board.getZobristKey();
+    assertEquals(Board.WHITE_KING_SIDE | Board.BLACK_QUEEN_SIDE, board.getCastlingRights());
+
+    board.makeMove(new Move("e1g1"), null);
+    assertSame(whiteRook, board.whatIsAtSquare(new Square("f1")));
+    assertEquals(Board.BLACK_QUEEN_SIDE, board.getCastlingRights());
+    board.makeMove(new Move("e8c8"), null);
+    assertSame(blackRook, board.whatIsAtSquare(new Square("d8")));
+    assertEquals(0, board.getCastlingRights());
+    assertEquals(Zobrist.computeKey(board), board.getZobristKey());
+
+    board.unmakeMove();
+    board.unmakeMove();
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+    assertEquals(0, whiteRook.getMoveCounter());
+    assertEquals(0, blackKing.getMoveCounter());
+    assertEquals(Board.WHITE_KING_SIDE | Board.BLACK_QUEEN_SIDE, board.getCastlingRights());
+  }
+
+  @Test
+  public void test_makeMove_promotion() {
+    HashSet<Piece> pieces = new HashSet<>();
+    Piece whitePawn = new Pawn("P", true, new Square("b7"));
+    Piece blackKnight = new Knight("N", false, new Square("a8"));
+    pieces.add(new King("K", true, new Square("e1")));
+    pieces.add(whitePawn);
+    pieces.add(new King("K", false, new Square("e8")));
+    pieces.add(blackKnight);
+    Board board = new ChessBoard(8, 8, pieces);
+    List<Piece> whitePieces = List.copyOf(board.getTeamPieceList(true));
+    List<Piece> blackPieces = List.copyOf(board.getTeamPieceList(false));
+    long key = board.getZobristKey();
+
+    Piece queen = new Queen("Q", true, null);
+    board.makeMove(new Move("b7a8"), queen);
+    assertSame(queen, board.whatIsAtSquare(new Square("a8")));
+    assertFalse(board.getTeamPieceList(true).contains(whitePawn));
+    assertEquals(1, board.getTeamPieceList(false).size());
+    assertEquals(Zobrist.computeKey(board), board.getZobristKey());
+
+    board.unmakeMove();
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+    assertSame(whitePawn, board.whatIsAtSquare(new Square("b7")));
+
+    // without a promoted piece the Pawn stays on the last rank
+    board.makeMove(new Move("b7b8"), null);
+    assertSame(whitePawn, board.whatIsAtSquare(new Square("b8")));
+    board.unmakeMove();
+    this.helper_assertSameState(board, whitePieces, blackPieces, key);
+  }
+
+  @Test
+  public void test_makeMove_growsUndoStack() {
+    Board board = new ChessBoard(8, 8);
+    long key = board.getZobristKey();
+    String[] moves = {"g1f3", "g8f6", "f3g1", "f6g8"};
+    for(int i = 0; i < 400; i++){
+      board.makeMove(new Move(moves[i % 4]), null);
+    }
+    assertEquals(key, board.getZobristKey());
+    assertEquals(201, board.getFullmoveNumber());
+    for(int i = 0; i < 400; i++){
+      board.unmakeMove();
+    }
+    assertEquals(key, board.getZobristKey());
+    assertEquals(1, board.getFullmoveNumber());
+    assertEquals(0, board.whatIsAtSquare(new Square("g1")).getMoveCounter());
+  }
+
+  @Test
+  public void test_makeMove_packed() {
+    Board board = new ChessBoard(8, 8);
+    long key = board.getZobristKey();
+    int[] moves = {
+      PackedMove.fromMove(new Move("e2e4"), board, 0),
+      PackedMove.encode(Square.of("d7").getIndex(), Square.of("d5").getIndex(), 0, PackedMove.DOUBLE_PUSH)
+    };
+    board.makeMove(moves[0]);
+    board.makeMove(moves[1]);
+    assertEquals(Piece.PAWN, board.whatIsAtSquare(Square.of("d5")).getType());
+    assertEquals(Square.of("d6"), board.getEnPassantSquare());
+    board.makeMove(PackedMove.encode(Square.of("e4").getIndex(), Square.of("d5").getIndex(), 0, PackedMove.CAPTURE));
+    assertEquals(15, board.getTeamPieceList(false).size());
+    board.unmakeMove();
+    board.unmakeMove();
+    board.unmakeMove();
+    assertEquals(key, board.getZobristKey());
+
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Pawn("P", true, Square.of("a7")));
+    pieces.add(new King("K", false, Square.of("e8")));
+    Board promotionBoard = new ChessBoard(8, 8, pieces);
+    promotionBoard.makeMove(PackedMove.encode(Square.of("a7").getIndex(), Square.of("a8").getIndex(), Piece.KNIGHT, 0));
+    Piece knight = promotionBoard.whatIsAtSquare(Square.of("a8"));
+    assertEquals(Piece.KNIGHT, knight.getType());
+    assertTrue(knight.isWhitePiece());
+    promotionBoard.unmakeMove();
+    assertEquals(Piece.PAWN, promotionBoard.whatIsAtSquare(Square.of("a7")).getType());
+    assertThrows(IllegalArgumentException.class, 
+      ()->promotionBoard.makeMove(PackedMove.encode(Square.of("a7").getIndex(), Square.of("a8").getIndex(), Piece.KING, 0)));
+  }
+
+  private void helper_assertAttackMaps(Board board){
+    for(int color = 0; color < 2; color++){
+      boolean isWhite = color == 0;
+      long expected = 0L;
+      int[] counts = new int[64];
+      for(Piece p: board.getTeamPieceList(isWhite)){
+        long attacks = p.getAttacks(board);
+        expected |= attacks;
+        for(int sq = 0; sq < 64; sq++){
+          if((attacks & (1L << sq)) != 0){
+            counts[sq]++;
+          }
+        }
+      }
+      assertEquals(expected, board.getAttackMap(isWhite));
+      for(int sq = 0; sq < 64; sq++){
+        assertEquals(counts[sq], board.getAttackerCount(Square.of(sq), isWhite));
+      }
+    }
+  }
+
+  @Test
+  public void test_attackMaps() {
+    Board board = new ChessBoard(8, 8);
+    this.helper_assertAttackMaps(board);
+    // knights b1, g1 and pawns a2, b2 both cover a3
+    assertEquals(2, board.getAttackerCount(Square.of("a3"), true));
+    assertEquals(0, board.getAttackerCount(Square.of("a4"), true));
+    long initial = board.getAttackMap(false);
+
+    String[] moves = {"e2e4", "d7d5", "e4d5", "d8d5", "b1c3", "d5a5", "f1b5", "c7c6", "g1f3", "c8g4", "e1g1"};
+    for(String m: moves){
+      board.makeMove(new Move(m), null);
+      this.helper_assertAttackMaps(board);
+    }
+    // the Bishop on b5 is attacked by the Pawn on c6 and the Queen on a5,
+    // and the Pawn on c6 blocks it from the black King
+    assertEquals(2, board.getAttackerCount(Square.of("b5"), false));
+    assertTrue(Square.of("b5").canBeCoveredBy(false, board));
+    assertFalse(Square.of("e8").canBeCoveredBy(true, board));
+    for(int i = 0; i < moves.length; i++){
+      board.unmakeMove();
+      this.helper_assertAttackMaps(board);
+    }
+    assertEquals(initial, board.getAttackMap(false));
+  }
+
+  @Test
+  public void test_copy() {
+    Board board = new ChessBoard(8, 8);
+    board.makeMove(new Move("e2e4"), null);
+    board.makeMove(new Move("e7e6"), null);
+    board.makeMove(new Move("e1e2"), null);
+    board.makeMove(new Move("d7d5"), null);
+
+    Board copy = board.copy();
+    assertTrue(copy instanceof ChessBoard);
+    assertEquals(board.getZobristKey(), copy.getZobristKey());
+    assertEquals(board.getCastlingRights(), copy.getCastlingRights());
+    assertEquals(board.getEnPassantSquare(), copy.getEnPassantSquare());
+    assertEquals(board.isWhiteToMove(), copy.isWhiteToMove());
+    assertEquals(board.getFullmoveNumber(), copy.getFullmoveNumber());
+    for(int i = 0; i < 16; i++){
+      Piece p = board.getTeamPieceList(true).get(i);
+      Piece q = copy.getTeamPieceList(true).get(i);
+      assertNotSame(p, q);
+      assertEquals(p.getSquare(), q.getSquare());
+      assertEquals(p.getMoveCounter(), q.getMoveCounter());
+      assertEquals(p.getType(), q.getType());
+    }
+
+    // the copy moves on its own
+    copy.makeMove(new Move("e4d5"), null);
+    assertEquals(16, board.getTeamPieceList(false).size());
+    assertEquals(Piece.PAWN, board.whatIsAtSquare(Square.of("e4")).getType());
+    copy.unmakeMove();
+    assertEquals(board.getZobristKey(), copy.getZobristKey());
+  }
 }
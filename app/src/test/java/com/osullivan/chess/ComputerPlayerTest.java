@@ -0,0 +1,92 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ComputerPlayerTest {
+  @Test
+  public void test_makeOneMove() throws IOException {
+    Board board = Fen.toBoard("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+    ComputerPlayer white = new ComputerPlayer(true, board, SearchLimits.depth(3));
+    ComputerPlayer black = new ComputerPlayer(false, board, SearchLimits.depth(3));
+    white.makeOneMove();
+    assertEquals(Piece.ROOK, board.whatIsAtSquare(Square.of("a8")).getType());
+    assertEquals(1, board.getMoveLog().size());
+    assertTrue(black.isCheckMate());
+    assertThrows(IllegalStateException.class, () -> black.makeOneMove());
+    assertThrows(IllegalStateException.class, () -> white.makeOneMove());
+  }
+
+  @Test
+  public void test_makeOneMove_promotion() throws IOException {
+    Board board = Fen.toBoard("8/1P4k1/8/8/8/8/8/4K3 w - - 0 1");
+    ComputerPlayer white = new ComputerPlayer(true, board, SearchLimits.depth(2));
+    white.makeOneMove();
+    assertEquals(Piece.QUEEN, board.whatIsAtSquare(Square.of("b8")).getType());
+    assertTrue(board.whatIsAtSquare(Square.of("b8")).isWhitePiece());
+  }
+
+  @Test
+  public void test_limits() {
+    Board board = new ChessBoard(8, 8);
+    ComputerPlayer white = new ComputerPlayer(true, board, SearchLimits.depth(2));
+    assertEquals(null, white.getLastResult());
+    assertEquals(2, white.think().getDepth());
+    white.setLimits(SearchLimits.nodes(100));
+    assertEquals(100, white.getLimits().getNodes());
+    assertTrue(white.think().getNodes() <= 100);
+
+    white.setLimits(SearchLimits.depth(3));
+    white.setThreads(2);
+    assertEquals(2, white.getThreads());
+    assertEquals(3, white.think().getDepth());
+    assertThrows(IllegalArgumentException.class, () -> white.setThreads(0));
+  }
+
+  @Test
+  public void test_table() {
+    Board board = new ChessBoard(8, 8);
+    try(ComputerPlayer white = new ComputerPlayer(true, board, SearchLimits.depth(2))){
+      assertEquals(ComputerPlayer.DEFAULT_MEGABYTES, white.getTable().getMegabytes());
+    }
+
+    TranspositionTable table = new TranspositionTable(2);
+    try(ComputerPlayer other = new ComputerPlayer(true, board, SearchLimits.depth(2), 1, table)){
+      ComputerPlayer shared = new ComputerPlayer(false, board, SearchLimits.depth(2), 1, table);
+      assertSame(table, shared.getTable());
+      assertSame(table, other.getTable());
+      // closing one player leaves the table of the other
+      shared.close();
+      assertEquals(2, other.think().getDepth());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new ComputerPlayer(true, board, SearchLimits.depth(2), 1, null));
+
+    // a closed player cannot search any more
+    ComputerPlayer closed = new ComputerPlayer(true, board, SearchLimits.depth(2));
+    assertEquals(2, closed.think().getDepth());
+    closed.close();
+    assertNull(closed.getTable());
+    assertThrows(IllegalStateException.class, () -> closed.think());
+  }
+
+  @Test
+  public void test_playGame() throws IOException {
+    // the engines play a mate in two out
+    Board board = Fen.toBoard("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+    Player white = new ComputerPlayer(true, board, SearchLimits.depth(4));
+    Player black = new ComputerPlayer(false, board, SearchLimits.depth(4));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new App(white, black).playGame(new PrintStream(bytes, true));
+    assertEquals("White wins!\n", bytes.toString());
+    assertEquals(3, board.getMoveLog().size());
+  }
+}
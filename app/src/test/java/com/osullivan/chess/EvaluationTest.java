@@ -0,0 +1,68 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class EvaluationTest {
+  private void helper_walk(Board board, MoveGenerator generator, MoveList[] lists, int depth){
+    assertEquals(Evaluation.evaluateFromScratch(board), Evaluation.evaluate(board), Fen.toFen(board));
+    if(depth == 0){
+      return;
+    }
+    MoveList moves = lists[depth];
+    generator.generateLegalMoves(board, board.isWhiteToMove(), moves);
+    for(int i = 0; i < moves.size(); i++){
+      board.makeMove(moves.get(i));
+      this.helper_walk(board, generator, lists, depth - 1);
+      board.unmakeMove();
+    }
+  }
+
+  @Test
+  public void test_evaluate_runningTotals() {
+    // captures, castling, en passant and promotions all keep the totals right
+    MoveList[] lists = new MoveList[4];
+    for(int i = 0; i < lists.length; i++){
+      lists[i] = new MoveList();
+    }
+    for(PerftPosition position: PerftPosition.values()){
+      Board board = position.toBoard();
+      int score = Evaluation.evaluate(board);
+      this.helper_walk(board, new MoveGenerator(), lists, 3);
+      assertEquals(score, Evaluation.evaluate(board));
+      assertEquals(Evaluation.evaluateFromScratch(board.copy()), Evaluation.evaluate(board.copy()));
+    }
+  }
+
+  @Test
+  public void test_evaluate_symmetric() {
+    Board board = Fen.toBoard(Fen.STARTING_POSITION);
+    assertEquals(0, Evaluation.evaluate(board));
+    assertEquals(Evaluation.MAX_PHASE, board.getGamePhase());
+    assertEquals(0, board.getMiddlegameScore());
+
+    // the same position with the colors swapped scores the same for the side to move
+    int white = Evaluation.evaluate(Fen.toBoard("r3k3/1pp5/8/4n3/8/2B5/PP6/2K1R3 w - - 0 1"));
+    int black = Evaluation.evaluate(Fen.toBoard("2k1r3/pp6/2b5/8/4N3/8/1PP5/R3K3 b - - 0 1"));
+    assertEquals(white, black);
+  }
+
+  @Test
+  public void test_evaluate_tapered() {
+    // no pieces but Pawns and Kings, so only the endgame score counts
+    Board board = Fen.toBoard("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+    assertEquals(0, board.getGamePhase());
+    assertEquals(board.getEndgameScore(), Evaluation.evaluate(board));
+    assertTrue(Evaluation.evaluate(board) > 0);
+    // a Pawn close to promotion is worth more in the endgame
+    Board advanced = Fen.toBoard("4k3/8/4P3/8/8/8/8/4K3 w - - 0 1");
+    assertTrue(Evaluation.evaluate(advanced) > Evaluation.evaluate(board));
+
+    board.clear();
+    assertEquals(0, board.getMiddlegameScore());
+    assertEquals(0, board.getEndgameScore());
+    assertEquals(0, board.getGamePhase());
+  }
+}
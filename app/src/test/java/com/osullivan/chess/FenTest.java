@@ -0,0 +1,105 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class FenTest {
+  @Test
+  public void test_startingPosition() {
+    Board board = Fen.toBoard(Fen.STARTING_POSITION);
+    Board expected = new ChessBoard(8, 8);
+    assertEquals(expected.getOccupancy(), board.getOccupancy());
+    assertEquals(expected.getZobristKey(), board.getZobristKey());
+    assertEquals(Board.WHITE_KING_SIDE | Board.WHITE_QUEEN_SIDE | Board.BLACK_KING_SIDE | Board.BLACK_QUEEN_SIDE,
+      board.getCastlingRights());
+    assertTrue(board.isWhiteToMove());
+    assertEquals(Fen.STARTING_POSITION, Fen.toFen(board));
+    assertEquals(Fen.STARTING_POSITION, Fen.toFen(new ChessBoard(8, 8)));
+  }
+
+  @Test
+  public void test_roundTrip() {
+    String[] positions = {
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+      "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+      "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+      "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1",
+      "4k3/8/8/8/8/8/8/R3K2R b Q - 17 42",
+    };
+    for(String fen: positions){
+      assertEquals(fen, Fen.toFen(Fen.toBoard(fen)));
+    }
+  }
+
+  @Test
+  public void test_load() {
+    Board board = Fen.toBoard("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b Kq e3 5 12");
+    assertFalse(board.isWhiteToMove());
+    assertEquals(Square.of("e3"), board.getEnPassantSquare());
+    assertEquals(Board.WHITE_KING_SIDE | Board.BLACK_QUEEN_SIDE, board.getCastlingRights());
+    assertEquals(5, board.getHalfmoveClock());
+    assertEquals(12, board.getFullmoveNumber());
+    assertEquals(1, board.whatIsAtSquare(Square.of("a1")).getMoveCounter());
+    assertEquals(0, board.whatIsAtSquare(Square.of("h1")).getMoveCounter());
+    assertEquals(Piece.PAWN, board.whatIsAtSquare(Square.of("e4")).getType());
+    assertNull(board.whatIsAtSquare(Square.of("e2")));
+  }
+
+  @Test
+  public void test_load_optionalClocks() {
+    Board board = Fen.toBoard("8/8/8/8/8/8/8/K6k w - -");
+    assertEquals(0, board.getHalfmoveClock());
+    assertEquals(1, board.getFullmoveNumber());
+    assertEquals(0, board.getCastlingRights());
+  }
+
+  @Test
+  public void test_load_reusesBoard() {
+    Board board = new ChessBoard(8, 8);
+    board.makeMove(new Move(Square.of("e2"), Square.of("e4")), null);
+    Fen.load("4k3/8/8/8/8/8/8/4K3 w - - 0 1", board);
+    assertEquals(2, Long.bitCount(board.getOccupancy()));
+    assertEquals(1, board.getTeamPieceList(true).size());
+    assertTrue(board.getMoveLog().isEmpty());
+    assertThrows(IllegalStateException.class, () -> board.unmakeMove());
+    assertEquals(Fen.toBoard("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getZobristKey(), board.getZobristKey());
+    assertEquals(Square.of("e1"), board.getKing(true).getSquare());
+
+    Fen.load(PerftPosition.KIWIPETE.getFen(), board);
+    assertEquals(PerftPosition.KIWIPETE.getExpectedNodes(2), new Perft(board).perft(2));
+  }
+
+  @Test
+  public void test_load_otherBoardSizes() {
+    Board board = new BitboardBoard(4, 3);
+    Fen.load("k3/4/3K b - - 0 1", board);
+    assertEquals(Square.of("a3"), board.getKing(false).getSquare());
+    assertEquals("k3/4/3K b - - 0 1", Fen.toFen(board));
+    assertThrows(IllegalArgumentException.class, () -> Fen.load(Fen.STARTING_POSITION, board));
+  }
+
+  @Test
+  public void test_load_invalid() {
+    String[] invalid = {
+      "",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+      "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+      "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQxq - 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e9 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+    };
+    for(String fen: invalid){
+      assertThrows(IllegalArgumentException.class, () -> Fen.toBoard(fen), fen);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+public class LazySmpTest {
+  @Test
+  public void test_search() {
+    for(int threads = 1; threads <= 4; threads++){
+      Board board = Fen.toBoard("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+      long key = board.getZobristKey();
+      try(LazySmp smp = new LazySmp(threads, new TranspositionTable(1))){
+        SearchResult result = smp.search(board, SearchLimits.depth(4));
+        assertEquals(Search.MATE - 3, result.getScore(), threads + " threads");
+        assertEquals(key, board.getZobristKey());
+      }
+    }
+  }
+
+  @Test
+  public void test_search_stopsHelpers() {
+    try(LazySmp smp = new LazySmp(3, new TranspositionTable(1))){
+      assertEquals(3, smp.getThreads());
+      SearchResult result = smp.search(PerftPosition.KIWIPETE.toBoard(), SearchLimits.millis(50));
+      // the main search stops on its own clock, and the helpers with it
+      assertTrue(result.getStop() == SearchStop.TIME || result.getStop() == SearchStop.SOFT_TIME, result.getStop().name());
+      assertTrue(result.getNanos() >= 50 * 1_000_000L, result.getNanos() + " ns");
+      assertTrue(result.getBestMove() != PackedMove.NONE);
+      // only the hard limit cuts off the first iteration, the soft one waits for it
+      assertTrue(result.getDepth() >= 1 || result.getStop() == SearchStop.TIME, result.toString());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new LazySmp(0, new TranspositionTable(1)));
+  }
+
+  @Test
+  public void test_search_reused() {
+    // the same helpers search each move of a game, set up again for the new position
+    Board board = Fen.toBoard("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+    LazySmp smp = new LazySmp(3, new TranspositionTable(1));
+    try{
+      SearchResult first = smp.search(board, SearchLimits.depth(4));
+      assertEquals(Search.MATE - 3, first.getScore());
+      board.makeMove(first.getBestMove());
+      SearchResult reply = smp.search(board, SearchLimits.depth(3));
+      board.makeMove(reply.getBestMove());
+      assertEquals(Search.MATE - 1, smp.search(board, SearchLimits.depth(2)).getScore());
+    }
+    finally{
+      smp.close();
+    }
+    assertThrows(IllegalStateException.class, () -> smp.search(board, SearchLimits.depth(1)));
+    assertThrows(IllegalArgumentException.class, () -> new LazySmp(LazySmp.MAX_THREADS + 1, new TranspositionTable(1)));
+  }
+
+  @Test
+  public void test_reportScaling() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    double[] speedups = LazySmp.reportScaling(PerftPosition.STARTING, 3, new int[]{1, 2}, 1, new PrintStream(bytes, true));
+    assertEquals(2, speedups.length);
+    assertEquals(1.0, speedups[0]);
+    String report = bytes.toString();
+    assertTrue(report.contains("STARTING depth 3, 1 threads"), report);
+    assertTrue(report.contains("STARTING depth 3, 2 threads"), report);
+  }
+}
@@ -0,0 +1,147 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class MoveGeneratorTest {
+  private HashSet<String> helper_generate(Board board, boolean isWhite){
+    MoveList moves = new MoveList();
+    int count = new MoveGenerator().generateLegalMoves(board, isWhite, moves);
+    assertEquals(moves.size(), count);
+    HashSet<String> descrs = new HashSet<>();
+    for(int i = 0; i < moves.size(); i++){
+      descrs.add(PackedMove.toString(moves.get(i)));
+    }
+    assertEquals(moves.size(), descrs.size());
+    return descrs;
+  }
+
+  @Test
+  public void test_initialPosition() {
+    Board board = new ChessBoard(8, 8);
+    assertEquals(20, this.helper_generate(board, true).size());
+    assertEquals(20, this.helper_generate(board, false).size());
+    board.makeMove(new Move("e2e4"), null);
+    assertEquals(20, this.helper_generate(board, false).size());
+    board.makeMove(new Move("e7e5"), null);
+    assertEquals(29, this.helper_generate(board, true).size());
+  }
+
+  @Test
+  public void test_smallerBoard() {
+    // Black's pieces start on the top rank of a board six squares high
+    Board board = new ChessBoard(8, 6);
+    assertEquals(20, this.helper_generate(board, true).size());
+    HashSet<String> moves = this.helper_generate(board, false);
+    assertEquals(20, moves.size());
+    assertTrue(moves.contains("e5e3"));
+    assertTrue(board.whatIsAtSquare(Square.of("e5")).canMoveTo(board).contains(Square.of("e3")));
+
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new King("K", false, Square.of("e6")));
+    pieces.add(new Rook("R", false, Square.of("h6"), false));
+    board = new ChessBoard(8, 6, pieces);
+    assertEquals(Board.BLACK_KING_SIDE, board.getCastlingRights());
+    assertTrue(this.helper_generate(board, false).contains("e6g6"));
+    board.makeMove(new Move("e6g6"), null);
+    assertEquals(Piece.ROOK, board.whatIsAtSquare(Square.of("f6")).getType());
+  }
+
+  @Test
+  public void test_castling() {
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Rook("R", true, Square.of("a1"), false));
+    pieces.add(new Rook("R", true, Square.of("h1"), true));
+    pieces.add(new King("K", false, Square.of("e8")));
+    pieces.add(new Bishop("B", false, Square.of("a6")));
+    Board board = new ChessBoard(8, 8, pieces);
+
+    HashSet<String> moves = this.helper_generate(board, true);
+    // the Bishop on a6 covers f1, so only queen side castling is left
+    assertTrue(moves.contains("e1c1"));
+    assertFalse(moves.contains("e1g1"));
+    assertFalse(moves.contains("e1f1"));
+
+    board.tryAddPiece(new Knight("N", true, Square.of("b1")));
+    assertFalse(this.helper_generate(board, true).contains("e1c1"));
+  }
+
+  @Test
+  public void test_promotion() {
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Pawn("P", true, Square.of("b7")));
+    pieces.add(new King("K", false, Square.of("h8")));
+    pieces.add(new Rook("R", false, Square.of("a8"), false));
+    Board board = new ChessBoard(8, 8, pieces);
+
+    HashSet<String> moves = this.helper_generate(board, true);
+    for(String promotion: new String[]{"q", "r", "b", "n"}){
+      assertTrue(moves.contains("b7b8" + promotion));
+      assertTrue(moves.contains("b7a8" + promotion));
+    }
+    assertFalse(moves.contains("b7b8"));
+  }
+
+  @Test
+  public void test_enPassant() {
+    Board board = new ChessBoard(8, 8);
+    for(String m: new String[]{"e2e4", "a7a6", "e4e5", "d7d5"}){
+      board.makeMove(new Move(m), null);
+    }
+    assertTrue(this.helper_generate(board, true).contains("e5d6"));
+
+    // the en passant capture would expose the King along the rank
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("a5")));
+    pieces.add(new Pawn("P", true, Square.of("b5")));
+    pieces.add(new Pawn("P", false, Square.of("c7")));
+    pieces.add(new Rook("R", false, Square.of("h5"), true));
+    pieces.add(new King("K", false, Square.of("h8")));
+    Board pinned = new ChessBoard(8, 8, pieces);
+    pinned.makeMove(new Move("c7c5"), null);
+    assertEquals(Square.of("c6"), pinned.getEnPassantSquare());
+    HashSet<String> moves = this.helper_generate(pinned, true);
+    assertFalse(moves.contains("b5c6"));
+    assertTrue(moves.contains("b5b6"));
+  }
+
+  @Test
+  public void test_checks() {
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Rook("R", true, Square.of("a4"), false));
+    pieces.add(new Queen("Q", false, Square.of("e7")));
+    pieces.add(new King("K", false, Square.of("h8")));
+    Board board = new ChessBoard(8, 8, pieces);
+
+    HashSet<String> moves = this.helper_generate(board, true);
+    assertTrue(moves.contains("a4e4"));
+    assertFalse(moves.contains("a4a5"));
+    assertFalse(moves.contains("e1e2"));
+    assertTrue(moves.contains("e1d1"));
+
+    board.tryAddPiece(new Knight("N", false, Square.of("d3")));
+    moves = this.helper_generate(board, true);
+    assertTrue(moves.contains("e1d1"));
+    for(String m: moves){
+      assertTrue(m.startsWith("e1"));
+    }
+  }
+
+  @Test
+  public void test_checkmate() {
+    Board board = new ChessBoard(8, 8);
+    for(String m: new String[]{"f2f3", "e7e5", "g2g4", "d8h4"}){
+      board.makeMove(new Move(m), null);
+    }
+    assertEquals(0, this.helper_generate(board, true).size());
+  }
+}
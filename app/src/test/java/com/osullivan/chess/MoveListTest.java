@@ -0,0 +1,48 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class MoveListTest {
+  @Test
+  public void test_addAndGet() {
+    MoveList moves = new MoveList(2);
+    assertTrue(moves.isEmpty());
+    for(int i = 0; i < 100; i++){
+      moves.add(i * 3);
+    }
+    assertEquals(100, moves.size());
+    assertEquals(0, moves.get(0));
+    assertEquals(297, moves.get(99));
+    assertTrue(moves.contains(150));
+    assertFalse(moves.contains(151));
+    assertEquals(50, moves.indexOf(150));
+    assertEquals(-1, moves.indexOf(151));
+
+    moves.set(0, 7);
+    moves.swap(0, 99);
+    assertEquals(297, moves.get(0));
+    assertEquals(7, moves.get(99));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> moves.get(100));
+    assertThrows(IndexOutOfBoundsException.class, () -> moves.get(-1));
+    assertThrows(IllegalArgumentException.class, () -> new MoveList(0));
+  }
+
+  @Test
+  public void test_clear() {
+    MoveList moves = new MoveList();
+    moves.add(1);
+    moves.add(2);
+    moves.clear();
+    assertTrue(moves.isEmpty());
+    assertFalse(moves.contains(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> moves.get(0));
+    moves.add(3);
+    assertEquals(3, moves.get(0));
+  }
+}
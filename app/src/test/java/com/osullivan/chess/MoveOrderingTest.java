@@ -0,0 +1,124 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+public class MoveOrderingTest {
+  private String helper_order(MoveOrdering ordering, Board board, int hashMove){
+    MoveList moves = new MoveList();
+    new MoveGenerator().generateLegalMoves(board, board.isWhiteToMove(), moves);
+    ordering.score(board, moves, 0, hashMove);
+    StringBuilder sb = new StringBuilder();
+    for(int i = 0; i < moves.size(); i++){
+      sb.append(PackedMove.toString(ordering.pick(moves, 0, i))).append(' ');
+    }
+    return sb.toString();
+  }
+
+  private int helper_move(Board board, String uci){
+    MoveList moves = new MoveList();
+    new MoveGenerator().generateLegalMoves(board, board.isWhiteToMove(), moves);
+    for(int i = 0; i < moves.size(); i++){
+      if(PackedMove.toString(moves.get(i)).equals(uci)){
+        return moves.get(i);
+      }
+    }
+    throw new IllegalArgumentException(uci);
+  }
+
+  @Test
+  public void test_score_mvvLva() {
+    // the Pawn takes the Queen before the Queen takes the Pawn
+    Board board = Fen.toBoard("4k3/8/3q4/4P3/8/8/1p6/Q3K3 w - - 0 1");
+    String order = this.helper_order(new MoveOrdering(), board, PackedMove.NONE);
+    assertTrue(order.startsWith("e5d6 a1b2 "), order);
+
+    // the hash move comes first, even if quiet
+    int hashMove = this.helper_move(board, "e1f1");
+    order = this.helper_order(new MoveOrdering(), board, hashMove);
+    assertTrue(order.startsWith("e1f1 e5d6 a1b2 "), order);
+  }
+
+  @Test
+  public void test_score_promotions() {
+    Board board = Fen.toBoard("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+    String order = this.helper_order(new MoveOrdering(), board, PackedMove.NONE);
+    // Queen promotions first, the capturing one before the other, underpromotions last
+    assertTrue(order.startsWith("a7b8q a7a8q "), order);
+    assertTrue(order.trim().endsWith("a7a8n a7b8n"), order);
+  }
+
+  @Test
+  public void test_cutoff_killersAndHistory() {
+    Board board = Fen.toBoard(Fen.STARTING_POSITION);
+    MoveOrdering ordering = new MoveOrdering();
+    MoveList moves = new MoveList();
+    new MoveGenerator().generateLegalMoves(board, true, moves);
+    int e4 = this.helper_move(board, "e2e4");
+    int d4 = this.helper_move(board, "d2d4");
+    int nf3 = this.helper_move(board, "g1f3");
+
+    // e2e4 fails high after d2d4 was tried
+    moves.swap(0, moves.indexOf(d4));
+    moves.swap(1, moves.indexOf(e4));
+    ordering.cutoff(true, moves, 1, 0, 4);
+    assertEquals(16, ordering.getHistory(true, e4));
+    assertEquals(-16, ordering.getHistory(true, d4));
+    assertEquals(0, ordering.getHistory(false, e4));
+    ordering.cutoff(true, moves, moves.indexOf(nf3), 0, 1);
+    assertArrayEquals(new int[]{nf3, e4}, ordering.getKillers(0));
+
+    String order = this.helper_order(ordering, board, PackedMove.NONE);
+    assertTrue(order.startsWith("g1f3 e2e4 "), order);
+    assertTrue(order.trim().endsWith("d2d4"), order);
+
+    // captures are never killers
+    Board capture = Fen.toBoard("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1");
+    MoveList captures = new MoveList();
+    new MoveGenerator().generateLegalMoves(capture, true, captures);
+    ordering.cutoff(true, captures, captures.indexOf(this.helper_move(capture, "e4d5")), 1, 3);
+    assertArrayEquals(new int[]{PackedMove.NONE, PackedMove.NONE}, ordering.getKillers(1));
+
+    // a new search forgets the killers and halves the history
+    int history = ordering.getHistory(true, e4);
+    ordering.newSearch();
+    assertArrayEquals(new int[]{PackedMove.NONE, PackedMove.NONE}, ordering.getKillers(0));
+    assertEquals(history / 2, ordering.getHistory(true, e4));
+    ordering.clear();
+    assertEquals(0, ordering.getHistory(true, e4));
+  }
+
+  @Test
+  public void test_history_bounded() {
+    Board board = Fen.toBoard(Fen.STARTING_POSITION);
+    MoveOrdering ordering = new MoveOrdering();
+    MoveList moves = new MoveList();
+    new MoveGenerator().generateLegalMoves(board, true, moves);
+    for(int i = 0; i < 1000; i++){
+      ordering.cutoff(true, moves, 0, 0, 40);
+    }
+    assertTrue(ordering.getHistory(true, moves.get(0)) <= 1 << 14);
+  }
+
+  @Test
+  public void test_reportNodes() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    double[] ratios = MoveOrdering.reportNodes(new PerftPosition[]{PerftPosition.KIWIPETE}, 4, new PrintStream(bytes));
+    assertTrue(ratios[0] < 1, bytes.toString());
+    assertTrue(bytes.toString().contains("KIWIPETE depth 4, ordered"));
+  }
+
+  @Test
+  public void test_search_firstMoveCutoffRate() {
+    Search search = new Search(PerftPosition.KIWIPETE.toBoard());
+    SearchResult result = search.search(SearchLimits.depth(4));
+    assertTrue(result.getCutoffs() > 0);
+    assertTrue(result.getFirstMoveCutoffRate() > 0.8, result.getFirstMoveCutoffs() + "/" + result.getCutoffs());
+  }
+}
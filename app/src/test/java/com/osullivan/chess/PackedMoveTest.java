@@ -0,0 +1,65 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class PackedMoveTest {
+  @Test
+  public void test_encode() {
+    int move = PackedMove.encode(12, 28, 0, PackedMove.DOUBLE_PUSH);
+    assertEquals(12, PackedMove.getFrom(move));
+    assertEquals(28, PackedMove.getTo(move));
+    assertEquals(0, PackedMove.getPromotion(move));
+    assertTrue(PackedMove.isDoublePush(move));
+    assertFalse(PackedMove.isCapture(move));
+    assertFalse(PackedMove.isCastle(move));
+    assertFalse(PackedMove.isEnPassant(move));
+
+    move = PackedMove.encode(63, 0, Piece.QUEEN, PackedMove.CAPTURE);
+    assertEquals(63, PackedMove.getFrom(move));
+    assertEquals(0, PackedMove.getTo(move));
+    assertEquals(Piece.QUEEN, PackedMove.getPromotion(move));
+    assertTrue(PackedMove.isCapture(move));
+    assertFalse(PackedMove.isDoublePush(move));
+  }
+
+  @Test
+  public void test_toMove_toString() {
+    int move = PackedMove.encode(Square.of("e7").getIndex(), Square.of("e8").getIndex(), Piece.KNIGHT, 0);
+    assertEquals(new Move("e7e8"), PackedMove.toMove(move));
+    assertEquals("e7e8n", PackedMove.toString(move));
+    assertEquals("a1h8", PackedMove.toString(PackedMove.encode(0, 63, 0, 0)));
+  }
+
+  @Test
+  public void test_fromMove() {
+    HashSet<Piece> pieces = new HashSet<>();
+    pieces.add(new King("K", true, Square.of("e1")));
+    pieces.add(new Rook("R", true, Square.of("h1"), true));
+    pieces.add(new Pawn("P", true, Square.of("d5")));
+    pieces.add(new Pawn("P", true, Square.of("b2")));
+    pieces.add(new Pawn("P", false, Square.of("e5")));
+    pieces.add(new Knight("N", false, Square.of("h8")));
+    pieces.add(new King("K", false, Square.of("e8")));
+    Board board = new ChessBoard(8, 8, pieces);
+
+    int castle = PackedMove.fromMove(new Move("e1g1"), board, 0);
+    assertTrue(PackedMove.isCastle(castle));
+    assertFalse(PackedMove.isCapture(castle));
+
+    int enPassant = PackedMove.fromMove(new Move("d5e6"), board, 0);
+    assertTrue(PackedMove.isEnPassant(enPassant));
+    assertTrue(PackedMove.isCapture(enPassant));
+
+    assertTrue(PackedMove.isDoublePush(PackedMove.fromMove(new Move("b2b4"), board, 0)));
+    assertTrue(PackedMove.isCapture(PackedMove.fromMove(new Move("h1h8"), board, 0)));
+    assertEquals(0, PackedMove.fromMove(new Move("b2b3"), board, 0) & ~0xFFF);
+    assertThrows(IllegalArgumentException.class, () -> PackedMove.fromMove(new Move("a1a2"), board, 0));
+  }
+}
@@ -0,0 +1,39 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelPerftTest {
+  @Test
+  public void test_perft() {
+    ParallelPerft perft = new ParallelPerft(4);
+    Board board = PerftPosition.KIWIPETE.toBoard();
+    long key = board.getZobristKey();
+    assertEquals(PerftPosition.KIWIPETE.getExpectedNodes(4), perft.perft(board, 4));
+    assertEquals(key, board.getZobristKey());
+
+    // shallow counts never split
+    assertEquals(1, perft.perft(board, 0));
+    assertEquals(48, perft.perft(board, 1));
+    assertEquals(PerftPosition.POSITION_3.getExpectedNodes(5), perft.perft(PerftPosition.POSITION_3.toBoard(), 5));
+    assertThrows(IllegalArgumentException.class, () -> perft.perft(board, -1));
+    assertThrows(IllegalArgumentException.class, () -> new ParallelPerft(0));
+  }
+
+  @Test
+  public void test_reportScaling() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    double[] speedups = ParallelPerft.reportScaling(PerftPosition.STARTING, 4, new int[]{1, 2}, new PrintStream(bytes, true));
+    assertEquals(2, speedups.length);
+    assertEquals(1.0, speedups[0]);
+    String output = bytes.toString();
+    assertTrue(output.contains("STARTING depth 4, 1 threads: 197281 nodes"));
+    assertTrue(output.contains("STARTING depth 4, 2 threads: 197281 nodes"));
+  }
+}
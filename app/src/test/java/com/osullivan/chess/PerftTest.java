@@ -0,0 +1,132 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+public class PerftTest {
+  private void helper_assertPerft(PerftPosition position, int depth){
+    Board board = position.toBoard();
+    long key = board.getZobristKey();
+    assertEquals(position.getExpectedNodes(depth), new Perft(board).perft(depth), position.name());
+    assertEquals(key, board.getZobristKey());
+  }
+
+  @Test
+  public void test_referencePositions() {
+    this.helper_assertPerft(PerftPosition.STARTING, 3);
+    this.helper_assertPerft(PerftPosition.KIWIPETE, 3);
+    this.helper_assertPerft(PerftPosition.POSITION_3, 4);
+    this.helper_assertPerft(PerftPosition.POSITION_4, 3);
+    this.helper_assertPerft(PerftPosition.POSITION_5, 3);
+    this.helper_assertPerft(PerftPosition.POSITION_6, 3);
+  }
+
+  /**
+   * moves found piece by piece, as the Pieces and Player found them before the MoveGenerator
+   * @return from and to squares of every move by Piece.canMoveTo that Player.isUnderCheck allows,
+   * without castling and en passant, which canMoveTo leaves out
+   */
+  private TreeSet<String> helper_pieceMoves(Board board){
+    boolean isWhite = board.isWhiteToMove();
+    Player player = new TextPlayer(isWhite, board);
+    TreeSet<String> moves = new TreeSet<>();
+    // making moves reorders the team list
+    for(Piece p: new ArrayList<>(board.getTeamPieceList(isWhite))){
+      for(Square s: p.canMoveTo(board)){
+        board.makeMove(new Move(p.getSquare(), s), null);
+        boolean isUnderCheck = player.isUnderCheck();
+        board.unmakeMove();
+        if(!isUnderCheck){
+          moves.add(p.getSquare().toString() + s.toString());
+        }
+      }
+    }
+    return moves;
+  }
+
+  /**
+   * @return from and to squares of every generated move other than castling and en passant,
+   * promotion choices counted once
+   */
+  private TreeSet<String> helper_generatedMoves(Board board, MoveList moves){
+    new MoveGenerator().generateLegalMoves(board, board.isWhiteToMove(), moves);
+    TreeSet<String> squares = new TreeSet<>();
+    for(int i = 0; i < moves.size(); i++){
+      int move = moves.get(i);
+      if(!PackedMove.isCastle(move) && !PackedMove.isEnPassant(move)){
+        squares.add(PackedMove.toString(move).substring(0, 4));
+      }
+    }
+    return squares;
+  }
+
+  @Test
+  public void test_divide_pieceMoves() {
+    // the Pieces and Player must agree with the MoveGenerator at the root and below each root move
+    for(PerftPosition position: PerftPosition.values()){
+      Board board = position.toBoard();
+      MoveList rootMoves = new MoveList();
+      assertEquals(this.helper_generatedMoves(board, rootMoves), this.helper_pieceMoves(board), position.name());
+      MoveList replies = new MoveList();
+      for(int i = 0; i < rootMoves.size(); i++){
+        int move = rootMoves.get(i);
+        board.makeMove(move);
+        assertEquals(this.helper_generatedMoves(board, replies), this.helper_pieceMoves(board),
+          position.name() + " " + PackedMove.toString(move));
+        board.unmakeMove();
+      }
+    }
+  }
+
+  @Test
+  public void test_shallowDepths() {
+    Perft perft = new Perft(new ChessBoard(8, 8));
+    assertEquals(1, perft.perft(0));
+    assertEquals(20, perft.perft(1));
+    assertEquals(400, perft.perft(2));
+    assertThrows(IllegalArgumentException.class, () -> perft.perft(-1));
+  }
+
+  @Test
+  public void test_divide() {
+    Perft perft = new Perft(PerftPosition.KIWIPETE.toBoard());
+    LinkedHashMap<String, Long> divide = perft.divide(2);
+    assertEquals(48, divide.size());
+    long total = 0;
+    for(long nodes: divide.values()){
+      total += nodes;
+    }
+    assertEquals(2039, total);
+    assertEquals(43L, divide.get("e1g1"));
+    assertEquals(46L, divide.get("d5e6"));
+    assertThrows(IllegalArgumentException.class, () -> perft.divide(0));
+  }
+
+  @Test
+  public void test_positions() {
+    Board board = PerftPosition.POSITION_4.toBoard();
+    assertEquals(Board.BLACK_KING_SIDE | Board.BLACK_QUEEN_SIDE, board.getCastlingRights());
+    assertTrue(board.isWhiteToMove());
+    assertEquals(0xF, PerftPosition.KIWIPETE.toBoard().getCastlingRights());
+    assertEquals(0, PerftPosition.POSITION_3.toBoard().getCastlingRights());
+    assertThrows(IllegalArgumentException.class, () -> PerftPosition.STARTING.getExpectedNodes(6));
+  }
+
+  @Test
+  public void test_runSuite() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    assertTrue(Perft.runSuite(2, new PrintStream(bytes, true)));
+    String output = bytes.toString();
+    assertTrue(output.contains("KIWIPETE depth 2: 2039 nodes"));
+    assertTrue(output.contains("nps"));
+  }
+}
@@ -0,0 +1,95 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PgnIndexTest {
+  @TempDir
+  Path directory;
+
+  private Path helper_writeGames(int count) throws IOException {
+    StringBuilder pgn = new StringBuilder();
+    for(int i = 0; i < count; i++){
+      pgn.append("[Event \"Game\"]\n[Round \"").append(i).append("\"]\n\n");
+      // a comment with a line that looks like a tag
+      pgn.append("1. e4 {not\n[a tag]} e5 2. Nf3 ; [nor this]\nNc6");
+      for(int j = 0; j < i % 3; j++){
+        pgn.append(" Ng1 Nb8 Nf3 Nc6");
+      }
+      pgn.append(" *\n\n");
+    }
+    Path path = this.directory.resolve("games.pgn");
+    Files.write(path, pgn.toString().getBytes(StandardCharsets.UTF_8));
+    return path;
+  }
+
+  @Test
+  public void test_build() throws IOException {
+    Path pgn = this.helper_writeGames(100);
+    PgnIndex index = PgnIndex.build(pgn);
+    assertEquals(100, index.size());
+    assertEquals(0, index.getOffset(0));
+    byte[] bytes = Files.readAllBytes(pgn);
+    for(int i = 0; i < index.size(); i++){
+      assertEquals('[', bytes[(int)index.getOffset(i)]);
+    }
+    assertThrows(IllegalArgumentException.class, () -> index.getOffset(100));
+    assertThrows(IllegalArgumentException.class, () -> index.getOffset(-1));
+  }
+
+  @Test
+  public void test_readGame() throws IOException {
+    Path pgn = this.helper_writeGames(100);
+    PgnIndex index = PgnIndex.build(pgn);
+    PgnGame game = new PgnGame();
+    for(int i: new int[]{99, 0, 41, 42}){
+      index.readGame(i, game);
+      assertEquals(Integer.toString(i), game.getTag("Round"));
+      assertNull(game.getError());
+      assertEquals(4 + 4 * (i % 3), game.getMoves().size());
+      assertEquals("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - " + (2 + 4 * (i % 3)) + " " + (3 + 2 * (i % 3)),
+        Fen.toFen(game.getBoard()));
+    }
+  }
+
+  @Test
+  public void test_saveAndLoad() throws IOException {
+    Path pgn = this.helper_writeGames(2500);
+    PgnIndex index = PgnIndex.build(pgn);
+    Path file = this.directory.resolve("games.idx");
+    index.save(file);
+    assertEquals(2500L * Long.BYTES, Files.size(file));
+
+    PgnIndex loaded = PgnIndex.load(pgn, file);
+    assertEquals(index.size(), loaded.size());
+    for(int i = 0; i < index.size(); i++){
+      assertEquals(index.getOffset(i), loaded.getOffset(i));
+    }
+    PgnGame game = new PgnGame();
+    loaded.readGame(2024, game);
+    assertEquals("2024", game.getTag("Round"));
+  }
+
+  @Test
+  public void test_emptyFile() throws IOException {
+    Path pgn = this.directory.resolve("empty.pgn");
+    Files.write(pgn, new byte[0]);
+    PgnIndex index = PgnIndex.build(pgn);
+    assertEquals(0, index.size());
+    Path file = this.directory.resolve("empty.idx");
+    index.save(file);
+    assertEquals(0, PgnIndex.load(pgn, file).size());
+
+    Files.write(file, new byte[5]);
+    assertThrows(IllegalArgumentException.class, () -> PgnIndex.load(pgn, file));
+  }
+}
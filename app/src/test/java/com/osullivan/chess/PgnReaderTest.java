@@ -0,0 +1,111 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class PgnReaderTest {
+  private static final String GAMES =
+    "[Event \"Casual \\\"Game\\\"\"]\n" +
+    "[White \"M\u00fcller\"]\n" +
+    "[Result \"1-0\"]\n" +
+    "\n" +
+    "1. e4 e5 2. Bc4 {the Italian} Nc6 (2... Nf6 3. d3) 3. Qh5 $2 Nf6?? 4. Qxf7# 1-0\n" +
+    "\n" +
+    "% escaped line\n" +
+    "[Event \"From a position\"]\n" +
+    "[FEN \"4k3/1P6/8/8/8/8/8/4K3 w - - 0 1\"]\n" +
+    "\n" +
+    "1.b8=Q+ Kd7 2.Qb7+ ; rest of line\n" +
+    "Ke6 *\n" +
+    "\n" +
+    "[Event \"Illegal\"]\n" +
+    "\n" +
+    "1. e4 e5 2. Ke3 Nc6 1/2-1/2\n" +
+    "1. d4 d5\n";
+
+  private PgnReader helper_reader(String pgn, int bufferSize){
+    ByteArrayInputStream in = new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8));
+    return new PgnReader(Channels.newChannel(in), bufferSize);
+  }
+
+  private void helper_assertGames(int bufferSize) throws IOException {
+    PgnReader reader = this.helper_reader(GAMES, bufferSize);
+    PgnGame game = new PgnGame();
+
+    assertTrue(reader.readGame(game));
+    assertEquals("Casual \"Game\"", game.getTag("Event"));
+    assertEquals("M\u00fcller", game.getTag("White"));
+    assertEquals(3, game.getTags().size());
+    assertEquals("1-0", game.getResult());
+    assertNull(game.getError());
+    assertEquals(7, game.getMoves().size());
+    assertEquals("h5f7", PackedMove.toString(game.getMoves().get(6)));
+    assertEquals("r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4", Fen.toFen(game.getBoard()));
+
+    assertTrue(reader.readGame(game));
+    assertEquals("From a position", game.getTag("Event"));
+    assertEquals("*", game.getResult());
+    assertNull(game.getError());
+    assertEquals(4, game.getMoves().size());
+    assertEquals("8/1Q6/4k3/8/8/8/8/4K3 w - - 3 3", Fen.toFen(game.getBoard()));
+
+    assertTrue(reader.readGame(game));
+    assertEquals("1/2-1/2", game.getResult());
+    assertEquals("ply 3: illegal move 'Ke3'", game.getError());
+    assertEquals(2, game.getMoves().size());
+
+    // a game without tags or result
+    assertTrue(reader.readGame(game));
+    assertTrue(game.getTags().isEmpty());
+    assertNull(game.getResult());
+    assertEquals(2, game.getMoves().size());
+
+    assertFalse(reader.readGame(game));
+    assertEquals(4, reader.getGameCount());
+  }
+
+  @Test
+  public void test_readGame() throws IOException {
+    this.helper_assertGames(1 << 16);
+  }
+
+  @Test
+  public void test_readGame_smallBuffer() throws IOException {
+    // games and tokens straddle buffer refills
+    this.helper_assertGames(1);
+    this.helper_assertGames(7);
+  }
+
+  @Test
+  public void test_readGame_empty() throws IOException {
+    PgnReader reader = this.helper_reader("  \n", 16);
+    assertFalse(reader.readGame(new PgnGame()));
+    assertEquals(0, reader.getGameCount());
+  }
+
+  @Test
+  public void test_readGame_manyGames() throws IOException {
+    StringBuilder pgn = new StringBuilder();
+    for(int i = 0; i < 1000; i++){
+      pgn.append("[Round \"").append(i).append("\"]\n\n1. Nf3 Nf6 2. Ng1 Ng8 *\n\n");
+    }
+    PgnReader reader = this.helper_reader(pgn.toString(), 4096);
+    PgnGame game = new PgnGame();
+    int games = 0;
+    while(reader.readGame(game)){
+      assertEquals(Integer.toString(games), game.getTag("Round"));
+      assertEquals(Fen.STARTING_POSITION.replace(" 0 1", " 4 3"), Fen.toFen(game.getBoard()));
+      games++;
+    }
+    assertEquals(1000, games);
+  }
+}
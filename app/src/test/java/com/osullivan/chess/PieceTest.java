@@ -16,6 +16,25 @@ public class PieceTest {
    * private helpers
    * -----------------------------------------------------------------------------------------------
    */
+  /**
+   * squares the piece attacks in one direction, up to and including the first piece in the way
+   * unless it is of its own team
+   * @param rowStep -1, 0 or 1
+   * @param colStep -1, 0 or 1
+   */
+  private HashSet<Square> helper_attacksTowards(Piece p, Board board, int rowStep, int colStep){
+    HashSet<Square> squares = new HashSet<>();
+    for(Square s: Piece.toSquares(p.getAttacksExcludingOwnTeam(board))){
+      int rowDiff = s.getRow() - p.getSquare().getRow();
+      int colDiff = s.getColumn() - p.getSquare().getColumn();
+      boolean isAligned = rowStep == 0 || colStep == 0 || Math.abs(rowDiff) == Math.abs(colDiff);
+      if(Integer.signum(rowDiff) == rowStep && Integer.signum(colDiff) == colStep && isAligned){
+        squares.add(s);
+      }
+    }
+    return squares;
+  }
+
   private void helper_test_canMoveAnyDirTo_onEdge(Piece p, Function<Board, HashSet<Square>> getMoveToFn){
     Board board = new ChessBoard(8, 8, new HashSet<>());
     board.tryAddPiece(p);
@@ -136,16 +155,16 @@ public class PieceTest {
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveUpTo
+   * attacks up
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveUpTo_cleanPath(){
+  public void test_attacksUp_cleanPath(){
     Piece p = new Rook("R", true, new Square("d4"), true);
     Board board = new ChessBoard(8, 8, new HashSet<>());
 
     board.tryAddPiece(p);
-    HashSet<Square> actualSquares  = p.canMoveUpTo(board);
+    HashSet<Square> actualSquares  = this.helper_attacksTowards(p, board, 1, 0);
     HashSet<Square> expectedSquares = new HashSet<>();
     for(int i = p.getSquare().getRow() + 1; i <= board.getHeight(); i++){
       Square square = new Square(i, p.getSquare().getColumn());
@@ -155,42 +174,42 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveUpTo_alreadyOnTop() {
+  public void test_attacksUp_alreadyOnTop() {
     Piece p = new Rook("R", true, new Square("d8"), true);
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveUpTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, 1, 0));
   }
 
   @Test
-  public void test_canMoveUpTo_ownPieceBlocking(){
+  public void test_attacksUp_ownPieceBlocking(){
     Piece p = new Rook("R", true, new Square("d4"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d5"));
     expectedSquares.add(new Square("d6"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "d7", expectedSquares, (b)->p.canMoveUpTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "d7", expectedSquares, (b)->this.helper_attacksTowards(p, b, 1, 0));
   }
 
   @Test
-  public void test_canMoveUpTo_enemyPieceBlocking(){
+  public void test_attacksUp_enemyPieceBlocking(){
     Piece p = new Rook("R", true, new Square("d4"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d5"));
     expectedSquares.add(new Square("d6"));
     expectedSquares.add(new Square("d7"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "d7", expectedSquares, (b)->p.canMoveUpTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "d7", expectedSquares, (b)->this.helper_attacksTowards(p, b, 1, 0));
   }
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveDownTo
+   * attacks down
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveDownTo_cleanPath() {
+  public void test_attacksDown_cleanPath() {
     Piece p = new Rook("R", true, new Square("d4"), true);
     Board board = new ChessBoard(8, 8, new HashSet<>());
     board.tryAddPiece(p);
 
-    HashSet<Square> actualSquares  = p.canMoveDownTo(board);
+    HashSet<Square> actualSquares  = this.helper_attacksTowards(p, board, -1, 0);
     HashSet<Square> expectedSquares = new HashSet<>();
     for(int i = p.getSquare().getRow() - 1; i >= 1; i--){
       Square square = new Square(i, p.getSquare().getColumn());
@@ -200,42 +219,42 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveDownTo_alreadyOnBottom(){
+  public void test_attacksDown_alreadyOnBottom(){
     Piece p = new Rook("R", true, new Square("d1"), true);
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveDownTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, -1, 0));
   }
 
   @Test
-  public void test_canMoveDownTo_ownPieceBlocking(){
+  public void test_attacksDown_ownPieceBlocking(){
     Piece p = new Rook("R", true, new Square("d5"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d4"));
     expectedSquares.add(new Square("d3"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "d2", expectedSquares, (b)->p.canMoveDownTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "d2", expectedSquares, (b)->this.helper_attacksTowards(p, b, -1, 0));
   }
 
   @Test
-  public void test_canMoveDownTo_enemyPieceBlocking(){
+  public void test_attacksDown_enemyPieceBlocking(){
     Piece p = new Rook("R", false, new Square("d5"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d4"));
     expectedSquares.add(new Square("d3"));
     expectedSquares.add(new Square("d2"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "d2", expectedSquares, (b)->p.canMoveDownTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "d2", expectedSquares, (b)->this.helper_attacksTowards(p, b, -1, 0));
   }
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveLeftTo
+   * attacks left
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveLeftTo_cleanPath() {
+  public void test_attacksLeft_cleanPath() {
     Piece p = new Rook("R", true, new Square("h5"), true);
     Board board = new ChessBoard(8, 8, new HashSet<>());
     board.tryAddPiece(p);
 
-    HashSet<Square> actualSquares  = p.canMoveLeftTo(board);
+    HashSet<Square> actualSquares  = this.helper_attacksTowards(p, board, 0, -1);
     HashSet<Square> expectedSquares = new HashSet<>();
     for(int i = p.getSquare().getColumn() - 1; i >= 1; i--){
       Square square = new Square(p.getSquare().getRow(), i);
@@ -245,24 +264,24 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveLeftTo_alreadyOnEdge(){
+  public void test_attacksLeft_alreadyOnEdge(){
     Piece p = new Rook("R", true, new Square("a5"), true);
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveLeftTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, 0, -1));
   }
 
   @Test
-  public void test_canMoveLeftTo_ownPieceBlocking(){
+  public void test_attacksLeft_ownPieceBlocking(){
     Piece p = new Rook("R", true, new Square("f1"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e1"));
     expectedSquares.add(new Square("d1"));
     expectedSquares.add(new Square("c1"));
     expectedSquares.add(new Square("b1"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "a1", expectedSquares, (b)->p.canMoveLeftTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "a1", expectedSquares, (b)->this.helper_attacksTowards(p, b, 0, -1));
   }
 
   @Test
-  public void test_canMoveLeftTo_enemyPieceBlocking(){
+  public void test_attacksLeft_enemyPieceBlocking(){
     Piece p = new Rook("R", true, new Square("f1"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e1"));
@@ -270,21 +289,21 @@ public class PieceTest {
     expectedSquares.add(new Square("c1"));
     expectedSquares.add(new Square("b1"));
     expectedSquares.add(new Square("a1"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "a1", expectedSquares, (b)->p.canMoveLeftTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "a1", expectedSquares, (b)->this.helper_attacksTowards(p, b, 0, -1));
   }
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveRightTo
+   * attacks right
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveRightTo_cleanPath() {
+  public void test_attacksRight_cleanPath() {
     Piece p = new Rook("R", true, new Square("c3"), true);
     Board board = new ChessBoard(8, 8, new HashSet<>());
     board.tryAddPiece(p);
 
-    HashSet<Square> actualSquares  = p.canMoveRightTo(board);
+    HashSet<Square> actualSquares  = this.helper_attacksTowards(p, board, 0, 1);
     HashSet<Square> expectedSquares = new HashSet<>();
     for(int i = p.getSquare().getColumn() + 1; i <= board.getWidth(); i++){
       Square square = new Square(p.getSquare().getRow(), i);
@@ -294,43 +313,43 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveRightTo_alreadyOnEdge(){
+  public void test_attacksRight_alreadyOnEdge(){
     Piece p = new Rook("R", true, new Square("h3"), true);
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveRightTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, 0, 1));
   }
 
   @Test
-  public void test_canMoveRightTo_ownPieceBlocking(){
+  public void test_attacksRight_ownPieceBlocking(){
     Piece p = new Rook("R", true, new Square("e1"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("f1"));
     expectedSquares.add(new Square("g1"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "h1", expectedSquares, (b)->p.canMoveRightTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "h1", expectedSquares, (b)->this.helper_attacksTowards(p, b, 0, 1));
   }
 
   @Test
-  public void test_canMoveRightTo_enemyPieceBlocking(){
+  public void test_attacksRight_enemyPieceBlocking(){
     Piece p = new Rook("R", true, new Square("c2"), true);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d2"));
     expectedSquares.add(new Square("e2"));
     expectedSquares.add(new Square("f2"));
     expectedSquares.add(new Square("g2"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "g2", expectedSquares, (b)->p.canMoveRightTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "g2", expectedSquares, (b)->this.helper_attacksTowards(p, b, 0, 1));
   }
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveUpLeftDiagonalTo
+   * attacks up left diagonal
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveUpLeftDiagonalTo_cleanPath(){
+  public void test_attacksUpLeftDiagonal_cleanPath(){
     Piece p = new Bishop("B", true, new Square("d4"));
     Board b = new ChessBoard(8, 8, new HashSet<>());
     b.tryAddPiece(p);
 
-    HashSet<Square> actualSquares = p.canMoveUpLeftDiagonalTo(b);
+    HashSet<Square> actualSquares = this.helper_attacksTowards(p, b, 1, -1);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("c5"));
     expectedSquares.add(new Square("b6"));
@@ -340,44 +359,44 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveUpLeftDiagonalTo_alreadyOnEdge(){
+  public void test_attacksUpLeftDiagonal_alreadyOnEdge(){
     Piece p = new Bishop("B", true, new Square("a8"));
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveUpLeftDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, 1, -1));
   }
 
   @Test
-  public void test_canMoveUpLeftDiagonalTo_ownPieceBlocking(){
+  public void test_attacksUpLeftDiagonal_ownPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("e3"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d4"));
     expectedSquares.add(new Square("c5"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "b6", expectedSquares, (b)->p.canMoveUpLeftDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "b6", expectedSquares, (b)->this.helper_attacksTowards(p, b, 1, -1));
   }
 
   @Test
-  public void test_canMoveUpLeftDiagonalTo_enemyPieceBlocking(){
+  public void test_attacksUpLeftDiagonal_enemyPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("e3"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("d4"));
     expectedSquares.add(new Square("c5"));
     expectedSquares.add(new Square("b6"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "b6", expectedSquares, (b)->p.canMoveUpLeftDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "b6", expectedSquares, (b)->this.helper_attacksTowards(p, b, 1, -1));
   }
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveUpRightDiagonalTo
+   * attacks up right diagonal
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveUpRightDiagonalTo_clearPath() {
+  public void test_attacksUpRightDiagonal_clearPath() {
     Piece p = new Bishop("B", true, new Square("d4"));
     HashSet<Piece> existingPieces = new HashSet<>();
     existingPieces.add(new Rook("R", true, new Square("b5"), true));
     Board b = new ChessBoard(8, 8, existingPieces);
     b.tryAddPiece(p);
 
-    HashSet<Square> actualSquares = p.canMoveUpRightDiagonalTo(b);
+    HashSet<Square> actualSquares = this.helper_attacksTowards(p, b, 1, 1);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e5"));
     expectedSquares.add(new Square("f6"));
@@ -388,46 +407,46 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveUpRightDiagonalTo_alreadyOnEdge(){
+  public void test_attacksUpRightDiagonal_alreadyOnEdge(){
     Piece p = new Bishop("B", true, new Square("h8"));
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveUpRightDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, 1, 1));
   }
 
   @Test
-  public void test_canMoveUpRightDiagonalTo_ownPieceBlocking(){
+  public void test_attacksUpRightDiagonal_ownPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("d1"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e2"));
     expectedSquares.add(new Square("f3"));
     expectedSquares.add(new Square("g4"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "h5", expectedSquares, (b)->p.canMoveUpRightDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "h5", expectedSquares, (b)->this.helper_attacksTowards(p, b, 1, 1));
   }
 
   @Test
-  public void test_canMoveUpRightDiagonalTo_enemyPieceBlocking(){
+  public void test_attacksUpRightDiagonal_enemyPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("d1"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e2"));
     expectedSquares.add(new Square("f3"));
     expectedSquares.add(new Square("g4"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "g4", expectedSquares, (b)->p.canMoveUpRightDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "g4", expectedSquares, (b)->this.helper_attacksTowards(p, b, 1, 1));
   }
 
   
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveUpRightDiagonalTo
+   * attacks down left diagonal
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveDownLeftDiagonalTo_clearPath() {
+  public void test_attacksDownLeftDiagonal_clearPath() {
     Piece p = new Bishop("B", true, new Square("d4"));
     HashSet<Piece> existingPieces = new HashSet<>();
     existingPieces.add(new Rook("R", true, new Square("c2"), true));
     Board b = new ChessBoard(8, 8, existingPieces);
     b.tryAddPiece(p);
 
-    HashSet<Square> actualSquares = p.canMoveDownLeftDiagonalTo(b);
+    HashSet<Square> actualSquares = this.helper_attacksTowards(p, b, -1, -1);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("a1"));
     expectedSquares.add(new Square("b2"));
@@ -437,44 +456,44 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveDownLeftDiagonalTo_alreadyOnEdge(){
+  public void test_attacksDownLeftDiagonal_alreadyOnEdge(){
     Piece p = new Bishop("B", true, new Square("a1"));
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveDownLeftDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, -1, -1));
   }
 
   @Test
-  public void test_canMoveDownLeftDiagonalTo_ownPieceBlocking(){
+  public void test_attacksDownLeftDiagonal_ownPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("e6"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("c4"));
     expectedSquares.add(new Square("d5"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "b3", expectedSquares, (b)->p.canMoveDownLeftDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "b3", expectedSquares, (b)->this.helper_attacksTowards(p, b, -1, -1));
   }
 
   @Test
-  public void test_canMoveDownLeftDiagonalTo_enemyPieceBlocking(){
+  public void test_attacksDownLeftDiagonal_enemyPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("e6"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("b3"));
     expectedSquares.add(new Square("c4"));
     expectedSquares.add(new Square("d5"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "b3", expectedSquares, (b)->p.canMoveDownLeftDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "b3", expectedSquares, (b)->this.helper_attacksTowards(p, b, -1, -1));
   }
 
   /**
    * -----------------------------------------------------------------------------------------------
-   * canMoveUpRightDiagonalTo
+   * attacks down right diagonal
    * -----------------------------------------------------------------------------------------------
    */
   @Test
-  public void test_canMoveDownRightDiagonalTo_clearPath() {
+  public void test_attacksDownRightDiagonal_clearPath() {
     Piece p = new Bishop("B", true, new Square("d4"));
     HashSet<Piece> existingPieces = new HashSet<>();
     existingPieces.add(new Rook("R", true, new Square("e2"), true));
     Board b = new ChessBoard(8, 8, existingPieces);
     b.tryAddPiece(p);
 
-    HashSet<Square> actualSquares = p.canMoveDownRightDiagonalTo(b);
+    HashSet<Square> actualSquares = this.helper_attacksTowards(p, b, -1, 1);
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e3"));
     expectedSquares.add(new Square("f2"));
@@ -484,27 +503,27 @@ public class PieceTest {
   }
 
   @Test
-  public void test_canMoveDownRightDiagonalTo_alreadyOnEdge(){
+  public void test_attacksDownRightDiagonal_alreadyOnEdge(){
     Piece p = new Bishop("B", true, new Square("h1"));
-    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->p.canMoveDownRightDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_onEdge(p, (b)->this.helper_attacksTowards(p, b, -1, 1));
   }
 
   @Test
-  public void test_canMoveDownRightDiagonalTo_ownPieceBlocking(){
+  public void test_attacksDownRightDiagonal_ownPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("d5"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e4"));
     expectedSquares.add(new Square("f3"));
-    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "g2", expectedSquares, (b)->p.canMoveDownRightDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_ownPieceBlocking(p, "g2", expectedSquares, (b)->this.helper_attacksTowards(p, b, -1, 1));
   }
 
   @Test
-  public void test_canMoveDownRightDiagonalTo_enemyPieceBlocking(){
+  public void test_attacksDownRightDiagonal_enemyPieceBlocking(){
     Piece p = new Bishop("B", true, new Square("d5"));
     HashSet<Square> expectedSquares = new HashSet<>();
     expectedSquares.add(new Square("e4"));
     expectedSquares.add(new Square("f3"));
     expectedSquares.add(new Square("g2"));
-    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "g2", expectedSquares, (b)->p.canMoveDownRightDiagonalTo(b));
+    this.helper_test_canMoveAnyDirTo_enemyPieceBlocking(p, "g2", expectedSquares, (b)->this.helper_attacksTowards(p, b, -1, 1));
   }
 }
@@ -1115,4 +1115,27 @@ public class PlayerTest {
 
     assertEquals("enemy pawn invalid en passant status", p1.tryEnPassant(new Move("e5d6")));
   }
+
+  @Test
+  public void test_tryMakeNormalMove_rejectsCastlingAndEnPassant() throws IOException{
+    Board b = Fen.toBoard("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq d6 0 2");
+    Player p1 = new TextPlayer(true, b);
+    String expectedErrMsg = "cannot move to or capture at new square";
+    assertEquals(expectedErrMsg, p1.tryMakeNormalMove(new Move("e1g1")));
+    assertEquals(expectedErrMsg, p1.tryMakeNormalMove(new Move("e5d6")));
+    assertEquals("no enemy Pawn to en passant capture", p1.tryMakeMove(new Move("e5f6")));
+    assertNull(p1.tryMakeMove(new Move("e5d6")));
+  }
+
+  @Test
+  public void test_tryMakeMove_errorMessages() throws IOException{
+    Player p1 = new TextPlayer(true, new ChessBoard(8, 8));
+    assertEquals("castling path blocked", p1.tryMakeMove(new Move("e1g1")));
+    assertEquals("cannot move to or capture at new square", p1.tryMakeMove(new Move("e2e5")));
+    assertEquals("cannot move to or capture at new square", p1.tryMakeMove(new Move("e2d3")));
+
+    // the Knight is pinned to its King
+    Player p2 = new TextPlayer(true, Fen.toBoard("4k3/4r3/8/8/8/8/4N3/4K3 w - - 0 1"));
+    assertEquals("move will leave King in check", p2.tryMakeMove(new Move("e2c3")));
+  }
 }
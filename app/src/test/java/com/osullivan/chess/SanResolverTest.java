@@ -0,0 +1,57 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class SanResolverTest {
+  private void helper_assertResolves(String fen, String san, String expected){
+    Board board = Fen.toBoard(fen);
+    assertEquals(expected, PackedMove.toString(new SanResolver().resolve(board, san)), san);
+  }
+
+  @Test
+  public void test_resolve() {
+    this.helper_assertResolves(Fen.STARTING_POSITION, "e4", "e2e4");
+    this.helper_assertResolves(Fen.STARTING_POSITION, "Nf3", "g1f3");
+    this.helper_assertResolves(Fen.STARTING_POSITION, "Nc3!?", "b1c3");
+    this.helper_assertResolves("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2", "exd5", "e4d5");
+    this.helper_assertResolves("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", "exf6", "e5f6");
+    this.helper_assertResolves("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b8=Q+", "b7b8q");
+    this.helper_assertResolves("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b8N", "b7b8n");
+  }
+
+  @Test
+  public void test_resolve_castling() {
+    String fen = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+    this.helper_assertResolves(fen, "O-O", "e1g1");
+    this.helper_assertResolves(fen, "O-O-O", "e1c1");
+    this.helper_assertResolves(fen, "0-0", "e1g1");
+    this.helper_assertResolves("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1", "O-O-O#", "e8c8");
+  }
+
+  @Test
+  public void test_resolve_disambiguation() {
+    String fen = "4k3/8/8/8/8/8/8/R3K2R w - - 0 1";
+    this.helper_assertResolves(fen, "Rad1", "a1d1");
+    this.helper_assertResolves(fen, "Rhf1", "h1f1");
+    this.helper_assertResolves("4k3/8/8/8/R7/8/8/R3K3 w - - 0 1", "R4a2", "a4a2");
+    this.helper_assertResolves("4k3/8/8/8/R7/8/8/R3K3 w - - 0 1", "R1a2", "a1a2");
+    this.helper_assertResolves("4k3/8/8/8/8/8/8/R3K2R w - - 0 1", "Ra1-d1", "a1d1");
+  }
+
+  @Test
+  public void test_resolve_invalid() {
+    SanResolver resolver = new SanResolver();
+    Board board = Fen.toBoard(Fen.STARTING_POSITION);
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(board, "e5"));
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(board, "O-O"));
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(board, "Zz9"));
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(board, "+"));
+    Board rooks = Fen.toBoard("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(rooks, "Rd1"));
+    Board promotion = Fen.toBoard("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+    assertThrows(IllegalArgumentException.class, () -> resolver.resolve(promotion, "b8"));
+  }
+}
@@ -0,0 +1,178 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+public class SearchTest {
+  private SearchResult helper_search(String fen, SearchLimits limits){
+    Board board = Fen.toBoard(fen);
+    SearchResult result = new Search(board).search(limits);
+    // the search leaves the board as it found it
+    assertEquals(Fen.toFen(Fen.toBoard(fen)), Fen.toFen(board));
+    assertEquals(Fen.toBoard(fen).getZobristKey(), board.getZobristKey());
+    return result;
+  }
+
+  @Test
+  public void test_search_mateInOne() {
+    SearchResult result = this.helper_search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", SearchLimits.depth(4));
+    assertEquals("a1a8", PackedMove.toString(result.getBestMove()));
+    assertEquals(Search.MATE - 1, result.getScore());
+    assertTrue(result.isMate());
+    // deeper iterations are skipped once a mate is found
+    assertTrue(result.getDepth() < 4);
+    assertEquals(SearchStop.MATE, result.getStop());
+  }
+
+  @Test
+  public void test_search_mateInTwo() {
+    // 1. Ra7 or 1. Rb7, then mate on the back rank
+    SearchResult result = this.helper_search("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1", SearchLimits.depth(4));
+    String bestMove = PackedMove.toString(result.getBestMove());
+    assertTrue(bestMove.equals("a2a7") || bestMove.equals("b1b7"), bestMove);
+    assertEquals(Search.MATE - 3, result.getScore());
+  }
+
+  @Test
+  public void test_search_winsMaterial() {
+    SearchResult result = this.helper_search("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1", SearchLimits.depth(3));
+    assertEquals("d1d5", PackedMove.toString(result.getBestMove()));
+    assertFalse(result.isMate());
+    assertTrue(result.getScore() > 0);
+  }
+
+  @Test
+  public void test_search_noLegalMoves() {
+    SearchResult stalemate = this.helper_search("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1", SearchLimits.depth(3));
+    assertEquals(PackedMove.NONE, stalemate.getBestMove());
+    assertEquals(0, stalemate.getScore());
+    assertEquals(SearchStop.NO_MOVES, stalemate.getStop());
+
+    SearchResult mated = this.helper_search("k7/1Q6/1K6/8/8/8/8/8 b - - 0 1", SearchLimits.depth(3));
+    assertEquals(PackedMove.NONE, mated.getBestMove());
+    assertEquals(-Search.MATE, mated.getScore());
+  }
+
+  @Test
+  public void test_search_repetitionBeforeRoot() {
+    String fen = "6k1/8/8/8/q7/8/8/7K w - - 0 1";
+    SearchResult fresh = this.helper_search(fen, SearchLimits.depth(3));
+    assertTrue(fresh.getScore() < -500, fresh.toString());
+
+    // the root already occurred twice in the game, so White can repeat it for a draw
+    Board board = Fen.toBoard(fen);
+    for(int i = 0; i < 2; i++){
+      board.makeMove(new Move("h1g1"), null);
+      board.makeMove(new Move("g8h8"), null);
+      board.makeMove(new Move("g1h1"), null);
+      board.makeMove(new Move("h8g8"), null);
+    }
+    SearchResult result = new Search(board).search(SearchLimits.depth(3));
+    assertEquals(0, result.getScore());
+    assertEquals("h1g1", PackedMove.toString(result.getBestMove()));
+  }
+
+  @Test
+  public void test_search_nodeLimit() {
+    SearchResult result = this.helper_search(PerftPosition.KIWIPETE.getFen(), SearchLimits.nodes(2000));
+    assertTrue(result.getNodes() <= 2000);
+    assertTrue(result.getBestMove() != PackedMove.NONE);
+    assertEquals(SearchStop.NODES, result.getStop());
+  }
+
+  @Test
+  public void test_search_timeLimit() {
+    SearchResult result = this.helper_search(PerftPosition.KIWIPETE.getFen(), SearchLimits.millis(50));
+    // the search runs out of time, and never stops before its limit
+    assertTrue(result.getStop() == SearchStop.TIME || result.getStop() == SearchStop.SOFT_TIME, result.getStop().name());
+    assertTrue(result.getNanos() >= 50 * 1_000_000L, result.getNanos() + " ns");
+    // a slow machine may not finish depth 1 before the hard limit
+    assertTrue(result.getDepth() >= 1 || result.getStop() == SearchStop.TIME, result.toString());
+    assertTrue(result.getBestMove() != PackedMove.NONE);
+  }
+
+  @Test
+  public void test_search_depthLimit() {
+    SearchResult result = this.helper_search(Fen.STARTING_POSITION, SearchLimits.depth(3));
+    assertEquals(3, result.getDepth());
+    assertEquals(SearchStop.DEPTH, result.getStop());
+    assertEquals(Search.MAX_PLY, SearchLimits.depth(1000).getDepth());
+  }
+
+  @Test
+  public void test_search_quiescence() {
+    // at depth 1 the Queen would take the Pawn, were it not for the recapture
+    SearchResult result = this.helper_search("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1", SearchLimits.depth(1));
+    assertFalse(PackedMove.toString(result.getBestMove()).equals("d1d5"));
+    assertTrue(result.getScore() > 500, result.toString());
+
+    // and a free Pawn is still taken
+    result = this.helper_search("4k3/8/8/3p4/8/8/8/3QK3 w - - 0 1", SearchLimits.depth(1));
+    assertEquals("d1d5", PackedMove.toString(result.getBestMove()));
+  }
+
+  @Test
+  public void test_search_features() {
+    // every feature can be switched off on its own, and the search still finds the mate
+    for(SearchFeature feature: SearchFeature.values()){
+      Board board = Fen.toBoard("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1");
+      Search search = new Search(board);
+      assertTrue(search.isEnabled(feature));
+      search.setEnabled(feature, false);
+      assertFalse(search.isEnabled(feature));
+      assertEquals(Search.MATE - 3, search.search(SearchLimits.depth(4)).getScore(), feature.name());
+    }
+  }
+
+  @Test
+  public void test_search_nullMoveZugzwang() {
+    // with only Pawns left passing could beat every move, so no null move is tried
+    for(String fen: new String[]{"8/8/3k4/3p4/3P4/3K4/8/8 w - - 0 1", "8/8/p7/8/8/1k6/8/K7 w - - 0 1"}){
+      Search withNullMove = new Search(Fen.toBoard(fen));
+      Search withoutNullMove = new Search(Fen.toBoard(fen));
+      withoutNullMove.setEnabled(SearchFeature.NULL_MOVE, false);
+      SearchResult with = withNullMove.search(SearchLimits.depth(7));
+      SearchResult without = withoutNullMove.search(SearchLimits.depth(7));
+      assertEquals(without.getScore(), with.getScore(), fen);
+      assertEquals(without.getNodes(), with.getNodes(), fen);
+    }
+  }
+
+  @Test
+  public void test_reportFeatures() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    long[] totals = Search.reportFeatures(new PerftPosition[]{PerftPosition.KIWIPETE}, 5, new PrintStream(bytes));
+    assertEquals(SearchFeature.values().length + 2, totals.length);
+    // the features together save nodes
+    assertTrue(totals[0] < totals[totals.length - 1], bytes.toString());
+    assertTrue(bytes.toString().contains("KIWIPETE depth 5, no NULL_MOVE"));
+  }
+
+  @Test
+  public void test_search_softTimeLimit() {
+    // no new iteration starts after the soft limit, however far off the hard limit is
+    SearchResult result = this.helper_search(PerftPosition.KIWIPETE.getFen(), new SearchLimits(0, 0, 1, 60_000));
+    assertEquals(SearchStop.SOFT_TIME, result.getStop());
+    assertTrue(result.getNanos() >= 1_000_000L, result.getNanos() + " ns");
+    assertTrue(result.getDepth() >= 1);
+    assertEquals(100, new SearchLimits(0, 0, 500, 100).getSoftMillis());
+  }
+
+  @Test
+  public void test_search_nodeLimit_reSearches() {
+    // a search stopped inside a null window search returns through the re-searches
+    // of late move reductions, PVS and aspiration windows, none of which may count
+    for(PerftPosition position: PerftPosition.values()){
+      for(long nodes = 50; nodes <= 5000; nodes += 50){
+        SearchResult result = new Search(position.toBoard()).search(SearchLimits.nodes(nodes));
+        assertTrue(result.getNodes() <= nodes, position.name() + " searched " + result.getNodes() + " of " + nodes);
+      }
+    }
+  }
+}
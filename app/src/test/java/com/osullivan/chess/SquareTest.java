@@ -3,6 +3,8 @@ package com.osullivan.chess;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -71,6 +73,27 @@ public class SquareTest {
 
   }
 
+  @Test
+  public void test_of() {
+    assertSame(Square.of(1, 2), Square.of(1, 2));
+    assertSame(Square.of(1, 2), Square.of("b1"));
+    assertSame(Square.of(1, 2), Square.of(1));
+    assertSame(Square.of(8, 8), Square.of(63));
+    assertSame(Square.of(-1, 10), Square.of(-1, 10));
+    assertEquals(new Square("e4"), Square.of("e4"));
+    assertEquals(28, Square.of("e4").getIndex());
+    assertEquals(new Square(3, 5).hashCode(), Square.of(3, 5).hashCode());
+
+    // squares far off board are still equal, just not pooled
+    assertNotSame(Square.of(11, 1), Square.of(11, 1));
+    assertEquals(Square.of(11, 1), Square.of(11, 1));
+    assertEquals(new Square(-5, 3), Square.of(-5, 3));
+
+    assertThrows(IllegalArgumentException.class, () -> Square.of(64));
+    assertThrows(IllegalArgumentException.class, () -> Square.of(-1));
+    assertThrows(IllegalArgumentException.class, () -> Square.of("a@"));
+  }
+
   @Test
   public void test_toString() {
     Square square1 = new Square(2, 1);
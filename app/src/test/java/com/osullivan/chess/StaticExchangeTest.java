@@ -0,0 +1,62 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTest {
+  // shared by the evaluations of a test, so each reuses the swap list of the last
+  private final StaticExchange exchange = new StaticExchange();
+
+  private int helper_see(String fen, String uci){
+    Board board = Fen.toBoard(fen);
+    long key = board.getZobristKey();
+    MoveList moves = new MoveList();
+    new MoveGenerator().generateLegalMoves(board, board.isWhiteToMove(), moves);
+    for(int i = 0; i < moves.size(); i++){
+      if(PackedMove.toString(moves.get(i)).equals(uci)){
+        int see = this.exchange.evaluate(board, moves.get(i));
+        // the board is never touched
+        assertEquals(key, board.getZobristKey());
+        assertEquals(Fen.toFen(Fen.toBoard(fen)), Fen.toFen(board));
+        return see;
+      }
+    }
+    throw new IllegalArgumentException(uci);
+  }
+
+  @Test
+  public void test_evaluate_captures() {
+    assertEquals(100, this.helper_see("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", "e4d5"));
+    // the Pawn recaptures the Rook
+    assertEquals(-400, this.helper_see("4k3/2p5/3p4/8/8/8/8/3RK3 w - - 0 1", "d1d6"));
+    // the Knight is won back, but the Pawn stays won
+    assertEquals(220, this.helper_see("4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1", "e4d5"));
+    assertEquals(-220, this.helper_see("2r1k3/8/2p5/8/3N4/8/8/4K3 w - - 0 1", "d4c6"));
+    assertEquals(100, this.helper_see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+    assertEquals(0, this.helper_see("4k3/8/8/8/8/8/8/4K3 w - - 0 1", "e1e2"));
+  }
+
+  @Test
+  public void test_evaluate_xrays() {
+    // the Rook behind the first one recaptures once the first is taken
+    assertEquals(100, this.helper_see("3rk3/8/3p4/8/8/8/3R4/3RK3 w - - 0 1", "d2d6"));
+    assertEquals(-400, this.helper_see("3rk3/8/3p4/8/8/8/3R4/4K3 w - - 0 1", "d2d6"));
+    // the Queen behind the Bishop takes back through it
+    assertEquals(320, this.helper_see("4k3/8/5b2/8/3n4/8/1B6/Q3K3 w - - 0 1", "b2d4"));
+    assertEquals(-10, this.helper_see("4k3/8/5b2/8/3n4/8/1B6/4K3 w - - 0 1", "b2d4"));
+  }
+
+  @Test
+  public void test_evaluate_quietAndPromotions() {
+    // the Rook steps onto a square the Pawn attacks
+    assertEquals(-500, this.helper_see("4k3/8/8/3p4/8/8/8/2R1K3 w - - 0 1", "c1c4"));
+    assertEquals(0, this.helper_see("4k3/8/8/3p4/8/8/8/2R1K3 w - - 0 1", "c1c3"));
+    assertEquals(800, this.helper_see("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7a8q"));
+    // the new Queen is taken by the Rook
+    assertEquals(-100, this.helper_see("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b7b8q"));
+    assertEquals(1300, this.helper_see("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b7a8q"));
+    // the King takes, but only where it cannot be taken back
+    assertEquals(100, this.helper_see("4k3/8/8/8/8/8/3p4/4K3 w - - 0 1", "e1d2"));
+  }
+}
@@ -510,4 +510,13 @@ public class TextPlayerTest {
     assertEquals(expectedView, view.displayBoard());
     assertFalse(p2.isStaleMate());
   }
+
+  @Test
+  public void test_isStaleMate_onlyEnPassant(){
+    // the King and the blocked Pawn cannot move, the capture on d6 is the only legal move
+    Board b = Fen.toBoard("k5r1/8/4p3/3pP3/8/5n2/8/7K w - d6 0 2");
+    Player p1 = new TextPlayer(true, b);
+    assertFalse(p1.isStaleMate());
+    assertFalse(p1.isCheckMate());
+  }
 }
@@ -0,0 +1,92 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class TimeManagerTest {
+  @Test
+  public void test_allocate_suddenDeath() {
+    TimeManager clock = TimeManager.suddenDeath(60_010);
+    SearchLimits limits = clock.allocate(SearchLimits.depth(10));
+    assertEquals(10, limits.getDepth());
+    assertEquals(Long.MAX_VALUE, limits.getNodes());
+    assertEquals(2000, limits.getSoftMillis());
+    assertEquals(8000, limits.getMillis());
+
+    clock.moveMade(10_000);
+    assertEquals(50_010, clock.getRemainingMillis());
+    // a move never takes more than a quarter of what is left
+    clock.moveMade(50_000);
+    limits = clock.allocate(SearchLimits.depth(10));
+    assertEquals(1, limits.getSoftMillis());
+    assertEquals(1, limits.getMillis());
+    assertFalse(clock.isFlagged());
+    clock.moveMade(20);
+    assertTrue(clock.isFlagged());
+  }
+
+  @Test
+  public void test_allocate_increment() {
+    TimeManager clock = TimeManager.increment(3_010, 2_000);
+    SearchLimits limits = clock.allocate(SearchLimits.nodes(5000));
+    assertEquals(5000, limits.getNodes());
+    assertEquals(100 + 1500, limits.getSoftMillis());
+    assertEquals(750 + 2000, limits.getMillis());
+    clock.moveMade(1000);
+    assertEquals(4_010, clock.getRemainingMillis());
+    assertEquals(2_000, clock.getIncrementMillis());
+  }
+
+  @Test
+  public void test_allocate_moveTime() {
+    TimeManager clock = TimeManager.moveTime(100);
+    clock.setMoveOverhead(20);
+    SearchLimits limits = clock.allocate(SearchLimits.depth(0));
+    assertEquals(80, limits.getSoftMillis());
+    assertEquals(80, limits.getMillis());
+    clock.moveMade(500);
+    assertEquals(100, clock.getRemainingMillis());
+    assertFalse(clock.isFlagged());
+
+    assertThrows(IllegalArgumentException.class, () -> TimeManager.moveTime(0));
+    assertThrows(IllegalArgumentException.class, () -> TimeManager.increment(1000, -1));
+    assertThrows(IllegalArgumentException.class, () -> clock.setMoveOverhead(-1));
+  }
+
+  @Test
+  public void test_moveLatency() {
+    // every move of a game searches until its limit, and stops there
+    Board board = Fen.toBoard(PerftPosition.KIWIPETE.getFen());
+    long[] millis = new long[20];
+    try(ComputerPlayer white = new ComputerPlayer(true, board, SearchLimits.depth(0));
+        ComputerPlayer black = new ComputerPlayer(false, board, SearchLimits.depth(0))){
+      white.setTimeManager(TimeManager.moveTime(30));
+      black.setTimeManager(TimeManager.moveTime(30));
+      for(int i = 0; i < millis.length; i++){
+        ComputerPlayer player = i % 2 == 0 ? white : black;
+        SearchLimits limits = player.getTimeManager().allocate(player.getLimits());
+        assertEquals(30 - TimeManager.DEFAULT_MOVE_OVERHEAD, limits.getMillis());
+        long start = System.nanoTime();
+        SearchResult result = player.think();
+        millis[i] = (System.nanoTime() - start) / 1_000_000;
+        if(result.getBestMove() == PackedMove.NONE){
+          break;
+        }
+        if(!result.isMate()){
+          assertTrue(result.getStop() == SearchStop.TIME || result.getStop() == SearchStop.SOFT_TIME, result.getStop().name());
+          assertTrue(result.getNanos() >= limits.getMillis() * 1_000_000L, result.getNanos() + " ns");
+        }
+        board.makeMove(result.getBestMove());
+      }
+    }
+    // only a smoke test, the margin leaves room for a slow machine
+    Arrays.sort(millis);
+    assertTrue(millis[millis.length - 1] < 2000, Arrays.toString(millis));
+  }
+}
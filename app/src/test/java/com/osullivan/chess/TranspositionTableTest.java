@@ -0,0 +1,96 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+  @Test
+  public void test_storeAndProbe() {
+    TranspositionTable table = new TranspositionTable(1);
+    assertEquals(1 << 16, table.size());
+    assertEquals(1, table.getMegabytes());
+    long key = 0x123456789ABCDEFL;
+    assertEquals(0L, table.probe(key));
+
+    int move = PackedMove.encode(12, 28, 0, PackedMove.DOUBLE_PUSH);
+    table.store(key, move, -250, 7, TranspositionTable.LOWER);
+    long data = table.probe(key);
+    assertEquals(move, TranspositionTable.getMove(data));
+    assertEquals(-250, TranspositionTable.getScore(data));
+    assertEquals(7, TranspositionTable.getDepth(data));
+    assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(data));
+
+    // same bucket, other key
+    assertEquals(0L, table.probe(key ^ (1L << 40)));
+
+    table.store(key, PackedMove.NONE, Search.MATE - 3, 0, TranspositionTable.EXACT);
+    assertEquals(Search.MATE - 3, TranspositionTable.getScore(table.probe(key)));
+
+    table.clear();
+    assertEquals(0L, table.probe(key));
+    assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+  }
+
+  @Test
+  public void test_store_keepsDeeperResults() {
+    TranspositionTable table = new TranspositionTable(1);
+    long key = 42L;
+    table.store(key, PackedMove.NONE, 10, 8, TranspositionTable.UPPER);
+    int move = PackedMove.encode(1, 18, 0, 0);
+    table.store(key, move, 20, 3, TranspositionTable.LOWER);
+    long data = table.probe(key);
+    assertEquals(10, TranspositionTable.getScore(data));
+    assertEquals(8, TranspositionTable.getDepth(data));
+    // the shallower result's move is kept with the deeper result
+    assertEquals(move, TranspositionTable.getMove(data));
+    table.store(key, PackedMove.NONE, 30, 3, TranspositionTable.EXACT);
+    assertEquals(30, TranspositionTable.getScore(table.probe(key)));
+  }
+
+  @Test
+  public void test_store_buckets() {
+    TranspositionTable table = new TranspositionTable(1);
+    long buckets = table.size() / 4;
+    // four positions of one bucket all fit
+    for(int i = 0; i < 4; i++){
+      table.store(5 + i * buckets, PackedMove.NONE, i, 10 + i, TranspositionTable.EXACT);
+    }
+    for(int i = 0; i < 4; i++){
+      assertEquals(i, TranspositionTable.getScore(table.probe(5 + i * buckets)));
+    }
+    // a fifth replaces the shallowest
+    table.store(5 + 4 * buckets, PackedMove.NONE, 4, 1, TranspositionTable.EXACT);
+    assertEquals(0L, table.probe(5));
+    assertEquals(1, TranspositionTable.getScore(table.probe(5 + buckets)));
+
+    // after a new search, old entries go before shallower current ones
+    table.clear();
+    for(int i = 0; i < 3; i++){
+      table.store(5 + i * buckets, PackedMove.NONE, i, 10, TranspositionTable.EXACT);
+    }
+    table.newSearch();
+    table.store(5 + 3 * buckets, PackedMove.NONE, 3, 5, TranspositionTable.EXACT);
+    table.store(5 + 4 * buckets, PackedMove.NONE, 4, 5, TranspositionTable.EXACT);
+    assertEquals(0L, table.probe(5));
+    assertEquals(3, TranspositionTable.getScore(table.probe(5 + 3 * buckets)));
+    assertEquals(1, TranspositionTable.getAge(table.probe(5 + 4 * buckets)));
+  }
+
+  @Test
+  public void test_hashfull() {
+    TranspositionTable table = new TranspositionTable(1);
+    assertEquals(0, table.hashfull());
+    for(long key = 0; key < table.size() / 4; key++){
+      table.store(key, PackedMove.NONE, 0, 1, TranspositionTable.EXACT);
+    }
+    assertEquals(250, table.hashfull());
+    table.newSearch();
+    assertEquals(0, table.hashfull());
+
+    Search search = new Search(Fen.toBoard(Fen.STARTING_POSITION), table);
+    search.search(SearchLimits.depth(4));
+    assertEquals(true, table.hashfull() > 0);
+  }
+}
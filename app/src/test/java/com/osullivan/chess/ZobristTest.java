@@ -0,0 +1,102 @@
+package com.osullivan.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class ZobristTest {
+  private void helper_playMoves(Board b, String... moves) throws IOException {
+    Player white = new TextPlayer(true, b);
+    Player black = new TextPlayer(false, b);
+    for(String m: moves){
+      Player p = b.isWhiteToMove() ? white : black;
+      assertNull(p.tryMakeNormalMove(new Move(m)));
+      b.appendMoveLog(new Move(m));
+      assertEquals(Zobrist.computeKey(b), b.getZobristKey());
+    }
+  }
+
+  @Test
+  public void test_initialKey() {
+    Board b = new ChessBoard(8, 8);
+    assertTrue(b.isWhiteToMove());
+    assertEquals(0xF, b.getCastlingRights());
+    assertNull(b.getEnPassantSquare());
+    assertEquals(Zobrist.computeKey(b), b.getZobristKey());
+    assertEquals(new ChessBoard(8, 8).getZobristKey(), b.getZobristKey());
+    assertEquals(new BitboardBoard(8, 8).getZobristKey(), b.getZobristKey());
+    assertNotEquals(new ChessBoard(8, 8, new HashSet<>()).getZobristKey(), b.getZobristKey());
+  }
+
+  @Test
+  public void test_transposition() throws IOException {
+    Board b1 = new ChessBoard(8, 8);
+    Board b2 = new BitboardBoard(8, 8);
+    this.helper_playMoves(b1, "g1f3", "b8c6", "b1c3", "g8f6");
+    this.helper_playMoves(b2, "b1c3", "g8f6", "g1f3", "b8c6");
+    assertEquals(b1.getZobristKey(), b2.getZobristKey());
+
+    // same placement with the other side to move
+    Board b3 = new ChessBoard(8, 8);
+    this.helper_playMoves(b3, "g1f3", "b8c6", "b1c3", "g8f6", "f3g1");
+    this.helper_playMoves(b3, "f6g8", "g1f3", "g8f6");
+    assertEquals(b1.getZobristKey(), b3.getZobristKey());
+    this.helper_playMoves(b3, "f3g1", "f6g8", "g1f3");
+    assertNotEquals(b1.getZobristKey(), b3.getZobristKey());
+  }
+
+  @Test
+  public void test_enPassantSquare() throws IOException {
+    Board b1 = new ChessBoard(8, 8);
+    Board b2 = new ChessBoard(8, 8);
+    this.helper_playMoves(b1, "e2e4", "e7e5");
+    this.helper_playMoves(b2, "e2e3", "e7e6", "e3e4", "e6e5");
+    assertEquals(new Square("e6"), b1.getEnPassantSquare());
+    assertNull(b2.getEnPassantSquare());
+    assertNotEquals(b1.getZobristKey(), b2.getZobristKey());
+
+    this.helper_playMoves(b1, "g1f3", "g8f6", "f3g1", "f6g8");
+    assertNull(b1.getEnPassantSquare());
+    this.helper_playMoves(b2, "g1f3", "g8f6", "f3g1", "f6g8");
+    assertEquals(b1.getZobristKey(), b2.getZobristKey());
+  }
+
+  @Test
+  public void test_castlingRights() throws IOException {
+    Board b1 = new ChessBoard(8, 8);
+    Board b2 = new ChessBoard(8, 8);
+    this.helper_playMoves(b1, "e2e3", "e7e6", "e1e2", "e8e7", "e2e1", "e7e8");
+    this.helper_playMoves(b2, "e2e3", "e7e6", "g1f3", "g8f6", "f3g1", "f6g8");
+    assertEquals(0, b1.getCastlingRights());
+    assertEquals(0xF, b2.getCastlingRights());
+    assertNotEquals(b1.getZobristKey(), b2.getZobristKey());
+
+    Board b3 = new ChessBoard(8, 8);
+    this.helper_playMoves(b3, "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5");
+    Player white = new TextPlayer(true, b3);
+    assertNull(white.tryKingSideCastle());
+    assertFalse(b3.isWhiteToMove());
+    assertEquals(Board.BLACK_KING_SIDE | Board.BLACK_QUEEN_SIDE, b3.getCastlingRights());
+    assertEquals(Zobrist.computeKey(b3), b3.getZobristKey());
+  }
+
+  @Test
+  public void test_captureAndEnPassant() throws IOException {
+    Board b = new ChessBoard(8, 8);
+    this.helper_playMoves(b, "e2e4", "d7d5", "e4d5", "e7e5");
+    assertEquals(new Square("e6"), b.getEnPassantSquare());
+
+    Player white = new TextPlayer(true, b);
+    assertNull(white.tryEnPassant(new Move("d5e6")));
+    assertNull(b.getEnPassantSquare());
+    assertFalse(b.isWhiteToMove());
+    assertEquals(Zobrist.computeKey(b), b.getZobristKey());
+  }
+}